@@ -0,0 +1,47 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.logic.MemberContribution;
+import de.blaukool.tacticus.logic.SeasonAggregator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregation of parsed entries. {@code ingest} only fills the raid table, the other benchmarks add the complete
+ * aggregation on top, sequentially or on the fork-join pool. Its two passes are measured on their own in
+ * {@link de.blaukool.tacticus.logic.AggregationPassBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregateBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int entries;
+
+    private BenchmarkData data;
+
+    @Setup
+    public void setUp() {
+        data = new BenchmarkData(entries);
+    }
+
+    @Benchmark
+    public int ingest() {
+        return data.aggregate(false).getEntryCount();
+    }
+
+    @Benchmark
+    public List<MemberContribution> memberContributions() {
+        return data.aggregate(false).getSortedContributions();
+    }
+
+    @Benchmark
+    public List<MemberContribution> parallelMemberContributions() {
+        return SeasonAggregator.aggregate(data.entries, data.memberNames, data.memberRoles, data.memberLevel, false).getSortedContributions();
+    }
+}
@@ -0,0 +1,61 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.logic.SeasonAggregator;
+import de.blaukool.tacticus.simulation.GuildDataGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Synthetic season data for the benchmarks from {@link GuildDataGenerator}. The same number of entries always
+ * yields the same data. Public for the benchmarks of package-private code in other packages.
+ */
+public class BenchmarkData {
+    static final int MEMBERS = 30;
+    static final int SEASON = 78;
+    private static final long SEED = 20240101L;
+
+    final Map<String, String> memberNames = new HashMap<>();
+    final Map<String, String> memberRoles = new HashMap<>();
+    final Map<String, Integer> memberLevel = new HashMap<>();
+    final List<GuildRaidResponse.Raid> entries;
+    private final GuildDataGenerator generator;
+
+    public BenchmarkData(int entryCount) {
+        generator = new GuildDataGenerator(SEED, MEMBERS, entryCount);
+        Properties names = generator.getMemberNames();
+        for (GuildResponse.GuildMember member : generator.createGuild(SEASON, SEASON).getMembers()) {
+            memberNames.put(member.getUserId(), names.getProperty(member.getUserId()));
+            memberRoles.put(member.getUserId(), member.getRole());
+            memberLevel.put(member.getUserId(), member.getLevel());
+        }
+        entries = new ArrayList<>(entryCount);
+        generator.generateSeason(SEASON, entries::add);
+    }
+
+    /**
+     * @return an aggregator that has read all entries; they are aggregated on the first read of a result
+     */
+    public SeasonAggregator aggregate(boolean keepRaids) {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, keepRaids);
+        entries.forEach(aggregator);
+        return aggregator;
+    }
+
+    /**
+     * @return the entries as a guild raid response, as the API sends it
+     */
+    byte[] toJson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            generator.writeSeason(out, SEASON);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
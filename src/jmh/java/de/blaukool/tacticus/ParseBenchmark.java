@@ -0,0 +1,49 @@
+package de.blaukool.tacticus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.api.GuildRaidStreamReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of a guild raid season response, streamed as the client reads it and bound as a whole.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int entries;
+
+    private byte[] json;
+    private ObjectMapper objectMapper;
+    private GuildRaidStreamReader streamReader;
+
+    @Setup
+    public void setUp() {
+        json = new BenchmarkData(entries).toJson();
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        streamReader = new GuildRaidStreamReader(objectMapper);
+    }
+
+    @Benchmark
+    public GuildRaidResponse stream(Blackhole blackhole) throws IOException {
+        return streamReader.read(new ByteArrayInputStream(json), blackhole::consume);
+    }
+
+    @Benchmark
+    public GuildRaidResponse bind() throws IOException {
+        return objectMapper.readValue(json, GuildRaidResponse.class);
+    }
+}
@@ -0,0 +1,43 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.logic.SeasonAggregator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the whole workbook of one season per writer. The sheets are measured on their own in
+ * {@link SheetBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    @Param({"1000", "10000"})
+    int entries;
+
+    /** A {@link Reporting.WorkbookWriter}, which is not public and can not be a parameter itself */
+    @Param({"XSSF", "SXSSF", "OOXML"})
+    String writerName;
+
+    private Reporting.WorkbookWriter writer;
+
+    private SeasonAggregator aggregator;
+
+    @Setup
+    public void setUp() {
+        writer = Reporting.WorkbookWriter.valueOf(writerName);
+        aggregator = new BenchmarkData(entries).aggregate(true);
+    }
+
+    @Benchmark
+    public void workbook() throws IOException {
+        Reporting.writeSeasonWorkbook(BenchmarkData.SEASON, aggregator, writer, OutputStream.nullOutputStream());
+    }
+}
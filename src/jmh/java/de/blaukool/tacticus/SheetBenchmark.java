@@ -0,0 +1,85 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.logic.SeasonAggregator;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of each sheet of {@link Reporting} on its own. The sheet methods always render through POI, so they are
+ * measured with the streaming workbook only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SheetBenchmark {
+
+    @Param({"1000", "10000"})
+    int entries;
+
+    private SeasonAggregator aggregator;
+    private Method playerStatistics;
+    private Method bossTimeline;
+    private Method playerBattleStatistics;
+
+    @Setup
+    public void setUp() throws Exception {
+        aggregator = new BenchmarkData(entries).aggregate(true);
+        // Aggregate and sort the timelines before measuring
+        aggregator.getBosses().stream().filter(boss -> !boss.getAttacks().isEmpty()).forEach(boss -> boss.getAttacks().get(0));
+        playerStatistics = sheetMethod("createPlayerStatisticsSheet", List.class);
+        bossTimeline = sheetMethod("createBossTimelineSheet", SortedSet.class);
+        playerBattleStatistics = sheetMethod("createPlayerBattleStatisticsSheet", List.class);
+    }
+
+    private static Method sheetMethod(String name, Class<?> dataType) throws NoSuchMethodException {
+        Method method = Reporting.class.getDeclaredMethod(name, org.apache.poi.ss.usermodel.Sheet.class,
+                CellStyle.class, CellStyle.class, dataType, Integer.class);
+        method.setAccessible(true);
+        return method;
+    }
+
+    @Benchmark
+    public void playerStatisticsSheet() throws Exception {
+        renderSheet(playerStatistics, aggregator.getSortedContributions());
+    }
+
+    @Benchmark
+    public void bossTimelineSheet() throws Exception {
+        renderSheet(bossTimeline, aggregator.getBosses());
+    }
+
+    @Benchmark
+    public void playerBattleStatisticsSheet() throws Exception {
+        renderSheet(playerBattleStatistics, aggregator.getSortedContributions());
+    }
+
+    private void renderSheet(Method sheet, Object data) throws Exception {
+        SXSSFWorkbook workbook = new SXSSFWorkbook();
+        try {
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+            CellStyle numberStyle = workbook.createCellStyle();
+            numberStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+
+            sheet.invoke(null, workbook.createSheet("Sheet"), headerStyle, numberStyle, data, BenchmarkData.SEASON);
+            workbook.write(OutputStream.nullOutputStream());
+        } finally {
+            workbook.dispose();
+            ((Workbook) workbook).close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package de.blaukool.tacticus.logic;
+
+import de.blaukool.tacticus.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two passes of the aggregation on their own: the member loop and the boss view. Every invocation starts
+ * from an aggregator that has read all entries but not aggregated any of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregationPassBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int entries;
+
+    private BenchmarkData data;
+    private SeasonAggregator aggregator;
+
+    @Setup
+    public void setUp() {
+        data = new BenchmarkData(entries);
+    }
+
+    @Setup(Level.Invocation)
+    public void ingest() {
+        aggregator = data.aggregate(false);
+    }
+
+    @Benchmark
+    public SeasonAggregator memberContributions() {
+        aggregator.aggregateMemberContributions(0);
+        return aggregator;
+    }
+
+    @Benchmark
+    public SeasonAggregator bossView() {
+        aggregator.aggregateBossView(0);
+        return aggregator;
+    }
+}
@@ -0,0 +1,131 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.api.SeasonCache;
+import de.blaukool.tacticus.api.TacticusApiClient;
+import de.blaukool.tacticus.api.TrafficArchive;
+import de.blaukool.tacticus.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Creates the Excel reports of {@link Reporting} for many guilds in one run. All guilds share one API client,
+ * so connections, the rate limit and the season cache are shared as well, and all workbooks are rendered on
+ * one pool.
+ * <p>
+ * The keys file holds one API key per line, optionally followed by a comma and a label for the summary.
+ * Empty lines and lines starting with {@code #} are ignored.
+ */
+public class BatchReporting {
+
+    private static final String PARALLELISM_PROPERTY = "tacticus.batch.parallelism";
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Please provide a file with one API key per line as an argument");
+            return;
+        }
+
+        List<GuildKey> keys;
+        try {
+            keys = readKeys(Paths.get(args[0]));
+        } catch (IOException e) {
+            System.err.println("Error reading API keys: " + e.getMessage());
+            return;
+        }
+        if (keys.isEmpty()) {
+            System.err.println("No API keys found in " + args[0]);
+            return;
+        }
+
+        // Number of guilds processed at the same time, e.g. -Dtacticus.batch.parallelism=2
+        int parallelism = Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+        parallelism = Math.min(parallelism, keys.size());
+        int maxInFlight = Reporting.getMaxInFlight();
+
+        TacticusApiClient.Settings settings = TacticusApiClient.Settings.fromSystemProperties().withMaxConnections(maxInFlight * parallelism);
+        ExecutorService guildExecutor = Executors.newFixedThreadPool(parallelism);
+        ExecutorService renderExecutor = Reporting.newRenderExecutor();
+        try (TacticusApiClient client = new TacticusApiClient(TacticusApiClient.baseUrlFromSystemProperties(),
+                settings, SeasonCache.fromSystemProperties(), TrafficArchive.fromSystemProperties())) {
+            List<Future<Reporting.GuildSummary>> results = new ArrayList<>();
+            for (GuildKey key : keys) {
+                results.add(guildExecutor.submit(() -> Reporting.createReports(client, renderExecutor, key.apiKey(), maxInFlight)));
+            }
+
+            List<Reporting.GuildSummary> summaries = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                try {
+                    summaries.add(results.get(i).get());
+                } catch (ExecutionException e) {
+                    System.err.println("Error creating reports for " + keys.get(i).label() + ": " + e.getCause().getMessage());
+                    summaries.add(null);
+                }
+            }
+            printSummary(keys, summaries);
+            System.out.println("API requests: " + client.getSchedulerMetrics());
+            MetricsRegistry.getInstance().report();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while creating reports");
+        } catch (IOException e) {
+            System.err.println("Error opening or closing API client: " + e.getMessage());
+        } finally {
+            guildExecutor.shutdownNow();
+            renderExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the keys file. Keys without a label are labelled with their position in the file.
+     */
+    static List<GuildKey> readKeys(Path file) throws IOException {
+        List<GuildKey> keys = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            String apiKey = (comma < 0 ? line : line.substring(0, comma)).trim();
+            String label = comma < 0 ? "" : line.substring(comma + 1).trim();
+            if (label.isEmpty()) {
+                label = "Key " + (keys.size() + 1);
+            }
+            keys.add(new GuildKey(apiKey, label));
+        }
+        return keys;
+    }
+
+    private static void printSummary(List<GuildKey> keys, List<Reporting.GuildSummary> summaries) {
+        System.out.println("\n=== Batch Summary ===");
+        System.out.printf("%-20s %-25s %8s %8s %8s %18s%n", "Label", "Guild", "Members", "Seasons", "Reports", "Total Damage");
+        System.out.println("-".repeat(92));
+
+        int reports = 0;
+        long totalDamage = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            Reporting.GuildSummary summary = summaries.get(i);
+            if (summary == null) {
+                System.out.printf("%-20s %-25s%n", keys.get(i).label(), "(failed)");
+                continue;
+            }
+            System.out.printf("%-20s %-25s %8d %8d %8d %,18d%n", keys.get(i).label(), summary.guildName(),
+                    summary.members(), summary.seasons(), summary.files().size(), summary.totalDamage());
+            reports += summary.files().size();
+            totalDamage += summary.totalDamage();
+        }
+
+        System.out.println("-".repeat(92));
+        System.out.printf("%-20s %-25s %8s %8s %8d %,18d%n", "Total", "", "", "", reports, totalDamage);
+    }
+
+    record GuildKey(String apiKey, String label) {
+    }
+}
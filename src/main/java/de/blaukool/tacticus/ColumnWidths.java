@@ -0,0 +1,52 @@
+package de.blaukool.tacticus;
+
+/**
+ * Remembers the widest rendered value per column while rows are written, so that the column widths can be set
+ * once after all rows have been written. This replaces {@code Sheet.autoSizeColumn(int)}, which lays out every
+ * cell of a column with AWT fonts and only works on streamed sheets if all columns are tracked.
+ * <p>
+ * Widths are estimated from the number of characters, with bold text counted a bit wider.
+ */
+class ColumnWidths {
+    private static final double BOLD_FACTOR = 1.1;
+    private static final int PADDING_CHARS = 1;
+    private static final int MAX_WIDTH = 255 * 256;
+
+    private double[] widths = new double[16];
+    private int columns;
+
+    /**
+     * @param value the value as it is displayed, e.g. numbers with their number format applied; {@code null} for
+     *              a blank cell
+     */
+    void track(int column, String value, boolean bold) {
+        if (column >= widths.length) {
+            double[] grown = new double[Math.max(widths.length * 2, column + 1)];
+            System.arraycopy(widths, 0, grown, 0, widths.length);
+            widths = grown;
+        }
+        columns = Math.max(columns, column + 1);
+        double width = value != null ? value.length() * (bold ? BOLD_FACTOR : 1) : 0;
+        if (width > widths[column]) {
+            widths[column] = width;
+        }
+    }
+
+    /**
+     * @return one more than the highest column that received a value
+     */
+    int getColumnCount() {
+        return columns;
+    }
+
+    /**
+     * @return the width of the column in 1/256 of a character, as used by {@code Sheet.setColumnWidth(int, int)},
+     * or -1 if the column did not receive a value
+     */
+    int getWidth(int column) {
+        if (column >= columns || widths[column] == 0) {
+            return -1;
+        }
+        return (int) Math.min(MAX_WIDTH, (widths[column] + PADDING_CHARS) * 256);
+    }
+}
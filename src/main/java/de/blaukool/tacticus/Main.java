@@ -1,17 +1,13 @@
 package de.blaukool.tacticus;
 
 import de.blaukool.tacticus.logic.*;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.DamageType;
 import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.api.SeasonCache;
+import de.blaukool.tacticus.api.TacticusApiClient;
+import de.blaukool.tacticus.api.TrafficArchive;
 
 import java.io.IOException;
 import java.util.*;
@@ -34,16 +30,15 @@ public class Main {
             }
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        try (TacticusApiClient client = new TacticusApiClient(TacticusApiClient.baseUrlFromSystemProperties(),
+                TacticusApiClient.Settings.fromSystemProperties(), SeasonCache.fromSystemProperties(), TrafficArchive.fromSystemProperties())) {
             // Step 1: Call guild data API and create base member data
             Map<String, String> memberNames = new HashMap<>();
             Map<String, String> memberRoles = new HashMap<>();
+            Map<String, Integer> memberLevel = new HashMap<>();
             List<Integer> guildRaidSeasons = new ArrayList<>();
 
-            GuildResponse guildResponse = makeApiCall(httpClient, "/api/v1/guild", api_key, "Guild Data", GuildResponse.class, objectMapper);
+            GuildResponse guildResponse = TacticusApiClient.fetchOrNull("Guild Data", () -> client.getGuild(api_key));
             if (guildResponse != null) {
                 System.out.println("Guild Name: " + guildResponse.getGuild().getName());
                 System.out.println("Guild Tag: " + guildResponse.getGuild().getGuildTag());
@@ -55,6 +50,7 @@ public class Main {
                     for (GuildResponse.GuildMember member : guildResponse.getGuild().getMembers()) {
                         memberNames.put(member.getUserId(), member.getName());
                         memberRoles.put(member.getUserId(), member.getRole());
+                        memberLevel.put(member.getUserId(), member.getLevel());
                     }
                 }
 
@@ -66,166 +62,24 @@ public class Main {
             }
 
             // Step 2: Call guild raid API for each season
+            String guildId = guildResponse != null ? guildResponse.getGuild().getGuildId() : null;
+            int currentSeason = guildRaidSeasons.stream().mapToInt(Integer::intValue).max().orElse(0);
             for (Integer season : guildRaidSeasons) {
-                Map<String, MemberContribution> memberContributions = new HashMap<>();
-
-                // Initialize member contributions for this season
-                for (Map.Entry<String, String> entry : memberNames.entrySet()) {
-                    MemberContribution contribution = new MemberContribution();
-                    contribution.setName(entry.getValue());
-                    contribution.setRole(memberRoles.get(entry.getKey()));
-                    contribution.setBossBattle(0);
-                    contribution.setSidebossBattle(0);
-                    contribution.setBossBomb(0);
-                    contribution.setSidebossBomb(0);
-                    contribution.setBattleCount(0);
-                    contribution.setBombCount(0);
-                    memberContributions.put(entry.getKey(), contribution);
-                }
-
-                // Call season-specific guild raid API
-                GuildRaidResponse guildRaidResponse = makeApiCall(httpClient, "/api/v1/guildRaid/" + season, api_key, "Guild Raid Season " + season, GuildRaidResponse.class, objectMapper);
+                // Call season-specific guild raid API, every entry is aggregated while it is read.
+                // Only seasons before the current one are complete and can be served from the cache
+                SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, printDetails, printDetails);
+                GuildRaidResponse guildRaidResponse = TacticusApiClient.fetchOrNull("Guild Raid Season " + season,
+                        () -> client.getGuildRaidSeason(api_key, guildId, season, season < currentSeason, aggregator));
                 if (guildRaidResponse != null) {
                     System.out.println("Season: " + guildRaidResponse.getSeason());
-                    System.out.println("Raid Entries: " + (guildRaidResponse.getEntries() != null ? guildRaidResponse.getEntries().size() : 0));
-
-                    // Add damage to respective member contributions
-                    if (guildRaidResponse.getEntries() != null) {
-                        for (GuildRaidResponse.Raid raid : guildRaidResponse.getEntries()) {
-                            String userId = raid.getUserId();
-                            int damage = raid.getDamageDealt();
-                            String encounterType = raid.getEncounterType();
-                            String damageType = raid.getDamageType();
-
-                            MemberContribution contribution = memberContributions.get(userId);
-                            if (contribution == null) {
-                                contribution = new MemberContribution();
-                                contribution.setName(new UserIDTranslator().getUserName(userId));
-                                contribution.setRole("Discharged");
-                                memberContributions.put(userId, contribution);
-                            }
-                            if ("Boss".equals(encounterType) && "Battle".equals(damageType)) {
-                                contribution.addBossBattle(damage);
-                                contribution.incrementBattleCount();
-                            } else if ("Boss".equals(encounterType) && "Bomb".equals(damageType)) {
-                                contribution.addBossBomb(damage);
-                                contribution.incrementBombCount();
-                            } else if ("SideBoss".equals(encounterType) && "Battle".equals(damageType)) {
-                                contribution.addSidebossBattle(damage);
-                                contribution.incrementBattleCount();
-                            } else if ("SideBoss".equals(encounterType) && "Bomb".equals(damageType)) {
-                                contribution.addSidebossBomb(damage);
-                                contribution.incrementBombCount();
-                            }
-                            contribution.addRaid(raid);
-                        }
-                    }
+                    System.out.println("Raid Entries: " + aggregator.getEntryCount());
 
                     // Step 3: Print the list of member contributions for this season
-                    System.out.println("\n=== Guild Raid Season " + season + " Member Contributions ===");
-                    List<MemberContribution> sortedContributions = new ArrayList<>(memberContributions.values());
-                    // Sort by total damage (sum of all contribution types) descending
-                    sortedContributions.sort((a, b) -> {
-                        int totalA = a.getBossBattle() + a.getBossBomb() + a.getSidebossBattle() + a.getSidebossBomb();
-                        int totalB = b.getBossBattle() + b.getBossBomb() + b.getSidebossBattle() + b.getSidebossBomb();
-                        return Integer.compare(totalB, totalA);
-                    });
-
-                    // Print table header
-                    System.out.println(String.format("%-4s %-15s %-10s %12s %12s %12s %12s %12s %8s %8s",
-                            "Rank", "Member Name", "Role", "Boss Battle", "Boss Bomb", "Sideb. Battle", "Sideb. Bomb", "Total", "Battles", "Bombs"));
-                    System.out.println("─".repeat(125));
-
-                    // Print table rows and calculate totals
-                    int rank = 1;
-                    int totalBossBattle = 0, totalBossBomb = 0, totalSidebossBattle = 0, totalSidebossBomb = 0;
-                    int totalBattles = 0, totalBombs = 0;
-
-                    for (MemberContribution contribution : sortedContributions) {
-                        int total = contribution.getBossBattle() + contribution.getBossBomb() +
-                                contribution.getSidebossBattle() + contribution.getSidebossBomb();
-                        System.out.println(String.format("%-4d %-15s %-10s %,12d %,12d %,12d %,12d %,12d %8d %8d",
-                                rank,
-                                contribution.getName().length() > 15 ? contribution.getName().substring(0, 12) + "..." : contribution.getName(),
-                                contribution.getRole() != null ? contribution.getRole() : "N/A",
-                                contribution.getBossBattle(),
-                                contribution.getBossBomb(),
-                                contribution.getSidebossBattle(),
-                                contribution.getSidebossBomb(),
-                                total,
-                                contribution.getBattleCount(),
-                                contribution.getBombCount()));
-
-                        // Accumulate totals
-                        totalBossBattle += contribution.getBossBattle();
-                        totalBossBomb += contribution.getBossBomb();
-                        totalSidebossBattle += contribution.getSidebossBattle();
-                        totalSidebossBomb += contribution.getSidebossBomb();
-                        totalBattles += contribution.getBattleCount();
-                        totalBombs += contribution.getBombCount();
-
-                        rank++;
-                    }
-
-                    // Print summary line
-                    int grandTotal = totalBossBattle + totalBossBomb + totalSidebossBattle + totalSidebossBomb;
-                    System.out.println("─".repeat(125));
-                    System.out.println(String.format("%-4s %-15s %-10s %,12d %,12d %,12d %,12d %,12d %8d %8d",
-                            "", "TOTAL", "",
-                            totalBossBattle, totalBossBomb, totalSidebossBattle, totalSidebossBomb,
-                            grandTotal, totalBattles, totalBombs));
-                    System.out.println(); // Add blank line between seasons
-
+                    printContributions(season, aggregator);
                     if (printDetails) {
-                        sortedContributions.sort((a, b) -> {
-                            return CharSequence.compare(a.getName(), b.getName());
-                        });
-
-                        for (MemberContribution contribution : sortedContributions) {
-                            System.out.println(contribution.getName());
-                            System.out.println(String.format("| %-10s | %-3s | %-20s | %-10s | %-25s | %-10s | %-10s |",
-                                    "Rarity", "No.", "Bossname", "Typ", "Encounter", "Damage", "HP Left"));
-                            System.out.println("─".repeat(110));
-                            for (GuildRaidResponse.Raid raid : contribution.getRaids()) {
-                                if (!"Bomb".equals(raid.getDamageType())) {
-                                    System.out.println(raid.toString());
-                                }
-                            }
-                            System.out.println("─".repeat(110));
-                        }
-                    }
-
-                    // Bossviews
-                    if (guildRaidResponse.getEntries() != null) {
-                        UserIDTranslator translator = new UserIDTranslator();
-                        Map<String, Boss> bosses = new HashMap<>();
-                        for (GuildRaidResponse.Raid raid : guildRaidResponse.getEntries()) {
-                            Boss thisBoss = bosses.get(raid.getRarity() + raid.getType() + raid.getTier());
-                            if (thisBoss == null) {
-                                thisBoss = new Boss(raid.getType(),raid.getSet()+1,raid.getRarity(), raid.getTier());
-                                bosses.put(raid.getRarity() + raid.getType() + raid.getTier(), thisBoss);
-                            }
-                            Attack thisAttack = new Attack(translator.getUserName(raid.getUserId()),raid.getDamageDealt(), raid.getRemainingHp());
-                            if("SideBoss".equals(raid.getEncounterType())) {
-                                String sidebossName = raid.getUnitIdFormated();
-                                Sideboss thisSideboss = null;
-                                for(Sideboss sb : thisBoss.getSideboss()){
-                                    if (sidebossName.equals(sb.getName())) {
-                                        thisSideboss = sb;
-                                    }
-                                }
-                                if(thisSideboss == null){
-                                    thisSideboss = new Sideboss(sidebossName);
-                                    thisBoss.getSideboss().add(thisSideboss);
-                                }
-                                thisSideboss.getAttacks().add(thisAttack);
-                            }else {
-                                thisBoss.getAttacks().add(thisAttack);
-                            }
-                        }
-                        SortedSet<Boss> output = new TreeSet<>(bosses.values());
-                        System.out.println(output.toString());
+                        printDetails(aggregator);
                     }
+                    printBosses(aggregator);
                 }
             }
 
@@ -235,34 +89,83 @@ public class Main {
         }
     }
 
-    private static <T> T makeApiCall(CloseableHttpClient httpClient, String endpoint, String apiKey, String description, Class<T> responseType, ObjectMapper objectMapper) throws IOException {
-        System.out.println("\n=== " + description + " ===");
-
-        HttpGet request = new HttpGet("https://api.tacticusgame.com" + endpoint);
-        request.addHeader("X-API-KEY", apiKey);
-        request.addHeader("Content-Type", "application/json");
-
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            int statusCode = response.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils.toString(response.getEntity());
+    /**
+     * Prints the member contribution table of one season, sorted by total damage.
+     */
+    static void printContributions(Integer season, SeasonAggregator aggregator) {
+        System.out.println("\n=== Guild Raid Season " + season + " Member Contributions ===");
+        List<MemberContribution> sortedContributions = aggregator.getSortedContributions();
+
+        // Print table header
+        System.out.println(String.format("%-4s %-15s %-10s %12s %12s %12s %12s %12s %8s %8s",
+                "Rank", "Member Name", "Role", "Boss Battle", "Boss Bomb", "Sideb. Battle", "Sideb. Bomb", "Total", "Battles", "Bombs"));
+        System.out.println("─".repeat(125));
+
+        // Print table rows and calculate totals
+        int rank = 1;
+        long totalBossBattle = 0, totalBossBomb = 0, totalSidebossBattle = 0, totalSidebossBomb = 0;
+        long totalBattles = 0, totalBombs = 0;
+
+        for (MemberContribution contribution : sortedContributions) {
+            long total = contribution.getTotalDamage();
+            System.out.println(String.format("%-4d %-15s %-10s %,12d %,12d %,12d %,12d %,12d %8d %8d",
+                    rank,
+                    contribution.getName().length() > 15 ? contribution.getName().substring(0, 12) + "..." : contribution.getName(),
+                    contribution.getRole() != null ? contribution.getRole() : "N/A",
+                    contribution.getBossBattle(),
+                    contribution.getBossBomb(),
+                    contribution.getSidebossBattle(),
+                    contribution.getSidebossBomb(),
+                    total,
+                    contribution.getBattleCount(),
+                    contribution.getBombCount()));
+
+            // Accumulate totals
+            totalBossBattle += contribution.getBossBattle();
+            totalBossBomb += contribution.getBossBomb();
+            totalSidebossBattle += contribution.getSidebossBattle();
+            totalSidebossBomb += contribution.getSidebossBomb();
+            totalBattles += contribution.getBattleCount();
+            totalBombs += contribution.getBombCount();
+
+            rank++;
+        }
 
-            System.out.println("Endpoint: " + endpoint);
-            System.out.println("Status Code: " + statusCode);
+        // Print summary line
+        long grandTotal = totalBossBattle + totalBossBomb + totalSidebossBattle + totalSidebossBomb;
+        System.out.println("─".repeat(125));
+        System.out.println(String.format("%-4s %-15s %-10s %,12d %,12d %,12d %,12d %,12d %8d %8d",
+                "", "TOTAL", "",
+                totalBossBattle, totalBossBomb, totalSidebossBattle, totalSidebossBomb,
+                grandTotal, totalBattles, totalBombs));
+        System.out.println(); // Add blank line between seasons
+    }
 
-            if (statusCode == 200) {
-                try {
-                    T parsedResponse = objectMapper.readValue(responseBody, responseType);
-                    System.out.println("Successfully parsed " + description);
-                    return parsedResponse;
-                } catch (Exception e) {
-                    System.err.println("Error parsing JSON response: " + e.getMessage());
-                    System.out.println("Raw Response: " + responseBody);
+    /**
+     * Prints every battle per member, sorted by member name. Needs an aggregator that keeps its raids.
+     */
+    static void printDetails(SeasonAggregator aggregator) {
+        List<MemberContribution> sortedContributions = aggregator.getSortedContributions();
+        sortedContributions.sort((a, b) -> {
+            return CharSequence.compare(a.getName(), b.getName());
+        });
+
+        for (MemberContribution contribution : sortedContributions) {
+            System.out.println(contribution.getName());
+            System.out.println(String.format("| %-10s | %-3s | %-20s | %-10s | %-25s | %-10s | %-10s |",
+                    "Rarity", "No.", "Bossname", "Typ", "Encounter", "Damage", "HP Left"));
+            System.out.println("─".repeat(110));
+            for (GuildRaidResponse.Raid raid : contribution.getRaids()) {
+                if (raid.getDamageTypeValue() != DamageType.BOMB) {
+                    System.out.println(raid.toString());
                 }
-            } else {
-                System.out.println("Error Response: " + responseBody);
             }
+            System.out.println("─".repeat(110));
         }
-        return null;
+    }
+
+    static void printBosses(SeasonAggregator aggregator) {
+        System.out.println(aggregator.getBosses().toString());
     }
 
 }
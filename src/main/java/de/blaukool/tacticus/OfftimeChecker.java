@@ -1,15 +1,12 @@
 package de.blaukool.tacticus;
 
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.core.JacksonException;
 
 import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.Role;
+import de.blaukool.tacticus.api.TacticusApiClient;
+import de.blaukool.tacticus.api.TrafficArchive;
+import de.blaukool.tacticus.api.TacticusApiException;
 
 import java.io.IOException;
 import java.time.LocalTime;
@@ -32,43 +29,12 @@ public class OfftimeChecker {
         
         String apiKey = args[0];
         
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            GuildResponse guildResponse = makeApiCall(httpClient, "/api/v1/guild", apiKey, objectMapper);
+        try (TacticusApiClient client = new TacticusApiClient(TacticusApiClient.baseUrlFromSystemProperties(),
+                TacticusApiClient.Settings.fromSystemProperties(), null, TrafficArchive.fromSystemProperties())) {
+            GuildResponse guildResponse = getGuild(client, apiKey);
             
             if (guildResponse != null && guildResponse.getGuild() != null && guildResponse.getGuild().getMembers() != null) {
-                System.out.println("Guild Name: " + guildResponse.getGuild().getName());
-                System.out.println("Guild Tag: " + guildResponse.getGuild().getGuildTag());
-                System.out.println();
-                
-                List<MemberActivityInfo> allMembers = getAllMembersWithActivity(guildResponse.getGuild().getMembers());
-                
-                System.out.println("=== All Guild Members Activity Status ===");
-                System.out.println(String.format("%-20s %-12s %-8s %s", 
-                    "Member Name", "Role", "Level", "Time Since Last Activity"));
-                System.out.println("─".repeat(80));
-                
-                int inactiveCount = 0;
-                for (MemberActivityInfo member : allMembers) {
-                    String nameDisplay = member.name.length() > 20 ? member.name.substring(0, 17) + "..." : member.name;
-                    String roleDisplay = member.role != null ? member.role : "N/A";
-                    
-                    if (member.isInactive) {
-                        // Red color for inactive members
-                        System.out.println(String.format("\u001B[31m%-20s %-12s %-8d %s\u001B[0m", 
-                            nameDisplay, roleDisplay, member.level, member.timeSinceActivity));
-                        inactiveCount++;
-                    } else {
-                        System.out.println(String.format("%-20s %-12s %-8d %s", 
-                            nameDisplay, roleDisplay, member.level, member.timeSinceActivity));
-                    }
-                }
-                
-                System.out.println();
-                System.out.println("Total members: " + allMembers.size());
-                System.out.println("Inactive members (>48h): " + inactiveCount);
+                printActivityReport(guildResponse.getGuild());
             }
             
         } catch (IOException e) {
@@ -77,6 +43,43 @@ public class OfftimeChecker {
         }
     }
     
+    /**
+     * Prints all members of the guild with the time since their last activity; members inactive for more
+     * than 48 hours are highlighted.
+     */
+    static void printActivityReport(GuildResponse.Guild guild) {
+        System.out.println("Guild Name: " + guild.getName());
+        System.out.println("Guild Tag: " + guild.getGuildTag());
+        System.out.println();
+        
+        List<MemberActivityInfo> allMembers = getAllMembersWithActivity(guild.getMembers());
+        
+        System.out.println("=== All Guild Members Activity Status ===");
+        System.out.println(String.format("%-20s %-12s %-8s %s", 
+            "Member Name", "Role", "Level", "Time Since Last Activity"));
+        System.out.println("─".repeat(80));
+        
+        int inactiveCount = 0;
+        for (MemberActivityInfo member : allMembers) {
+            String nameDisplay = member.name.length() > 20 ? member.name.substring(0, 17) + "..." : member.name;
+            String roleDisplay = member.role != null ? member.role : "N/A";
+        
+            if (member.isInactive) {
+                // Red color for inactive members
+                System.out.println(String.format("\u001B[31m%-20s %-12s %-8d %s\u001B[0m", 
+                    nameDisplay, roleDisplay, member.level, member.timeSinceActivity));
+                inactiveCount++;
+            } else {
+                System.out.println(String.format("%-20s %-12s %-8d %s", 
+                    nameDisplay, roleDisplay, member.level, member.timeSinceActivity));
+            }
+        }
+        
+        System.out.println();
+        System.out.println("Total members: " + allMembers.size());
+        System.out.println("Inactive members (>48h): " + inactiveCount);
+    }
+    
     private static List<MemberActivityInfo> getAllMembersWithActivity(List<GuildResponse.GuildMember> members) {
         List<MemberActivityInfo> allMembers = new ArrayList<>();
         long now = System.currentTimeMillis();
@@ -86,6 +89,7 @@ public class OfftimeChecker {
             MemberActivityInfo memberInfo = new MemberActivityInfo();
             memberInfo.name = member.getName();
             memberInfo.role = member.getRole();
+            memberInfo.roleValue = member.getRoleValue();
             memberInfo.level = member.getLevel();
             
             if (member.getLastActivityOn() != null) {
@@ -105,7 +109,7 @@ public class OfftimeChecker {
         // Sort by role hierarchy first, then by name
         allMembers.sort((a, b) -> {
             // First sort by role priority
-            int roleComparison = Integer.compare(getRolePriority(a.role), getRolePriority(b.role));
+            int roleComparison = a.roleValue.compareTo(b.roleValue);
             if (roleComparison != 0) {
                 return roleComparison;
             }
@@ -116,17 +120,6 @@ public class OfftimeChecker {
         return allMembers;
     }
     
-    private static int getRolePriority(String role) {
-        if (role == null) return 4; // Unknown roles go last
-        switch (role.toUpperCase()) {
-            case "LEADER": return 0;
-            case "CO_LEADER": return 1;
-            case "OFFICER": return 2;
-            case "MEMBER": return 3;
-            default: return 4; // Unknown roles go last
-        }
-    }
-    
     private static String formatDurationDetailed(long milliseconds) {
         long totalSeconds = milliseconds / 1000;
         long hours = totalSeconds / 3600;
@@ -143,26 +136,14 @@ public class OfftimeChecker {
         }
     }
     
-    private static GuildResponse makeApiCall(CloseableHttpClient httpClient, String endpoint, String apiKey, ObjectMapper objectMapper) throws IOException {
-        HttpGet request = new HttpGet("https://api.tacticusgame.com" + endpoint);
-        request.addHeader("X-API-KEY", apiKey);
-        request.addHeader("Content-Type", "application/json");
-        
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            int statusCode = response.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils.toString(response.getEntity());
-            
-            if (statusCode == 200) {
-                try {
-                    return objectMapper.readValue(responseBody, GuildResponse.class);
-                } catch (Exception e) {
-                    System.err.println("Error parsing JSON response: " + e.getMessage());
-                    System.out.println("Raw Response: " + responseBody);
-                }
-            } else {
-                System.out.println("API Error - Status Code: " + statusCode);
-                System.out.println("Error Response: " + responseBody);
-            }
+    private static GuildResponse getGuild(TacticusApiClient client, String apiKey) throws IOException {
+        try {
+            return client.getGuild(apiKey);
+        } catch (TacticusApiException e) {
+            System.out.println("API Error - Status Code: " + e.getStatusCode());
+            System.out.println("Error Response: " + e.getMessage());
+        } catch (JacksonException e) {
+            System.err.println("Error parsing JSON response: " + e.getMessage());
         }
         return null;
     }
@@ -170,6 +151,7 @@ public class OfftimeChecker {
     private static class MemberActivityInfo {
         String name;
         String role;
+        Role roleValue;
         int level;
         String timeSinceActivity;
         boolean isInactive;
@@ -0,0 +1,333 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.metrics.MetricsRegistry;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes an {@code .xlsx} workbook as plain SpreadsheetML straight into a zip stream, without POI's object model.
+ * Strings go to a shared-strings table that is written with the workbook parts, so names repeated across rows
+ * and sheets are stored once; the style table is fixed to the {@link ReportSheet.Style report styles}. Sheets are
+ * written one after the other; the cells of the current sheet are buffered in a temporary file until its column
+ * widths are known.
+ * <p>
+ * I/O errors of the sheets surface as {@link UncheckedIOException}.
+ */
+class OoxmlWorkbookWriter implements Closeable {
+    private static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private static final String STYLES = XML_HEADER
+            + "<styleSheet xmlns=\"" + MAIN_NAMESPACE + "\">"
+            + "<fonts count=\"2\">"
+            + "<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+            + "</fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            // Indexes match the ordinals of ReportSheet.Style; number format 3 is the built-in #,##0
+            + "<cellXfs count=\"3\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+            + "<xf numFmtId=\"3\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer xml;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final Map<String, Integer> sharedStringIndex = new HashMap<>();
+    private final List<String> sharedStrings = new ArrayList<>();
+    private long sharedStringCount;
+    private SheetWriter currentSheet;
+
+    OoxmlWorkbookWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.xml = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts the next sheet. The previous sheet is finished if that has not happened yet.
+     */
+    ReportSheet createSheet(String name) throws IOException {
+        if (currentSheet != null) {
+            try {
+                currentSheet.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        sheetNames.add(name);
+        currentSheet = new SheetWriter(sheetNames.size());
+        return currentSheet;
+    }
+
+    /**
+     * Finishes the last sheet and writes the remaining workbook parts. The given stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (currentSheet != null) {
+                currentSheet.finish();
+            }
+            writeEntry("[Content_Types].xml", contentTypes());
+            writeEntry("_rels/.rels", XML_HEADER
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS_NAMESPACE + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+            writeEntry("xl/workbook.xml", workbook());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRelationships());
+            writeEntry("xl/styles.xml", STYLES);
+            writeEntry("xl/sharedStrings.xml", sharedStringTable());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (currentSheet != null) {
+                currentSheet.deleteBuffer();
+            }
+            zip.finish();
+        }
+    }
+
+    private String contentTypes() {
+        StringBuilder types = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>")
+                .append("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            types.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return types.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder workbook = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"").append(MAIN_NAMESPACE).append("\" xmlns:r=\"").append(RELATIONSHIPS_NAMESPACE).append("\"><sheets>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            workbook.append("<sheet name=\"").append(escape(sheetNames.get(i - 1))).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return workbook.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRelationships() {
+        StringBuilder relationships = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            relationships.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(RELATIONSHIPS_NAMESPACE)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        relationships.append("<Relationship Id=\"rId").append(sheetNames.size() + 1).append("\" Type=\"").append(RELATIONSHIPS_NAMESPACE)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        relationships.append("<Relationship Id=\"rId").append(sheetNames.size() + 2).append("\" Type=\"").append(RELATIONSHIPS_NAMESPACE)
+                .append("/sharedStrings\" Target=\"sharedStrings.xml\"/>");
+        return relationships.append("</Relationships>").toString();
+    }
+
+    private String sharedStringTable() {
+        StringBuilder table = new StringBuilder(XML_HEADER)
+                .append("<sst xmlns=\"").append(MAIN_NAMESPACE).append("\" count=\"").append(sharedStringCount)
+                .append("\" uniqueCount=\"").append(sharedStrings.size()).append("\">");
+        for (String value : sharedStrings) {
+            boolean padded = !value.isEmpty()
+                    && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)));
+            table.append(padded ? "<si><t xml:space=\"preserve\">" : "<si><t>").append(escape(value)).append("</t></si>");
+        }
+        return table.append("</sst>").toString();
+    }
+
+    /**
+     * @return the index of {@code value} in the shared-strings table, adding it if it is new
+     */
+    private int sharedString(String value) {
+        sharedStringCount++;
+        return sharedStringIndex.computeIfAbsent(value, v -> {
+            sharedStrings.add(v);
+            return sharedStrings.size() - 1;
+        });
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        xml.write(content);
+        xml.flush();
+        zip.closeEntry();
+    }
+
+    /**
+     * @return the column letters of a zero based column index, e.g. {@code AB} for 27
+     */
+    static String columnName(int column) {
+        StringBuilder name = new StringBuilder();
+        for (int n = column + 1; n > 0; n = (n - 1) / 26) {
+            name.append((char) ('A' + (n - 1) % 26));
+        }
+        return name.reverse().toString();
+    }
+
+    /**
+     * Escapes text for XML content and attributes. Characters XML cannot represent are dropped.
+     */
+    static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement;
+            switch (c) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                default:
+                    replacement = c < 0x20 && c != '\t' && c != '\n' && c != '\r' || c == 0xFFFE || c == 0xFFFF ? "" : null;
+            }
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+
+    private class SheetWriter implements ReportSheet {
+        private final int index;
+        private final Path buffer;
+        private final Writer cells;
+        private final ColumnWidths widths = new ColumnWidths();
+        private final DecimalFormat numberFormat = new DecimalFormat("#,##0", DecimalFormatSymbols.getInstance(Locale.ROOT));
+        private int rowNum = -1;
+        private boolean finished;
+
+        SheetWriter(int index) throws IOException {
+            this.index = index;
+            this.buffer = Files.createTempFile("tacticus-sheet", ".xml");
+            this.cells = Files.newBufferedWriter(buffer, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void row(int rowNum) {
+            if (rowNum <= this.rowNum) {
+                throw new IllegalStateException("Row " + rowNum + " written after row " + this.rowNum);
+            }
+            closeRow();
+            this.rowNum = rowNum;
+            write("<row r=\"" + (rowNum + 1) + "\">");
+        }
+
+        @Override
+        public void text(int column, String value, Style style) {
+            if (value == null) {
+                write("<c r=\"" + columnName(column) + (rowNum + 1) + "\"" + styleAttribute(style) + "/>");
+            } else {
+                write("<c r=\"" + columnName(column) + (rowNum + 1) + "\"" + styleAttribute(style) + " t=\"s\"><v>"
+                        + sharedString(value) + "</v></c>");
+            }
+            widths.track(column, value, style == Style.HEADER);
+        }
+
+        @Override
+        public void number(int column, double value, Style style) {
+            String raw = value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+            write("<c r=\"" + columnName(column) + (rowNum + 1) + "\"" + styleAttribute(style) + "><v>" + raw + "</v></c>");
+            widths.track(column, style == Style.NUMBER ? numberFormat.format(value) : raw, style == Style.HEADER);
+        }
+
+        /**
+         * Writes the sheet entry: the column widths first, as the format requires, then the buffered cells.
+         */
+        @Override
+        public void finish() {
+            if (finished) {
+                return;
+            }
+            try {
+                closeRow();
+                finished = true;
+                cells.close();
+
+                zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + index + ".xml"));
+                xml.write(XML_HEADER);
+                xml.write("<worksheet xmlns=\"" + MAIN_NAMESPACE + "\">");
+                long autosizeStart = System.nanoTime();
+                StringBuilder cols = new StringBuilder();
+                for (int column = 0; column < widths.getColumnCount(); column++) {
+                    int width = widths.getWidth(column);
+                    if (width > 0) {
+                        cols.append("<col min=\"").append(column + 1).append("\" max=\"").append(column + 1)
+                                .append("\" width=\"").append(width / 256.0).append("\" customWidth=\"1\"/>");
+                    }
+                }
+                if (cols.length() > 0) {
+                    xml.write("<cols>" + cols + "</cols>");
+                }
+                MetricsRegistry.getInstance().timer(MetricsRegistry.SHEET_AUTOSIZE, "writer", "ooxml").recordSince(autosizeStart);
+                xml.write("<sheetData>");
+                xml.flush();
+                Files.copy(buffer, zip);
+                xml.write("</sheetData></worksheet>");
+                xml.flush();
+                zip.closeEntry();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                deleteBuffer();
+            }
+        }
+
+        void deleteBuffer() {
+            try {
+                cells.close();
+                Files.deleteIfExists(buffer);
+            } catch (IOException e) {
+                System.err.println("Error deleting temporary sheet file " + buffer + ": " + e.getMessage());
+            }
+        }
+
+        private void closeRow() {
+            if (rowNum >= 0) {
+                write("</row>");
+            }
+        }
+
+        private String styleAttribute(Style style) {
+            return style == Style.DEFAULT ? "" : " s=\"" + style.ordinal() + "\"";
+        }
+
+        private void write(String text) {
+            if (finished) {
+                throw new IllegalStateException("Sheet " + index + " has already been finished");
+            }
+            try {
+                cells.write(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
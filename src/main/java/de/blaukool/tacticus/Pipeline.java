@@ -0,0 +1,154 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.SeasonCache;
+import de.blaukool.tacticus.api.TacticusApiClient;
+import de.blaukool.tacticus.api.TrafficArchive;
+import de.blaukool.tacticus.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs the outputs of {@link Main}, {@link Reporting} and {@link OfftimeChecker} from a single fetch: the guild
+ * and every season are requested and aggregated once, and each aggregated season is handed to all selected sinks.
+ * <p>
+ * Usage: {@code Pipeline <api key> [sinks]}, where sinks is a comma separated list of {@code console},
+ * {@code details}, {@code excel} and {@code offtime} (default: {@code console,excel,offtime}).
+ */
+public class Pipeline {
+
+    private static final String DEFAULT_SINKS = "console,excel,offtime";
+
+    enum Sink {
+        /** Member contribution table and boss view per season, see {@link Main} */
+        CONSOLE,
+        /** Every battle per member, see {@code Main <api key> details} */
+        DETAILS,
+        /** One Excel report per season, see {@link Reporting} */
+        EXCEL,
+        /** Member activity of the guild, see {@link OfftimeChecker} */
+        OFFTIME
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Please provide an API key as an argument");
+            return;
+        }
+
+        String apiKey = args[0];
+        Set<Sink> sinks;
+        try {
+            sinks = parseSinks(args.length > 1 ? args[1] : DEFAULT_SINKS);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        int maxInFlight = Reporting.getMaxInFlight();
+        TacticusApiClient.Settings settings = TacticusApiClient.Settings.fromSystemProperties().withMaxConnections(maxInFlight);
+        try (TacticusApiClient client = new TacticusApiClient(TacticusApiClient.baseUrlFromSystemProperties(),
+                settings, SeasonCache.fromSystemProperties(), TrafficArchive.fromSystemProperties())) {
+            run(client, apiKey, sinks, maxInFlight);
+            System.out.println("API requests: " + client.getSchedulerMetrics());
+            MetricsRegistry.getInstance().report();
+        } catch (IOException e) {
+            System.err.println("Error making API calls or creating Excel: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    static Set<Sink> parseSinks(String value) {
+        Set<Sink> sinks = EnumSet.noneOf(Sink.class);
+        for (String name : value.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            try {
+                sinks.add(Sink.valueOf(name.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown output '" + name.trim() + "', expected one of " + DEFAULT_SINKS + ",details");
+            }
+        }
+        if (sinks.isEmpty()) {
+            throw new IllegalArgumentException("Please select at least one output");
+        }
+        return sinks;
+    }
+
+    static void run(TacticusApiClient client, String apiKey, Set<Sink> sinks, int maxInFlight) throws IOException {
+        // Step 1: Call guild data API once for all sinks
+        GuildResponse guildResponse = TacticusApiClient.fetchOrNull("Guild Data", () -> client.getGuild(apiKey));
+        if (guildResponse == null || guildResponse.getGuild() == null) {
+            return;
+        }
+        GuildResponse.Guild guild = guildResponse.getGuild();
+
+        if (sinks.contains(Sink.OFFTIME) && guild.getMembers() != null) {
+            OfftimeChecker.printActivityReport(guild);
+        }
+        if (!sinks.contains(Sink.CONSOLE) && !sinks.contains(Sink.DETAILS) && !sinks.contains(Sink.EXCEL)) {
+            return;
+        }
+
+        Map<String, String> memberNames = new HashMap<>();
+        Map<String, String> memberRoles = new HashMap<>();
+        Map<String, Integer> memberLevel = new HashMap<>();
+        if (guild.getMembers() != null) {
+            for (GuildResponse.GuildMember member : guild.getMembers()) {
+                memberNames.put(member.getUserId(), member.getName());
+                memberRoles.put(member.getUserId(), member.getRole());
+                memberLevel.put(member.getUserId(), member.getLevel());
+            }
+        }
+        List<Integer> guildRaidSeasons = guild.getGuildRaidSeasons() != null ? guild.getGuildRaidSeasons() : List.of();
+
+        // Step 2: Fetch and aggregate every season once, then hand it to all season sinks as soon as it arrives.
+        // Console output is printed in order of arrival, workbooks are rendered in parallel
+        ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        ExecutorService renderExecutor = Reporting.newRenderExecutor();
+        Map<Integer, Future<String>> reports = new LinkedHashMap<>();
+        try {
+            CompletionService<Reporting.FetchedSeason> fetchedSeasons = Reporting.fetchSeasons(fetchExecutor, client, apiKey, guild.getGuildId(),
+                    guildRaidSeasons, maxInFlight, memberNames, memberRoles, memberLevel);
+            for (int i = 0; i < guildRaidSeasons.size(); i++) {
+                Reporting.FetchedSeason fetched;
+                try {
+                    fetched = fetchedSeasons.take().get();
+                } catch (ExecutionException e) {
+                    System.err.println("Error fetching guild raid season: " + e.getCause().getMessage());
+                    continue;
+                }
+                if (fetched.aggregator() != null) {
+                    printSeason(fetched, sinks);
+                    if (sinks.contains(Sink.EXCEL)) {
+                        reports.put(fetched.season(), Reporting.submitSeasonReport(renderExecutor, fetched.season(), fetched.aggregator(), guild.getName()));
+                    }
+                }
+            }
+            Reporting.awaitSeasonReports(reports);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while fetching guild raid seasons");
+        } finally {
+            fetchExecutor.shutdownNow();
+            renderExecutor.shutdownNow();
+        }
+    }
+
+    private static void printSeason(Reporting.FetchedSeason fetched, Set<Sink> sinks) {
+        if (sinks.contains(Sink.CONSOLE)) {
+            System.out.println("Season: " + fetched.season());
+            System.out.println("Raid Entries: " + fetched.aggregator().getEntryCount());
+            Main.printContributions(fetched.season(), fetched.aggregator());
+        }
+        if (sinks.contains(Sink.DETAILS)) {
+            Main.printDetails(fetched.aggregator());
+        }
+        if (sinks.contains(Sink.CONSOLE)) {
+            Main.printBosses(fetched.aggregator());
+        }
+    }
+}
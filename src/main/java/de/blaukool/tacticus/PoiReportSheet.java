@@ -0,0 +1,65 @@
+package de.blaukool.tacticus;
+
+import de.blaukool.tacticus.metrics.MetricsRegistry;
+import org.apache.poi.ss.usermodel.*;
+
+/**
+ * Writes a report layout to a POI sheet, with the given styles for headers and numbers.
+ */
+class PoiReportSheet implements ReportSheet {
+    private final Sheet sheet;
+    private final CellStyle headerStyle;
+    private final CellStyle numberStyle;
+    private final ColumnWidths widths = new ColumnWidths();
+    private final DataFormatter formatter = new DataFormatter();
+    private Row row;
+
+    PoiReportSheet(Sheet sheet, CellStyle headerStyle, CellStyle numberStyle) {
+        this.sheet = sheet;
+        this.headerStyle = headerStyle;
+        this.numberStyle = numberStyle;
+    }
+
+    @Override
+    public void row(int rowNum) {
+        row = sheet.createRow(rowNum);
+    }
+
+    @Override
+    public void text(int column, String value, Style style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        applyStyle(cell, style);
+        widths.track(column, value, style == Style.HEADER);
+    }
+
+    @Override
+    public void number(int column, double value, Style style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        applyStyle(cell, style);
+        CellStyle cellStyle = cell.getCellStyle();
+        widths.track(column, formatter.formatRawCellContents(value, cellStyle.getDataFormat(), cellStyle.getDataFormatString()),
+                style == Style.HEADER);
+    }
+
+    @Override
+    public void finish() {
+        long start = System.nanoTime();
+        for (int column = 0; column < widths.getColumnCount(); column++) {
+            int width = widths.getWidth(column);
+            if (width > 0) {
+                sheet.setColumnWidth(column, width);
+            }
+        }
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SHEET_AUTOSIZE, "writer", "poi").recordSince(start);
+    }
+
+    private void applyStyle(Cell cell, Style style) {
+        if (style == Style.HEADER) {
+            cell.setCellStyle(headerStyle);
+        } else if (style == Style.NUMBER) {
+            cell.setCellStyle(numberStyle);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.blaukool.tacticus;
+
+/**
+ * A sheet the report layouts of {@link Reporting} are written to, either a POI sheet ({@link PoiReportSheet})
+ * or streamed XML ({@link OoxmlWorkbookWriter}). Rows have to be started in ascending order and the cells of a
+ * row written in ascending column order; skipped row numbers stay empty.
+ */
+interface ReportSheet {
+
+    /**
+     * The fixed set of cell styles used by the reports.
+     */
+    enum Style {
+        DEFAULT,
+        /** Bold text */
+        HEADER,
+        /** Number format {@code #,##0} */
+        NUMBER
+    }
+
+    void row(int rowNum);
+
+    /**
+     * @param value the text, or {@code null} for a blank cell with the given style
+     */
+    void text(int column, String value, Style style);
+
+    void number(int column, double value, Style style);
+
+    /**
+     * Sizes the columns to their widest value. No cells may be written afterwards.
+     */
+    void finish();
+}
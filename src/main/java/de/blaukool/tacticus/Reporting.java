@@ -1,37 +1,50 @@
 package de.blaukool.tacticus;
 
 import de.blaukool.tacticus.logic.*;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.DamageType;
 import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.api.SeasonCache;
+import de.blaukool.tacticus.api.TacticusApiClient;
+import de.blaukool.tacticus.api.TrafficArchive;
+import de.blaukool.tacticus.metrics.MetricsRegistry;
 
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class Reporting {
 
-    private static final String API_BASE_URL = "https://api.tacticusgame.com";
-    private static final String GUILD_ENDPOINT = "/api/v1/guild";
-    private static final String GUILD_RAID_ENDPOINT = "/api/v1/guildRaid/";
     private static final String TIMESTAMP_FORMAT = "yyyyMMdd_HHmmss";
     private static final String FILENAME_FORMAT = "%s_raid_report_season_%s_%s.xlsx";
+    private static final String CONSOLIDATED_FILENAME_FORMAT = "%s_raid_report_seasons_%s-%s_%s.xlsx";
 
     private static final String SHEET_STATISTICS_OVERVIEW = "Statistics Overview";
     private static final String SHEET_BOSS_TIMELINE = "Boss Timeline";
     private static final String SHEET_PLAYER_BATTLE_STATS = "Player Battle Statistics";
+    private static final String SHEET_SEASONS_OVERVIEW = "Seasons Overview";
+
+    private static final String MAX_IN_FLIGHT_PROPERTY = "tacticus.fetch.maxInFlight";
+    private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private static final String WRITER_PROPERTY = "tacticus.report.writer";
+    private static final String ROW_WINDOW_PROPERTY = "tacticus.report.rowWindow";
+    private static final int DEFAULT_ROW_WINDOW = 100;
+    private static final String COMPRESS_TEMP_FILES_PROPERTY = "tacticus.report.compressTempFiles";
+    private static final String RENDER_THREADS_PROPERTY = "tacticus.report.renderThreads";
+    private static final String CONSOLIDATED_PROPERTY = "tacticus.report.consolidated";
 
     public static void main(String[] args) {
         if (args.length == 0) {
@@ -42,240 +55,491 @@ public class Reporting {
         String apiKey = args[0];
         System.out.println("API Key: " + apiKey);
 
+        int maxInFlight = getMaxInFlight();
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+        TacticusApiClient.Settings settings = TacticusApiClient.Settings.fromSystemProperties().withMaxConnections(maxInFlight);
+        ExecutorService renderExecutor = newRenderExecutor();
+        try (TacticusApiClient client = new TacticusApiClient(TacticusApiClient.baseUrlFromSystemProperties(),
+                settings, SeasonCache.fromSystemProperties(), TrafficArchive.fromSystemProperties())) {
+            createReports(client, renderExecutor, apiKey, maxInFlight);
+            System.out.println("API requests: " + client.getSchedulerMetrics());
+            MetricsRegistry.getInstance().report();
+        } catch (IOException e) {
+            System.err.println("Error making API calls or creating Excel: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            renderExecutor.shutdownNow();
+        }
+    }
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            // Step 1: Call guild data API and create base member data
-            Map<String, String> memberNames = new HashMap<>();
-            Map<String, String> memberRoles = new HashMap<>();
-            Map<String, Integer> memberLevel = new HashMap<>();
-            List<Integer> guildRaidSeasons = new ArrayList<>();
-            String guildName = "";
+    /**
+     * @return the maximum number of concurrent season requests per guild, e.g. -Dtacticus.fetch.maxInFlight=8
+     */
+    static int getMaxInFlight() {
+        return Math.max(1, Integer.getInteger(MAX_IN_FLIGHT_PROPERTY, DEFAULT_MAX_IN_FLIGHT));
+    }
+
+    /**
+     * Creates the pool the season workbooks are built and written on, one thread per core unless configured
+     * otherwise, e.g. -Dtacticus.report.renderThreads=2
+     */
+    static ExecutorService newRenderExecutor() {
+        int threads = Math.max(1, Integer.getInteger(RENDER_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Fetches the guild behind {@code apiKey} and writes one Excel report per guild raid season.
+     *
+     * @return what has been written for the guild, or {@code null} if the guild data could not be fetched
+     */
+    static GuildSummary createReports(TacticusApiClient client, ExecutorService renderExecutor, String apiKey, int maxInFlight) throws IOException {
+        // Step 1: Call guild data API and create base member data
+        Map<String, String> memberNames = new HashMap<>();
+        Map<String, String> memberRoles = new HashMap<>();
+        Map<String, Integer> memberLevel = new HashMap<>();
+        List<Integer> guildRaidSeasons = new ArrayList<>();
+
+        GuildResponse guildResponse = TacticusApiClient.fetchOrNull("Guild Data", () -> client.getGuild(apiKey));
+        if (guildResponse == null) {
+            return null;
+        }
+        String guildName = guildResponse.getGuild().getName();
+        String guildId = guildResponse.getGuild().getGuildId();
+
+        // Store member names and roles for later use
+        if (guildResponse.getGuild().getMembers() != null) {
+            for (GuildResponse.GuildMember member : guildResponse.getGuild().getMembers()) {
+                memberNames.put(member.getUserId(), member.getName());
+                memberRoles.put(member.getUserId(), member.getRole());
+                memberLevel.put(member.getUserId(), member.getLevel());
+            }
+        }
 
-            GuildResponse guildResponse = makeApiCall(httpClient, GUILD_ENDPOINT, apiKey, "Guild Data", GuildResponse.class, objectMapper);
-            if (guildResponse != null) {
-                guildName = guildResponse.getGuild().getName();
+        // Save guild raid seasons
+        if (guildResponse.getGuild().getGuildRaidSeasons() != null) {
+            guildRaidSeasons.addAll(guildResponse.getGuild().getGuildRaidSeasons());
+        }
 
-                // Store member names and roles for later use
-                if (guildResponse.getGuild().getMembers() != null) {
-                    for (GuildResponse.GuildMember member : guildResponse.getGuild().getMembers()) {
-                        memberNames.put(member.getUserId(), member.getName());
-                        memberRoles.put(member.getUserId(), member.getRole());
-                        memberLevel.put(member.getUserId(), member.getLevel());
+        // Step 2: Fetch all seasons concurrently and render a separate file for each as soon as it arrives,
+        // or collect them for one workbook covering all seasons, e.g. -Dtacticus.report.consolidated=true
+        boolean consolidated = Boolean.getBoolean(CONSOLIDATED_PROPERTY);
+        Map<Integer, Future<String>> reports = new LinkedHashMap<>();
+        SortedMap<Integer, SeasonAggregator> seasons = new TreeMap<>();
+        long totalDamage = 0;
+        ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletionService<FetchedSeason> fetchedSeasons = fetchSeasons(fetchExecutor, client, apiKey, guildId, guildRaidSeasons, maxInFlight,
+                    memberNames, memberRoles, memberLevel);
+            for (int i = 0; i < guildRaidSeasons.size(); i++) {
+                FetchedSeason fetched;
+                try {
+                    fetched = fetchedSeasons.take().get();
+                } catch (ExecutionException e) {
+                    System.err.println("Error fetching guild raid season: " + e.getCause().getMessage());
+                    continue;
+                }
+                if (fetched.aggregator() != null) {
+                    if (consolidated) {
+                        seasons.put(fetched.season(), fetched.aggregator());
+                    } else {
+                        reports.put(fetched.season(), submitSeasonReport(renderExecutor, fetched.season(), fetched.aggregator(), guildName));
                     }
+                    totalDamage += fetched.aggregator().getTotalDamage();
                 }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while fetching guild raid seasons");
+        } finally {
+            fetchExecutor.shutdownNow();
+        }
+        List<String> files = awaitSeasonReports(reports);
+        if (!seasons.isEmpty()) {
+            try {
+                files.add(writeConsolidatedReport(seasons, guildName));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error creating Excel report for Seasons " + seasons.firstKey() + " to " + seasons.lastKey() + ": " + e.getMessage());
+            }
+        }
+        return new GuildSummary(guildName, memberNames.size(), guildRaidSeasons.size(), files, totalDamage);
+    }
 
-                // Save guild raid seasons
-                if (guildResponse.getGuild().getGuildRaidSeasons() != null) {
-                    guildRaidSeasons.addAll(guildResponse.getGuild().getGuildRaidSeasons());
-                }
+    /**
+     * Starts fetching and aggregating all given seasons on virtual threads. At most {@code maxInFlight} requests
+     * run at the same time; results can be taken from the returned service in order of completion. Seasons are
+     * admitted in order with the current season first, so it never waits behind the backfill of completed seasons.
+     */
+    static CompletionService<FetchedSeason> fetchSeasons(ExecutorService executor, TacticusApiClient client, String apiKey, String guildId,
+                                                                 List<Integer> seasons, int maxInFlight,
+                                                                 Map<String, String> memberNames, Map<String, String> memberRoles, Map<String, Integer> memberLevel) {
+        int currentSeason = seasons.stream().mapToInt(Integer::intValue).max().orElse(0);
+        CompletionService<FetchedSeason> completionService = new ExecutorCompletionService<>(executor);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<Integer> admissionOrder = new ArrayList<>(seasons);
+        admissionOrder.sort(Comparator.comparing(season -> season != currentSeason));
+        // Permits are taken here rather than in the tasks, whose threads would take them in no particular order
+        executor.submit(() -> {
+            for (Integer season : admissionOrder) {
+                inFlight.acquire();
+                completionService.submit(() -> {
+                    try {
+                        // The battle statistics sheet lists every battle, so raids are kept on the contributions.
+                        // Only seasons before the current one are complete and can be served from the cache
+                        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+                        GuildRaidResponse response = TacticusApiClient.fetchOrNull("Guild Raid Season " + season,
+                                () -> client.getGuildRaidSeason(apiKey, guildId, season, season < currentSeason, aggregator));
+                        return new FetchedSeason(season, response != null ? aggregator : null);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
             }
+            return null;
+        });
+        return completionService;
+    }
 
-            // Step 2: Call guild raid API for each season and create separate files
-            for (Integer season : guildRaidSeasons) {
-                // Create Excel workbook for this season
-                Workbook workbook = new XSSFWorkbook();
-
-                // Create cell styles
-                CellStyle headerStyle = workbook.createCellStyle();
-                Font headerFont = workbook.createFont();
-                headerFont.setBold(true);
-                headerStyle.setFont(headerFont);
-
-                CellStyle numberStyle = workbook.createCellStyle();
-                numberStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
-
-                // Tab 1: Statistics per Player
-                Sheet playerStatsSheet = workbook.createSheet(SHEET_STATISTICS_OVERVIEW);
-
-                // Tab 2: Timeline per Boss
-                Sheet bossTimelineSheet = workbook.createSheet(SHEET_BOSS_TIMELINE);
-
-                // Tab 3: Player Battle Statistics
-                Sheet playerBattleStatsSheet = workbook.createSheet(SHEET_PLAYER_BATTLE_STATS);
-
-                Map<String, MemberContribution> memberContributions = new HashMap<>();
-
-                // Initialize member contributions for this season
-                for (Map.Entry<String, String> entry : memberNames.entrySet()) {
-                    MemberContribution contribution = new MemberContribution();
-                    contribution.setName(entry.getValue());
-                    contribution.setLevel(memberLevel.get(entry.getKey()));
-                    contribution.setRole(memberRoles.get(entry.getKey()));
-                    contribution.setBossBattle(0);
-                    contribution.setSidebossBattle(0);
-                    contribution.setBossBomb(0);
-                    contribution.setSidebossBomb(0);
-                    contribution.setBattleCount(0);
-                    contribution.setBombCount(0);
-                    memberContributions.put(entry.getKey(), contribution);
-                }
+    /**
+     * Builds and writes the report of one season on the render pool.
+     */
+    static Future<String> submitSeasonReport(ExecutorService renderExecutor, Integer season, SeasonAggregator aggregator, String guildName) {
+        return renderExecutor.submit(() -> writeSeasonReport(season, aggregator, guildName));
+    }
 
-                // Call season-specific guild raid API
-                GuildRaidResponse guildRaidResponse = makeApiCall(httpClient, GUILD_RAID_ENDPOINT + season, apiKey, "Guild Raid Season " + season, GuildRaidResponse.class, objectMapper);
-                if (guildRaidResponse != null) {
-                    // Add damage to respective member contributions
-                    if (guildRaidResponse.getEntries() != null) {
-                        for (GuildRaidResponse.Raid raid : guildRaidResponse.getEntries()) {
-                            String userId = raid.getUserId();
-                            int damage = raid.getDamageDealt();
-                            String encounterType = raid.getEncounterType();
-                            String damageType = raid.getDamageType();
-
-                            MemberContribution contribution = memberContributions.get(userId);
-                            if (contribution == null) {
-                                contribution = new MemberContribution();
-                                contribution.setName(new UserIDTranslator().getUserName(userId));
-                                contribution.setRole("Discharged");
-                                memberContributions.put(userId, contribution);
-                            }
-                            if ("Boss".equals(encounterType) && "Battle".equals(damageType)) {
-                                contribution.addBossBattle(damage);
-                                contribution.incrementBattleCount();
-                            } else if ("Boss".equals(encounterType) && "Bomb".equals(damageType)) {
-                                contribution.addBossBomb(damage);
-                                contribution.incrementBombCount();
-                            } else if ("SideBoss".equals(encounterType) && "Battle".equals(damageType)) {
-                                contribution.addSidebossBattle(damage);
-                                contribution.incrementBattleCount();
-                            } else if ("SideBoss".equals(encounterType) && "Bomb".equals(damageType)) {
-                                contribution.addSidebossBomb(damage);
-                                contribution.incrementBombCount();
-                            }
-                            contribution.addRaid(raid);
-                        }
-                    }
+    /**
+     * Waits for the submitted reports. A season that failed is reported and skipped, the others are kept.
+     *
+     * @return the files that have been written
+     */
+    static List<String> awaitSeasonReports(Map<Integer, Future<String>> reports) {
+        List<String> files = new ArrayList<>();
+        for (Map.Entry<Integer, Future<String>> report : reports.entrySet()) {
+            try {
+                files.add(report.getValue().get());
+            } catch (ExecutionException e) {
+                System.err.println("Error creating Excel report for Season " + report.getKey() + ": " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Interrupted while creating Excel reports");
+                reports.values().forEach(future -> future.cancel(true));
+                break;
+            }
+        }
+        return files;
+    }
 
-                    // Sort contributions by total damage
-                    List<MemberContribution> sortedContributions = new ArrayList<>(memberContributions.values());
-                    sortedContributions.sort((a, b) -> {
-                        int totalA = a.getBossBattle() + a.getBossBomb() + a.getSidebossBattle() + a.getSidebossBomb();
-                        int totalB = b.getBossBattle() + b.getBossBomb() + b.getSidebossBattle() + b.getSidebossBomb();
-                        return Integer.compare(totalB, totalA);
-                    });
-
-                    // Fill Player Statistics sheet for this season
-                    createPlayerStatisticsSheet(playerStatsSheet, headerStyle, numberStyle, sortedContributions, season);
-
-                    // Process boss data
-                    SortedSet<Boss> bosses = new TreeSet<>();
-                    if (guildRaidResponse.getEntries() != null) {
-                        UserIDTranslator translator = new UserIDTranslator();
-                        Map<String, Boss> bossMap = new HashMap<>();
-                        for (GuildRaidResponse.Raid raid : guildRaidResponse.getEntries()) {
-                            Boss thisBoss = bossMap.get(raid.getRarity() + raid.getType() + raid.getTier());
-                            if (thisBoss == null) {
-                                thisBoss = new Boss(raid.getType(), raid.getSet() + 1, raid.getRarity(), raid.getTier());
-                                bossMap.put(raid.getRarity() + raid.getType() + raid.getTier(), thisBoss);
-                            }
-                            Attack thisAttack = new Attack(translator.getUserName(raid.getUserId()), raid.getDamageDealt(), raid.getRemainingHp());
-                            if ("SideBoss".equals(raid.getEncounterType())) {
-                                String sidebossName = raid.getUnitIdFormated();
-                                Sideboss thisSideboss = null;
-                                for (Sideboss sb : thisBoss.getSideboss()) {
-                                    if (sidebossName.equals(sb.getName())) {
-                                        thisSideboss = sb;
-                                    }
-                                }
-                                if (thisSideboss == null) {
-                                    thisSideboss = new Sideboss(sidebossName);
-                                    thisBoss.getSideboss().add(thisSideboss);
-                                }
-                                thisSideboss.getAttacks().add(thisAttack);
-                            } else {
-                                thisBoss.getAttacks().add(thisAttack);
-                            }
-                        }
-                        bosses.addAll(bossMap.values());
-                    }
+    static String writeSeasonReport(Integer season, SeasonAggregator aggregator, String guildName) throws IOException {
+        // Save the Excel file for this season
+        String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
+        String filename = String.format(FILENAME_FORMAT,
+            guildName.replaceAll("[^a-zA-Z0-9]", "_"), season, timestamp);
+
+        try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(filename))) {
+            writeSeasonWorkbook(season, aggregator, WorkbookWriter.fromSystemProperties(), fileOut);
+        } catch (IOException | RuntimeException e) {
+            // Do not leave a broken file behind
+            Files.deleteIfExists(Paths.get(filename));
+            throw e;
+        }
+        System.out.println("Excel report created for Season " + season + ": " + filename);
+        return filename;
+    }
 
-                    // Fill Boss Timeline sheet for this season
-                    createBossTimelineSheet(bossTimelineSheet, headerStyle, numberStyle, bosses, season);
+    /**
+     * Writes one workbook with an overview over all seasons followed by the sheets of every season.
+     */
+    static String writeConsolidatedReport(SortedMap<Integer, SeasonAggregator> seasons, String guildName) throws IOException {
+        String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
+        String filename = String.format(CONSOLIDATED_FILENAME_FORMAT,
+            guildName.replaceAll("[^a-zA-Z0-9]", "_"), seasons.firstKey(), seasons.lastKey(), timestamp);
+
+        try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(filename))) {
+            writeConsolidatedWorkbook(seasons, WorkbookWriter.fromSystemProperties(), fileOut);
+        } catch (IOException | RuntimeException e) {
+            // Do not leave a broken file behind
+            Files.deleteIfExists(Paths.get(filename));
+            throw e;
+        }
+        System.out.println("Excel report created for Seasons " + seasons.firstKey() + " to " + seasons.lastKey() + ": " + filename);
+        return filename;
+    }
 
-                    // Fill Player Battle Statistics sheet for this season
-                    createPlayerBattleStatisticsSheet(playerBattleStatsSheet, headerStyle, numberStyle, sortedContributions, season);
+    /**
+     * Creates the Excel workbook for one season and writes it to {@code out}.
+     */
+    static void writeSeasonWorkbook(Integer season, SeasonAggregator aggregator, WorkbookWriter writer, OutputStream out) throws IOException {
+        writeWorkbook(writer, out, sheets -> writeSeasonSheets(sheets, "", season, aggregator));
+    }
 
-                    // Save the Excel file for this season
-                    String timestamp = new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date());
-                    String filename = String.format(FILENAME_FORMAT,
-                        guildName.replaceAll("[^a-zA-Z0-9]", "_"), season, timestamp);
+    /**
+     * Creates one workbook for all given seasons and writes it to {@code out}. The seasons share the styles and
+     * strings of the workbook; their sheets are prefixed with the season, e.g. {@code S78 Boss Timeline}.
+     */
+    static void writeConsolidatedWorkbook(SortedMap<Integer, SeasonAggregator> seasons, WorkbookWriter writer, OutputStream out) throws IOException {
+        writeWorkbook(writer, out, sheets -> {
+            long start = System.nanoTime();
+            writeSeasonsOverview(sheets.createSheet(SHEET_SEASONS_OVERVIEW), seasons);
+            sheetTimer(SHEET_SEASONS_OVERVIEW).recordSince(start);
+            for (Map.Entry<Integer, SeasonAggregator> season : seasons.entrySet()) {
+                writeSeasonSheets(sheets, "S" + season.getKey() + " ", season.getKey(), season.getValue());
+            }
+        });
+    }
 
-                    try (FileOutputStream fileOut = new FileOutputStream(filename)) {
-                        workbook.write(fileOut);
-                        System.out.println("Excel report created for Season " + season + ": " + filename);
-                    }
+    private static void writeWorkbook(WorkbookWriter writer, OutputStream out, WorkbookContent content) throws IOException {
+        MetricsRegistry.Timer writeTimer = MetricsRegistry.getInstance().timer(MetricsRegistry.WORKBOOK_WRITE,
+                "writer", writer.name().toLowerCase());
+        if (writer == WorkbookWriter.OOXML) {
+            long writeStart;
+            try (OoxmlWorkbookWriter workbook = new OoxmlWorkbookWriter(out)) {
+                content.write(workbook::createSheet);
+                // Closing writes the workbook parts and finishes the zip
+                writeStart = System.nanoTime();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writeTimer.recordSince(writeStart);
+            return;
+        }
+
+        // Create Excel workbook
+        Workbook workbook = writer == WorkbookWriter.XSSF ? new XSSFWorkbook() : createStreamingWorkbook();
+        try {
+            // Create cell styles
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            CellStyle numberStyle = workbook.createCellStyle();
+            numberStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+
+            content.write(name -> new PoiReportSheet(workbook.createSheet(name), headerStyle, numberStyle));
+
+            long writeStart = System.nanoTime();
+            workbook.write(out);
+            writeTimer.recordSince(writeStart);
+        } finally {
+            if (workbook instanceof SXSSFWorkbook) {
+                // Removes the temporary sheet files
+                ((SXSSFWorkbook) workbook).dispose();
+            }
+            workbook.close();
+        }
+    }
+
+    private static SXSSFWorkbook createStreamingWorkbook() {
+        // Rows kept in memory per sheet, e.g. -Dtacticus.report.rowWindow=500; flushed rows go to temporary
+        // files, compressed unless -Dtacticus.report.compressTempFiles=false
+        int rowWindow = Integer.getInteger(ROW_WINDOW_PROPERTY, DEFAULT_ROW_WINDOW);
+        boolean compressTempFiles = Boolean.parseBoolean(System.getProperty(COMPRESS_TEMP_FILES_PROPERTY, "true"));
+        // Strings go to the shared-strings table instead of being written inline into every cell
+        return new SXSSFWorkbook(null, rowWindow, compressTempFiles, true);
+    }
+
+    private static void writeSeasonSheets(SheetFactory sheets, String sheetPrefix, Integer season, SeasonAggregator aggregator) throws IOException {
+        // Sort contributions by total damage
+        List<MemberContribution> sortedContributions = aggregator.getSortedContributions();
+
+        // Tab 1: Statistics per Player
+        long start = System.nanoTime();
+        writePlayerStatistics(sheets.createSheet(sheetPrefix + SHEET_STATISTICS_OVERVIEW), sortedContributions, season);
+        sheetTimer(SHEET_STATISTICS_OVERVIEW).recordSince(start);
+
+        // Tab 2: Timeline per Boss
+        start = System.nanoTime();
+        writeBossTimeline(sheets.createSheet(sheetPrefix + SHEET_BOSS_TIMELINE), aggregator.getBosses(), season);
+        sheetTimer(SHEET_BOSS_TIMELINE).recordSince(start);
+
+        // Tab 3: Player Battle Statistics
+        start = System.nanoTime();
+        writePlayerBattleStatistics(sheets.createSheet(sheetPrefix + SHEET_PLAYER_BATTLE_STATS), sortedContributions, season);
+        sheetTimer(SHEET_PLAYER_BATTLE_STATS).recordSince(start);
+    }
+
+    /**
+     * Timer of building a sheet, including its autosize. Sheets of all seasons share the timer of their tab.
+     */
+    private static MetricsRegistry.Timer sheetTimer(String sheetName) {
+        return MetricsRegistry.getInstance().timer(MetricsRegistry.SHEET_BUILD, "sheet", sheetName);
+    }
+
+    /**
+     * Totals per season, followed by the total damage of every member per season.
+     */
+    private static void writeSeasonsOverview(ReportSheet sheet, SortedMap<Integer, SeasonAggregator> seasons) {
+        int rowNum = 0;
 
-                    workbook.close();
+        sheet.row(rowNum++);
+        sheet.text(0, "Guild Raid Seasons " + seasons.firstKey() + " to " + seasons.lastKey(), ReportSheet.Style.HEADER);
+
+        rowNum++; // Empty row
+
+        // Season totals
+        sheet.row(rowNum++);
+        String[] headers = {"Season", "Raid Entries", "Active Members", "Battles", "Bombs", "Boss Damage", "Sideboss Damage", "Total"};
+        for (int i = 0; i < headers.length; i++) {
+            sheet.text(i, headers[i], ReportSheet.Style.HEADER);
+        }
+
+        // Damage per member and season, members are identified by user id across seasons
+        Map<String, long[]> memberDamage = new HashMap<>();
+        Map<String, String> memberNames = new HashMap<>();
+        Map<String, String> memberRoles = new HashMap<>();
+        int seasonIndex = 0;
+        for (Map.Entry<Integer, SeasonAggregator> season : seasons.entrySet()) {
+            long entries = season.getValue().getEntryCount();
+            long activeMembers = 0, battles = 0, bombs = 0, bossDamage = 0, sidebossDamage = 0;
+            for (Map.Entry<String, MemberContribution> member : season.getValue().getMemberContributions().entrySet()) {
+                MemberContribution contribution = member.getValue();
+                long memberBoss = contribution.getBossBattle() + contribution.getBossBomb();
+                long memberSideboss = contribution.getSidebossBattle() + contribution.getSidebossBomb();
+                if (contribution.getBattleCount() + contribution.getBombCount() > 0) {
+                    activeMembers++;
                 }
+                battles += contribution.getBattleCount();
+                bombs += contribution.getBombCount();
+                bossDamage += memberBoss;
+                sidebossDamage += memberSideboss;
+
+                memberDamage.computeIfAbsent(member.getKey(), id -> new long[seasons.size() + 1])[seasonIndex] = memberBoss + memberSideboss;
+                memberNames.put(member.getKey(), contribution.getName());
+                memberRoles.put(member.getKey(), contribution.getRole());
             }
 
-        } catch (IOException e) {
-            System.err.println("Error making API calls or creating Excel: " + e.getMessage());
-            e.printStackTrace();
+            sheet.row(rowNum++);
+            sheet.number(0, season.getKey(), ReportSheet.Style.DEFAULT);
+            sheet.number(1, entries, ReportSheet.Style.NUMBER);
+            sheet.number(2, activeMembers, ReportSheet.Style.DEFAULT);
+            sheet.number(3, battles, ReportSheet.Style.NUMBER);
+            sheet.number(4, bombs, ReportSheet.Style.NUMBER);
+            sheet.number(5, bossDamage, ReportSheet.Style.NUMBER);
+            sheet.number(6, sidebossDamage, ReportSheet.Style.NUMBER);
+            sheet.number(7, bossDamage + sidebossDamage, ReportSheet.Style.NUMBER);
+            seasonIndex++;
+        }
+
+        rowNum += 2; // Empty rows between tables
+
+        // Member damage per season, the last slot holds the total over all seasons
+        sheet.row(rowNum++);
+        sheet.text(0, "Total Damage per Member", ReportSheet.Style.HEADER);
+        sheet.row(rowNum++);
+        sheet.text(0, "Member Name", ReportSheet.Style.HEADER);
+        sheet.text(1, "Role", ReportSheet.Style.HEADER);
+        int column = 2;
+        for (Integer season : seasons.keySet()) {
+            sheet.text(column++, "Season " + season, ReportSheet.Style.HEADER);
+        }
+        sheet.text(column, "Total", ReportSheet.Style.HEADER);
+
+        List<String> members = new ArrayList<>(memberDamage.keySet());
+        for (long[] damage : memberDamage.values()) {
+            for (int i = 0; i < seasons.size(); i++) {
+                damage[seasons.size()] += damage[i];
+            }
+        }
+        members.sort(Comparator.comparingLong((String id) -> memberDamage.get(id)[seasons.size()]).reversed()
+                .thenComparing(memberNames::get));
+
+        for (String member : members) {
+            long[] damage = memberDamage.get(member);
+            sheet.row(rowNum++);
+            sheet.text(0, memberNames.get(member), ReportSheet.Style.DEFAULT);
+            sheet.text(1, memberRoles.get(member) != null ? memberRoles.get(member) : "N/A", ReportSheet.Style.DEFAULT);
+            for (int i = 0; i <= seasons.size(); i++) {
+                sheet.number(2 + i, damage[i], ReportSheet.Style.NUMBER);
+            }
         }
+
+        sheet.finish();
+    }
+
+    @FunctionalInterface
+    private interface WorkbookContent {
+        void write(SheetFactory sheets) throws IOException;
     }
 
+    @FunctionalInterface
+    private interface SheetFactory {
+        ReportSheet createSheet(String name) throws IOException;
+    }
+
+    /**
+     * How the Excel workbooks are built, selected with {@code -Dtacticus.report.writer=xssf|sxssf|ooxml}.
+     */
+    enum WorkbookWriter {
+        /** Whole workbook in memory */
+        XSSF,
+        /** Only a window of rows per sheet in memory, older rows go to compressed temporary files */
+        SXSSF,
+        /** SpreadsheetML written directly by {@link OoxmlWorkbookWriter}, without POI */
+        OOXML;
+
+        static WorkbookWriter fromSystemProperties() {
+            String writer = System.getProperty(WRITER_PROPERTY, "sxssf");
+            try {
+                return valueOf(writer.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown report writer '" + writer + "', expected one of " + Arrays.toString(values()).toLowerCase());
+            }
+        }
+    }
+
+    /**
+     * Result of {@link #createReports} for one guild.
+     *
+     * @param files       the reports that have been written, one per season
+     * @param totalDamage damage dealt by the guild over all written seasons
+     */
+    record GuildSummary(String guildName, int members, int seasons, List<String> files, long totalDamage) {
+    }
+
+    record FetchedSeason(Integer season, SeasonAggregator aggregator) {
+    }
 
     private static void createPlayerStatisticsSheet(Sheet sheet, CellStyle headerStyle, CellStyle numberStyle, List<MemberContribution> sortedContributions, Integer season) {
+        writePlayerStatistics(new PoiReportSheet(sheet, headerStyle, numberStyle), sortedContributions, season);
+    }
+
+    private static void writePlayerStatistics(ReportSheet sheet, List<MemberContribution> sortedContributions, Integer season) {
         int rowNum = 0;
 
         // Season header
-        Row seasonHeaderRow = sheet.createRow(rowNum++);
-        Cell seasonHeaderCell = seasonHeaderRow.createCell(0);
-        seasonHeaderCell.setCellValue("Guild Raid Season " + season + " Member Contributions");
-        seasonHeaderCell.setCellStyle(headerStyle);
+        sheet.row(rowNum++);
+        sheet.text(0, "Guild Raid Season " + season + " Member Contributions", ReportSheet.Style.HEADER);
 
         rowNum++; // Empty row
 
         // Table header
-        Row headerRow = sheet.createRow(rowNum++);
+        sheet.row(rowNum++);
         String[] headers = {"Rank", "Member Name", "Role", "Level",  "Boss Battle", "Boss Bomb", "Sideb. Battle", "Sideb. Bomb", "Total", "Battles", "Bombs"};
         for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+            sheet.text(i, headers[i], ReportSheet.Style.HEADER);
         }
 
         // Data rows
         int rank = 1;
-        int totalBossBattle = 0, totalBossBomb = 0, totalSidebossBattle = 0, totalSidebossBomb = 0;
-        int totalBattles = 0, totalBombs = 0;
+        long totalBossBattle = 0, totalBossBomb = 0, totalSidebossBattle = 0, totalSidebossBomb = 0;
+        long totalBattles = 0, totalBombs = 0;
 
         for (MemberContribution contribution : sortedContributions) {
-            Row dataRow = sheet.createRow(rowNum++);
-
-            int total = contribution.getBossBattle() + contribution.getBossBomb() +
-                       contribution.getSidebossBattle() + contribution.getSidebossBomb();
-
-            dataRow.createCell(0).setCellValue(rank);
-            dataRow.createCell(1).setCellValue(contribution.getName());
-            dataRow.createCell(2).setCellValue(contribution.getRole() != null ? contribution.getRole() : "N/A");
-            dataRow.createCell(3).setCellValue(contribution.getLevel() != null ? contribution.getLevel().toString() : "N/A");
-
-            Cell bossBattleCell = dataRow.createCell(4);
-            bossBattleCell.setCellValue(contribution.getBossBattle());
-            bossBattleCell.setCellStyle(numberStyle);
-
-            Cell bossBombCell = dataRow.createCell(5);
-            bossBombCell.setCellValue(contribution.getBossBomb());
-            bossBombCell.setCellStyle(numberStyle);
-
-            Cell sidebossBattleCell = dataRow.createCell(6);
-            sidebossBattleCell.setCellValue(contribution.getSidebossBattle());
-            sidebossBattleCell.setCellStyle(numberStyle);
-
-            Cell sidebossBombCell = dataRow.createCell(7);
-            sidebossBombCell.setCellValue(contribution.getSidebossBomb());
-            sidebossBombCell.setCellStyle(numberStyle);
-
-            Cell totalCell = dataRow.createCell(8);
-            totalCell.setCellValue(total);
-            totalCell.setCellStyle(numberStyle);
-
-            dataRow.createCell(9).setCellValue(contribution.getBattleCount());
-            dataRow.createCell(10).setCellValue(contribution.getBombCount());
+            sheet.row(rowNum++);
+
+            long total = contribution.getTotalDamage();
+
+            sheet.number(0, rank, ReportSheet.Style.DEFAULT);
+            sheet.text(1, contribution.getName(), ReportSheet.Style.DEFAULT);
+            sheet.text(2, contribution.getRole() != null ? contribution.getRole() : "N/A", ReportSheet.Style.DEFAULT);
+            sheet.text(3, contribution.getLevel() != null ? contribution.getLevel().toString() : "N/A", ReportSheet.Style.DEFAULT);
+            sheet.number(4, contribution.getBossBattle(), ReportSheet.Style.NUMBER);
+            sheet.number(5, contribution.getBossBomb(), ReportSheet.Style.NUMBER);
+            sheet.number(6, contribution.getSidebossBattle(), ReportSheet.Style.NUMBER);
+            sheet.number(7, contribution.getSidebossBomb(), ReportSheet.Style.NUMBER);
+            sheet.number(8, total, ReportSheet.Style.NUMBER);
+            sheet.number(9, contribution.getBattleCount(), ReportSheet.Style.DEFAULT);
+            sheet.number(10, contribution.getBombCount(), ReportSheet.Style.DEFAULT);
 
             // Accumulate totals
             totalBossBattle += contribution.getBossBattle();
@@ -289,133 +553,94 @@ public class Reporting {
         }
 
         // Total row
-        Row totalRow = sheet.createRow(rowNum++);
-        totalRow.createCell(0).setCellValue("");
-        Cell totalLabelCell = totalRow.createCell(1);
-        totalLabelCell.setCellValue("TOTAL");
-        totalLabelCell.setCellStyle(headerStyle);
-        totalRow.createCell(2).setCellValue("");
-        totalRow.createCell(3).setCellValue("");
-        Cell totalBossBattleCell = totalRow.createCell(4);
-        totalBossBattleCell.setCellValue(totalBossBattle);
-        totalBossBattleCell.setCellStyle(numberStyle);
-
-        Cell totalBossBombCell = totalRow.createCell(5);
-        totalBossBombCell.setCellValue(totalBossBomb);
-        totalBossBombCell.setCellStyle(numberStyle);
-
-        Cell totalSidebossBattleCell = totalRow.createCell(6);
-        totalSidebossBattleCell.setCellValue(totalSidebossBattle);
-        totalSidebossBattleCell.setCellStyle(numberStyle);
-
-        Cell totalSidebossBombCell = totalRow.createCell(7);
-        totalSidebossBombCell.setCellValue(totalSidebossBomb);
-        totalSidebossBombCell.setCellStyle(numberStyle);
-
-        Cell grandTotalCell = totalRow.createCell(8);
-        grandTotalCell.setCellValue(totalBossBattle + totalBossBomb + totalSidebossBattle + totalSidebossBomb);
-        grandTotalCell.setCellStyle(numberStyle);
-
-        totalRow.createCell(9).setCellValue(totalBattles);
-        totalRow.createCell(10).setCellValue(totalBombs);
-
-        // Auto-size columns
-        for (int i = 0; i < 11; i++) {
-            sheet.autoSizeColumn(i);
-        }
+        sheet.row(rowNum++);
+        sheet.text(0, "", ReportSheet.Style.DEFAULT);
+        sheet.text(1, "TOTAL", ReportSheet.Style.HEADER);
+        sheet.text(2, "", ReportSheet.Style.DEFAULT);
+        sheet.text(3, "", ReportSheet.Style.DEFAULT);
+        sheet.number(4, totalBossBattle, ReportSheet.Style.NUMBER);
+        sheet.number(5, totalBossBomb, ReportSheet.Style.NUMBER);
+        sheet.number(6, totalSidebossBattle, ReportSheet.Style.NUMBER);
+        sheet.number(7, totalSidebossBomb, ReportSheet.Style.NUMBER);
+        sheet.number(8, totalBossBattle + totalBossBomb + totalSidebossBattle + totalSidebossBomb, ReportSheet.Style.NUMBER);
+        sheet.number(9, totalBattles, ReportSheet.Style.DEFAULT);
+        sheet.number(10, totalBombs, ReportSheet.Style.DEFAULT);
+
+        // Size columns to their widest value
+        sheet.finish();
     }
 
     private static void createBossTimelineSheet(Sheet sheet, CellStyle headerStyle, CellStyle numberStyle, SortedSet<Boss> bosses, Integer season) {
+        writeBossTimeline(new PoiReportSheet(sheet, headerStyle, numberStyle), bosses, season);
+    }
+
+    private static void writeBossTimeline(ReportSheet sheet, SortedSet<Boss> bosses, Integer season) {
         int rowNum = 0;
 
         // Season header
-        Row seasonHeaderRow = sheet.createRow(rowNum++);
-        Cell seasonHeaderCell = seasonHeaderRow.createCell(0);
-        seasonHeaderCell.setCellValue("Guild Raid Season " + season + " Boss Timeline");
-        seasonHeaderCell.setCellStyle(headerStyle);
+        sheet.row(rowNum++);
+        sheet.text(0, "Guild Raid Season " + season + " Boss Timeline", ReportSheet.Style.HEADER);
 
         rowNum++; // Empty row
 
         for (Boss boss : bosses) {
             // Boss header
-            Row bossHeaderRow = sheet.createRow(rowNum++);
-            Cell bossHeaderCell = bossHeaderRow.createCell(0);
-            bossHeaderCell.setCellValue(boss.getRarity() + " " +  boss.getName() + " Tier: " +boss.getTier());
-            bossHeaderCell.setCellStyle(headerStyle);
+            sheet.row(rowNum++);
+            sheet.text(0, boss.getRarity() + " " +  boss.getName() + " Tier: " +boss.getTier(), ReportSheet.Style.HEADER);
 
             // Boss attacks header
-            Row attacksHeaderRow = sheet.createRow(rowNum++);
+            sheet.row(rowNum++);
             String[] attackHeaders = {"Player", "Damage", "HP Remaining"};
             for (int i = 0; i < attackHeaders.length; i++) {
-                Cell cell = attacksHeaderRow.createCell(i);
-                cell.setCellValue(attackHeaders[i]);
-                cell.setCellStyle(headerStyle);
+                sheet.text(i, attackHeaders[i], ReportSheet.Style.HEADER);
             }
 
             // Boss attacks
             for (Attack attack : boss.getAttacks()) {
-                Row attackRow = sheet.createRow(rowNum++);
-                attackRow.createCell(0).setCellValue(attack.getAttackerName());
-
-                Cell damageCell = attackRow.createCell(1);
-                damageCell.setCellValue(attack.getDamage());
-                damageCell.setCellStyle(numberStyle);
-
-                Cell hpCell = attackRow.createCell(2);
-                hpCell.setCellValue(attack.getRemainingHealth());
-                hpCell.setCellStyle(numberStyle);
+                sheet.row(rowNum++);
+                sheet.text(0, attack.getAttackerName(), ReportSheet.Style.DEFAULT);
+                sheet.number(1, attack.getDamage(), ReportSheet.Style.NUMBER);
+                sheet.number(2, attack.getRemainingHealth(), ReportSheet.Style.NUMBER);
             }
 
             // Sideboss attacks
             for (Sideboss sideboss : boss.getSideboss()) {
                 rowNum++; // Empty row
 
-                Row sidebossHeaderRow = sheet.createRow(rowNum++);
-                Cell sidebossBossHeaderCell = sidebossHeaderRow.createCell(0);
-                sidebossBossHeaderCell.setCellValue(boss.getRarity() + " " +  boss.getName());
-                sidebossBossHeaderCell.setCellStyle(headerStyle);
-                Cell sidebossHeaderCell = sidebossHeaderRow.createCell(1);
-                sidebossHeaderCell.setCellValue("Sideboss: " + sideboss.getName());
-                sidebossHeaderCell.setCellStyle(headerStyle);
+                sheet.row(rowNum++);
+                sheet.text(0, boss.getRarity() + " " +  boss.getName(), ReportSheet.Style.HEADER);
+                sheet.text(1, "Sideboss: " + sideboss.getName(), ReportSheet.Style.HEADER);
 
-                Row sidebossAttacksHeaderRow = sheet.createRow(rowNum++);
+                sheet.row(rowNum++);
                 for (int i = 0; i < attackHeaders.length; i++) {
-                    Cell cell = sidebossAttacksHeaderRow.createCell(i);
-                    cell.setCellValue(attackHeaders[i]);
-                    cell.setCellStyle(headerStyle);
+                    sheet.text(i, attackHeaders[i], ReportSheet.Style.HEADER);
                 }
 
                 for (Attack attack : sideboss.getAttacks()) {
-                    Row attackRow = sheet.createRow(rowNum++);
-                    attackRow.createCell(0).setCellValue(attack.getAttackerName());
-
-                    Cell damageCell = attackRow.createCell(1);
-                    damageCell.setCellValue(attack.getDamage());
-                    damageCell.setCellStyle(numberStyle);
-
-                    Cell hpCell = attackRow.createCell(2);
-                    hpCell.setCellValue(attack.getRemainingHealth());
-                    hpCell.setCellStyle(numberStyle);
+                    sheet.row(rowNum++);
+                    sheet.text(0, attack.getAttackerName(), ReportSheet.Style.DEFAULT);
+                    sheet.number(1, attack.getDamage(), ReportSheet.Style.NUMBER);
+                    sheet.number(2, attack.getRemainingHealth(), ReportSheet.Style.NUMBER);
                 }
             }
 
             rowNum += 2; // Empty rows between bosses
         }
 
-        // Auto-size columns
-        for (int i = 0; i < 3; i++) {
-            sheet.autoSizeColumn(i);
-        }
+        // Size columns to their widest value
+        sheet.finish();
     }
 
     private static void createPlayerBattleStatisticsSheet(Sheet sheet, CellStyle headerStyle, CellStyle numberStyle, List<MemberContribution> sortedContributions, Integer season) {
+        writePlayerBattleStatistics(new PoiReportSheet(sheet, headerStyle, numberStyle), sortedContributions, season);
+    }
+
+    private static void writePlayerBattleStatistics(ReportSheet sheet, List<MemberContribution> sortedContributions, Integer season) {
         int rowNum = 0;
 
         // Season header
-        Row seasonHeaderRow = sheet.createRow(rowNum++);
-        Cell seasonHeaderCell = seasonHeaderRow.createCell(0);
-        seasonHeaderCell.setCellValue("Guild Raid Season " + season + " Player Battle Statistics");
-        seasonHeaderCell.setCellStyle(headerStyle);
+        sheet.row(rowNum++);
+        sheet.text(0, "Guild Raid Season " + season + " Player Battle Statistics", ReportSheet.Style.HEADER);
 
         rowNum++; // Empty row
 
@@ -425,77 +650,35 @@ public class Reporting {
 
         for (MemberContribution contribution : alphabeticalContributions) {
             // Player name header
-            Row playerHeaderRow = sheet.createRow(rowNum++);
-            Cell playerHeaderCell = playerHeaderRow.createCell(0);
-            playerHeaderCell.setCellValue(contribution.getName());
-            playerHeaderCell.setCellStyle(headerStyle);
+            sheet.row(rowNum++);
+            sheet.text(0, contribution.getName(), ReportSheet.Style.HEADER);
 
             // Battle details header
-            Row battleHeaderRow = sheet.createRow(rowNum++);
+            sheet.row(rowNum++);
             String[] battleHeaders = {"Rarity", "No.", "Bossname", "Type", "Encounter", "Damage", "HP Left"};
             for (int i = 0; i < battleHeaders.length; i++) {
-                Cell cell = battleHeaderRow.createCell(i);
-                cell.setCellValue(battleHeaders[i]);
-                cell.setCellStyle(headerStyle);
+                sheet.text(i, battleHeaders[i], ReportSheet.Style.HEADER);
             }
 
             // Battle details (excluding bombs, matching the original logic)
             for (GuildRaidResponse.Raid raid : contribution.getRaids()) {
-                if (!"Bomb".equals(raid.getDamageType())) {
-                    Row battleRow = sheet.createRow(rowNum++);
-
-                    battleRow.createCell(0).setCellValue(raid.getRarity() != null ? raid.getRarity() : "");
-                    battleRow.createCell(1).setCellValue(raid.getSet() + 1);
-                    battleRow.createCell(2).setCellValue(raid.getType() != null ? raid.getType() : "");
-                    battleRow.createCell(3).setCellValue(raid.getEncounterType() != null ? raid.getEncounterType() : "");
-                    battleRow.createCell(4).setCellValue(raid.getUnitIdFormated());
-
-                    Cell damageCell = battleRow.createCell(5);
-                    damageCell.setCellValue(raid.getDamageDealt());
-                    damageCell.setCellStyle(numberStyle);
-
-                    Cell hpCell = battleRow.createCell(6);
-                    hpCell.setCellValue(raid.getRemainingHp());
-                    hpCell.setCellStyle(numberStyle);
+                if (raid.getDamageTypeValue() != DamageType.BOMB) {
+                    sheet.row(rowNum++);
+
+                    sheet.text(0, raid.getRarity() != null ? raid.getRarity() : "", ReportSheet.Style.DEFAULT);
+                    sheet.number(1, raid.getSet() + 1, ReportSheet.Style.DEFAULT);
+                    sheet.text(2, raid.getType() != null ? raid.getType() : "", ReportSheet.Style.DEFAULT);
+                    sheet.text(3, raid.getEncounterType() != null ? raid.getEncounterType() : "", ReportSheet.Style.DEFAULT);
+                    sheet.text(4, raid.getUnitIdFormated(), ReportSheet.Style.DEFAULT);
+                    sheet.number(5, raid.getDamageDealt(), ReportSheet.Style.NUMBER);
+                    sheet.number(6, raid.getRemainingHp(), ReportSheet.Style.NUMBER);
                 }
             }
 
             rowNum += 2; // Empty rows between players
         }
 
-        // Auto-size columns
-        for (int i = 0; i < 7; i++) {
-            sheet.autoSizeColumn(i);
-        }
-    }
-
-    private static <T> T makeApiCall(CloseableHttpClient httpClient, String endpoint, String apiKey, String description, Class<T> responseType, ObjectMapper objectMapper) throws IOException {
-        System.out.println("\n=== " + description + " ===");
-
-        HttpGet request = new HttpGet(API_BASE_URL + endpoint);
-        request.addHeader("X-API-KEY", apiKey);
-        request.addHeader("Content-Type", "application/json");
-
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            int statusCode = response.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils.toString(response.getEntity());
-
-            System.out.println("Endpoint: " + endpoint);
-            System.out.println("Status Code: " + statusCode);
-
-            if (statusCode == 200) {
-                try {
-                    T parsedResponse = objectMapper.readValue(responseBody, responseType);
-                    System.out.println("Successfully parsed " + description);
-                    return parsedResponse;
-                } catch (Exception e) {
-                    System.err.println("Error parsing JSON response: " + e.getMessage());
-                    System.out.println("Raw Response: " + responseBody);
-                }
-            } else {
-                System.out.println("Error Response: " + responseBody);
-            }
-        }
-        return null;
+        // Size columns to their widest value
+        sheet.finish();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package de.blaukool.tacticus.api;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Copies everything read to a sink. On close the rest of the source is copied as well, because parsers
+ * stop reading after the last token; {@link #abort()} closes both without copying the rest.
+ */
+class CachingInputStream extends FilterInputStream {
+    private final OutputStream sink;
+    private boolean closed;
+
+    CachingInputStream(InputStream in, OutputStream sink) {
+        super(in);
+        this.sink = sink;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b != -1) {
+            sink.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            sink.write(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        byte[] buffer = new byte[8192];
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Closes sink and source without copying the rest of the source, e.g. after the content turned out to be broken.
+     */
+    void abort() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            sink.close();
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            in.transferTo(sink);
+        } finally {
+            try {
+                sink.close();
+            } finally {
+                in.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package de.blaukool.tacticus.api;
+
+/**
+ * Kind of damage of a raid entry, decoded from {@code damageType} when the entry is read.
+ */
+public enum DamageType {
+    BATTLE,
+    BOMB,
+    /** Any value this version does not know; the raw value is kept on the entry */
+    UNKNOWN;
+
+    private static final DamageType[] VALUES = values();
+
+    public static DamageType fromValue(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        switch (value) {
+            case "Battle": return BATTLE;
+            case "Bomb": return BOMB;
+            default: return UNKNOWN;
+        }
+    }
+
+    public static DamageType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,28 @@
+package de.blaukool.tacticus.api;
+
+/**
+ * Encounter of a raid entry, decoded from {@code encounterType} when the entry is read.
+ */
+public enum EncounterType {
+    BOSS,
+    SIDE_BOSS,
+    /** Any value this version does not know; the raw value is kept on the entry */
+    UNKNOWN;
+
+    private static final EncounterType[] VALUES = values();
+
+    public static EncounterType fromValue(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        switch (value) {
+            case "Boss": return BOSS;
+            case "SideBoss": return SIDE_BOSS;
+            default: return UNKNOWN;
+        }
+    }
+
+    public static EncounterType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
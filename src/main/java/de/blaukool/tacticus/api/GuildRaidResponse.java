@@ -4,7 +4,9 @@ import org.apache.commons.codec.binary.StringUtils;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class GuildRaidResponse {
     private int season;
@@ -36,6 +38,9 @@ public class GuildRaidResponse {
         private List<PublicHeroDetail> heroDetails;
         private PublicHeroDetail machineOfWarDetails;
         private String globalConfigHash;
+        // Decoded once by the setters, so Jackson fills them while the entry is read
+        private EncounterType encounterTypeValue = EncounterType.UNKNOWN;
+        private DamageType damageTypeValue = DamageType.UNKNOWN;
 
         public String getUserId() { return userId; }
         public void setUserId(String userId) { this.userId = userId; }
@@ -50,7 +55,11 @@ public class GuildRaidResponse {
         public int getMaxHp() { return maxHp; }
         public void setMaxHp(int maxHp) { this.maxHp = maxHp; }
         public String getEncounterType() { return encounterType; }
-        public void setEncounterType(String encounterType) { this.encounterType = encounterType; }
+        public void setEncounterType(String encounterType) {
+            this.encounterType = encounterType;
+            this.encounterTypeValue = EncounterType.fromValue(encounterType);
+        }
+        public EncounterType getEncounterTypeValue() { return encounterTypeValue; }
         public String getUnitId() { return unitId; }
         public void setUnitId(String unitId) { this.unitId = unitId; }
         public String getType() { return type; }
@@ -60,7 +69,11 @@ public class GuildRaidResponse {
         public int getDamageDealt() { return damageDealt; }
         public void setDamageDealt(int damageDealt) { this.damageDealt = damageDealt; }
         public String getDamageType() { return damageType; }
-        public void setDamageType(String damageType) { this.damageType = damageType; }
+        public void setDamageType(String damageType) {
+            this.damageType = damageType;
+            this.damageTypeValue = DamageType.fromValue(damageType);
+        }
+        public DamageType getDamageTypeValue() { return damageTypeValue; }
         public Date getStartedOn() { return startedOn; }
         public void setStartedOn(Date startedOn) { this.startedOn = startedOn; }
         public Date getCompletedOn() { return completedOn; }
@@ -85,11 +98,45 @@ public class GuildRaidResponse {
         }
 
         public String getUnitIdFormated() {
-            StringTokenizer tokenizer = new StringTokenizer(unitId, "1234567890", false);
-            tokenizer.nextToken();
-            tokenizer.nextToken();
-            return  tokenizer.nextToken();
+            return formatUnitId(unitId);
+        }
+    }
+
+    // Unit ids repeat across all entries of all seasons and there are only a few hundred of them. The cache is
+    // bounded so unexpected ids cannot grow it without limit; it starts over once the bound is reached.
+    static final int MAX_UNIT_NAMES = 1024;
+    /** Name of entries without unit id */
+    public static final String UNKNOWN_UNIT_NAME = "Unknown";
+    private static final Map<String, String> UNIT_NAMES = new ConcurrentHashMap<>();
+
+    /**
+     * @return the name part of a unit id, e.g. {@code TyranWingedPrime} for {@code GuildBoss1MiniBoss1TyranWingedPrime},
+     * or {@link #UNKNOWN_UNIT_NAME} for a missing unit id
+     */
+    public static String formatUnitId(String unitId) {
+        if (unitId == null) {
+            return UNKNOWN_UNIT_NAME;
         }
+        String name = UNIT_NAMES.get(unitId);
+        if (name == null) {
+            name = parseUnitName(unitId);
+            if (UNIT_NAMES.size() >= MAX_UNIT_NAMES) {
+                UNIT_NAMES.clear();
+            }
+            UNIT_NAMES.putIfAbsent(unitId, name);
+        }
+        return name;
+    }
+
+    static int getCachedUnitNameCount() {
+        return UNIT_NAMES.size();
+    }
+
+    private static String parseUnitName(String unitId) {
+        StringTokenizer tokenizer = new StringTokenizer(unitId, "1234567890", false);
+        tokenizer.nextToken();
+        tokenizer.nextToken();
+        return  tokenizer.nextToken();
     }
 
     public static class PublicHeroDetail {
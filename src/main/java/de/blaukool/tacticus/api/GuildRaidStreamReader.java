@@ -0,0 +1,60 @@
+package de.blaukool.tacticus.api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads a guild raid season response token by token. Every raid entry is handed to a consumer as soon as it
+ * has been parsed and is not kept afterwards, so a season never has to be materialized as a whole.
+ */
+public class GuildRaidStreamReader {
+    private final ObjectReader raidReader;
+
+    public GuildRaidStreamReader(ObjectMapper objectMapper) {
+        this.raidReader = objectMapper.readerFor(GuildRaidResponse.Raid.class);
+    }
+
+    /**
+     * Streams all entries of the response to {@code consumer}.
+     *
+     * @return the season header (season and config id); its entries are always {@code null}
+     */
+    public GuildRaidResponse read(InputStream content, Consumer<GuildRaidResponse.Raid> consumer) throws IOException {
+        GuildRaidResponse header = new GuildRaidResponse();
+        try (JsonParser parser = raidReader.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw MismatchedInputException.from(parser, GuildRaidResponse.class, "Expected guild raid response object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "season":
+                        header.setSeason(parser.getIntValue());
+                        break;
+                    case "seasonConfigId":
+                        header.setSeasonConfigId(parser.getValueAsString());
+                        break;
+                    case "entries":
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                GuildRaidResponse.Raid raid = raidReader.readValue(parser);
+                                consumer.accept(raid);
+                            }
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        return header;
+    }
+}
@@ -38,21 +38,26 @@ public class GuildResponse {
     public static class GuildMember {
         private String userId;
         private String role;
+        private Role roleValue = Role.UNKNOWN;
         private int level;
         private Date lastActivityOn;
-        private static final UserIDTranslator userIdTranslator = new UserIDTranslator();
 
         public String getUserId() { return userId; }
         public void setUserId(String userId) { this.userId = userId; }
         public String getRole() { return role; }
-        public void setRole(String role) { this.role = role; }
+        public void setRole(String role) {
+            this.role = role;
+            this.roleValue = Role.fromValue(role);
+        }
+        /** The role decoded while the guild is read; {@link #getRole()} keeps the raw value */
+        public Role getRoleValue() { return roleValue; }
         public int getLevel() { return level; }
         public void setLevel(int level) { this.level = level; }
         public Date getLastActivityOn() { return lastActivityOn; }
         public void setLastActivityOn(Date lastActivityOn) { this.lastActivityOn = lastActivityOn; }
         
         public String getName() {
-            String name = userIdTranslator.getUserName(userId);
+            String name = UserIDTranslator.getInstance().getUserName(userId);
             if (name.equals("unknown")) {
                 System.out.println(userId + " is new, "+role+" "+level);
             }
@@ -0,0 +1,172 @@
+package de.blaukool.tacticus.api;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client side rate limiter for the Tacticus API. Permits are issued by a token bucket that refills at a steady
+ * rate up to a burst size. Callers waiting for a permit are served by priority first and arrival order second,
+ * so current data is requested before historical backfill.
+ */
+public class RequestScheduler {
+
+    public enum Priority {
+        /** Guild data and the running season, needed right away */
+        CURRENT,
+        /** Completed seasons */
+        BACKFILL
+    }
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private long sequence;
+
+    private long granted;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private int maxQueueDepth;
+
+    /**
+     * @param permitsPerSecond sustained request rate; zero or less disables limiting
+     * @param burst            number of requests that may be issued at once after an idle period
+     */
+    public RequestScheduler(double permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks until the caller may issue one request.
+     */
+    public void acquire(Priority priority) throws InterruptedException {
+        acquire(priority, Long.MAX_VALUE);
+    }
+
+    /**
+     * Blocks until the caller may issue one request, but at most {@code timeoutNanos}.
+     *
+     * @return whether a permit was granted; if not, the caller gave up its place in the queue
+     */
+    public boolean acquire(Priority priority, long timeoutNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            Ticket ticket = new Ticket(priority, sequence++);
+            waiting.add(ticket);
+            maxQueueDepth = Math.max(maxQueueDepth, waiting.size());
+            try {
+                while (true) {
+                    long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+                    if (remainingNanos <= 0) {
+                        waiting.remove(ticket);
+                        changed.signalAll();
+                        return false;
+                    }
+                    if (waiting.peek() != ticket) {
+                        changed.awaitNanos(remainingNanos);
+                        continue;
+                    }
+                    long waitNanos = nanosUntilPermit();
+                    if (waitNanos <= 0) {
+                        break;
+                    }
+                    changed.awaitNanos(Math.min(waitNanos, remainingNanos));
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(ticket);
+                changed.signalAll();
+                throw e;
+            }
+            waiting.poll();
+            if (permitsPerNano > 0) {
+                tokens -= 1;
+            }
+            changed.signalAll();
+
+            long waited = System.nanoTime() - start;
+            granted++;
+            totalWaitNanos += waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops issuing permits for the given time, e.g. after the API answered with 429, and drops the saved burst.
+     */
+    public void pause(long millis) {
+        lock.lock();
+        try {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+            tokens = Math.min(tokens, 0);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long nanosUntilPermit() {
+        long now = System.nanoTime();
+        if (now < pausedUntilNanos) {
+            return pausedUntilNanos - now;
+        }
+        if (permitsPerNano <= 0) {
+            return 0;
+        }
+        tokens = Math.min(burst, tokens + (now - Math.max(lastRefillNanos, pausedUntilNanos)) * permitsPerNano);
+        lastRefillNanos = now;
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / permitsPerNano);
+    }
+
+    public Metrics getMetrics() {
+        lock.lock();
+        try {
+            return new Metrics(waiting.size(), maxQueueDepth, granted,
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot of the scheduler state.
+     *
+     * @param queueDepth callers currently waiting for a permit
+     */
+    public record Metrics(int queueDepth, int maxQueueDepth, long granted, long totalWaitMillis, long maxWaitMillis) {
+
+        public long averageWaitMillis() {
+            return granted == 0 ? 0 : totalWaitMillis / granted;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, avg wait %d ms, max wait %d ms, queue depth %d (max %d)",
+                    granted, averageWaitMillis(), maxWaitMillis, queueDepth, maxQueueDepth);
+        }
+    }
+
+    private record Ticket(Priority priority, long sequence) implements Comparable<Ticket> {
+        @Override
+        public int compareTo(Ticket o) {
+            int byPriority = priority.compareTo(o.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, o.sequence);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package de.blaukool.tacticus.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Turns the body of a successful API response into a result, reading directly from the response stream.
+ */
+@FunctionalInterface
+public interface ResponseParser<T> {
+    T parse(InputStream content) throws IOException;
+}
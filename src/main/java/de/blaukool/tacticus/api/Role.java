@@ -0,0 +1,30 @@
+package de.blaukool.tacticus.api;
+
+/**
+ * Role of a guild member, decoded from {@code role} when the guild is read. Constants are declared in the
+ * order of the guild hierarchy, unknown roles last.
+ */
+public enum Role {
+    LEADER,
+    CO_LEADER,
+    OFFICER,
+    MEMBER,
+    /** Any value this version does not know; the raw value is kept on the member */
+    UNKNOWN;
+
+    /**
+     * Roles are matched ignoring case.
+     */
+    public static Role fromValue(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        switch (value.toUpperCase()) {
+            case "LEADER": return LEADER;
+            case "CO_LEADER": return CO_LEADER;
+            case "OFFICER": return OFFICER;
+            case "MEMBER": return MEMBER;
+            default: return UNKNOWN;
+        }
+    }
+}
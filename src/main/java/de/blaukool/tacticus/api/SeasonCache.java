@@ -0,0 +1,98 @@
+package de.blaukool.tacticus.api;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local cache for completed guild raid seasons. Past seasons never change, so their raw responses are stored
+ * gzip-compressed per guild and season and served from disk on later runs.
+ */
+public class SeasonCache {
+    static final String CACHE_DIR_PROPERTY = "tacticus.cache.dir";
+    static final String CACHE_ENABLED_PROPERTY = "tacticus.cache.enabled";
+    private static final String FILE_SUFFIX = ".json.gz";
+
+    private final Path directory;
+
+    public SeasonCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates the cache configured by {@code -Dtacticus.cache.dir} (default {@code ~/.tacticus/cache}).
+     *
+     * @return the cache, or {@code null} if it has been disabled with {@code -Dtacticus.cache.enabled=false}
+     */
+    public static SeasonCache fromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty(CACHE_ENABLED_PROPERTY, "true"))) {
+            return null;
+        }
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        Path directory = dir != null ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), ".tacticus", "cache");
+        return new SeasonCache(directory);
+    }
+
+    /**
+     * Parses a completed season from the cache. On a cache miss the season is fetched with {@code fetch}; the
+     * response body is written to the cache while it is parsed and only kept if parsing succeeded. A body that
+     * fails to parse is not read any further.
+     */
+    public <T> T load(String guildId, int season, ResponseParser<T> parser, SeasonFetch<T> fetch) throws IOException {
+        Path file = getFile(guildId, season);
+        if (Files.exists(file)) {
+            try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                T result = parser.parse(in);
+                System.out.println("Guild Raid Season " + season + " loaded from cache: " + file);
+                return result;
+            } catch (IOException e) {
+                // Drop the broken entry so the next run fetches the season again
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        }
+        return fetch.fetch(content -> store(file, content, parser));
+    }
+
+    public boolean contains(String guildId, int season) {
+        return Files.exists(getFile(guildId, season));
+    }
+
+    Path getFile(String guildId, int season) {
+        String guildDirectory = guildId.replaceAll("[^a-zA-Z0-9-]", "_");
+        return directory.resolve(guildDirectory).resolve(season + FILE_SUFFIX);
+    }
+
+    private <T> T store(Path file, InputStream content, ResponseParser<T> parser) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            CachingInputStream caching = new CachingInputStream(content, new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))));
+            T result;
+            boolean parsed = false;
+            try {
+                result = parser.parse(caching);
+                parsed = true;
+            } finally {
+                if (!parsed) {
+                    caching.abort();
+                }
+            }
+            // Copies what the parser left after the last token, up to the end of the body
+            caching.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return result;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Fetches a season over the network, handing the response body to the given parser.
+     */
+    @FunctionalInterface
+    public interface SeasonFetch<T> {
+        T fetch(ResponseParser<T> parser) throws IOException;
+    }
+}
@@ -0,0 +1,498 @@
+package de.blaukool.tacticus.api;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.blaukool.tacticus.metrics.MetricsRegistry;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Shared client for the Tacticus API. All requests go through one pooled, keep-alive connection manager and
+ * are bounded by connect/read timeouts and an overall deadline. Retryable errors ({@code 500 UNKNOWN_ERROR},
+ * throttling and connection failures) are retried with jittered exponential backoff as long as the response
+ * body has not been handed to a parser yet. Everything else surfaces as a {@link TacticusApiException}.
+ * Requests are issued through a {@link RequestScheduler}, so the client stays below the configured rate and
+ * current data goes ahead of historical backfill. With a {@link TrafficArchive} all traffic is recorded, or
+ * replayed instead of sending requests.
+ */
+public class TacticusApiClient implements Closeable {
+    public static final String DEFAULT_BASE_URL = "https://api.tacticusgame.com";
+    static final String BASE_URL_PROPERTY = "tacticus.api.baseUrl";
+    static final String GUILD_ENDPOINT = "/api/v1/guild";
+    static final String GUILD_RAID_ENDPOINT = "/api/v1/guildRaid/";
+    private static final Pattern TRAILING_NUMBER = Pattern.compile("/\\d+$");
+
+    private final String baseUrl;
+    private final Settings settings;
+    private final SeasonCache seasonCache;
+    private final TrafficArchive archive;
+    private final CloseableHttpClient httpClient;
+    private final ScheduledExecutorService deadlineTimer;
+    private final RequestScheduler scheduler;
+    private final ObjectReader guildReader;
+    private final GuildRaidStreamReader raidStreamReader;
+
+    public TacticusApiClient(String baseUrl, Settings settings, SeasonCache seasonCache) {
+        this(baseUrl, settings, seasonCache, null);
+    }
+
+    /**
+     * @param archive records or replays all traffic; may be {@code null}. Closed with the client.
+     */
+    public TacticusApiClient(String baseUrl, Settings settings, SeasonCache seasonCache, TrafficArchive archive) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.seasonCache = seasonCache;
+        this.archive = archive;
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(settings.keepAliveMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(settings.maxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.maxConnections());
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(settings.connectTimeoutMillis())
+                .setConnectionRequestTimeout(settings.connectTimeoutMillis())
+                .setSocketTimeout(settings.readTimeoutMillis())
+                .build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.keepAliveMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        this.scheduler = new RequestScheduler(settings.requestsPerSecond(), settings.burst());
+        this.deadlineTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tacticus-api-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        this.guildReader = objectMapper.readerFor(GuildResponse.class);
+        this.raidStreamReader = new GuildRaidStreamReader(objectMapper);
+    }
+
+    /**
+     * @return the base URL configured by {@code -Dtacticus.api.baseUrl}, e.g. of a local stand-in server, or
+     * {@link #DEFAULT_BASE_URL}
+     */
+    public static String baseUrlFromSystemProperties() {
+        String baseUrl = System.getProperty(BASE_URL_PROPERTY, DEFAULT_BASE_URL).trim();
+        while (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl.isEmpty() ? DEFAULT_BASE_URL : baseUrl;
+    }
+
+    public GuildResponse getGuild(String apiKey) throws IOException {
+        ResponseParser<GuildResponse> parser = guildReader::readValue;
+        return get(apiKey, GUILD_ENDPOINT, RequestScheduler.Priority.CURRENT, timed(GUILD_ENDPOINT, parser));
+    }
+
+    /**
+     * Streams all raid entries of a season to {@code consumer}. Completed seasons are served from the season
+     * cache if one is configured, and are requested with backfill priority otherwise.
+     *
+     * @param guildId   id of the guild the key belongs to, used as cache key; may be {@code null}
+     * @param completed whether the season is over, only completed seasons are cached
+     * @return the season header, see {@link GuildRaidStreamReader#read}
+     */
+    public GuildRaidResponse getGuildRaidSeason(String apiKey, String guildId, int season, boolean completed,
+                                                Consumer<GuildRaidResponse.Raid> consumer) throws IOException {
+        String endpoint = GUILD_RAID_ENDPOINT + season;
+        ResponseParser<GuildRaidResponse> parser = timed(endpoint, content -> {
+            long[] entries = new long[1];
+            try {
+                return raidStreamReader.read(content, raid -> {
+                    entries[0]++;
+                    consumer.accept(raid);
+                });
+            } finally {
+                MetricsRegistry.getInstance().counter(MetricsRegistry.PARSE_ENTRIES).add(entries[0]);
+            }
+        });
+        RequestScheduler.Priority priority = completed ? RequestScheduler.Priority.BACKFILL : RequestScheduler.Priority.CURRENT;
+        if (seasonCache != null && guildId != null && completed) {
+            return seasonCache.load(guildId, season, parser, p -> get(apiKey, endpoint, priority, p));
+        }
+        return get(apiKey, endpoint, priority, parser);
+    }
+
+    /**
+     * Requests {@code endpoint} and parses a successful response straight from the response stream.
+     */
+    public <T> T get(String apiKey, String endpoint, RequestScheduler.Priority priority, ResponseParser<T> parser) throws IOException {
+        // Replays at full speed neither wait for permits nor back off
+        boolean instant = archive != null && archive.isInstantReplay();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.deadlineMillis());
+        for (int attempt = 1; ; attempt++) {
+            HttpGet request = new HttpGet(baseUrl + endpoint);
+            request.addHeader("X-API-KEY", apiKey);
+            request.addHeader("Content-Type", "application/json");
+            request.addHeader("Accept", "application/json");
+
+            if (!instant) {
+                acquirePermit(priority, deadline, endpoint);
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new TacticusApiException(TacticusApiException.Type.TIMEOUT, endpoint, -1, null);
+            }
+            ScheduledFuture<?> abort = deadlineTimer.schedule(request::abort, remainingMillis, TimeUnit.MILLISECONDS);
+            boolean parsing = false;
+            try {
+                IOException failure;
+                long sentNanos = System.nanoTime();
+                try (Response response = execute(request, apiKey, endpoint)) {
+                    int statusCode = response.getStatusCode();
+                    MetricsRegistry.getInstance().timer(MetricsRegistry.FETCH, "endpoint", endpointLabel(endpoint),
+                            "status", String.valueOf(statusCode)).recordSince(sentNanos);
+                    if (statusCode == 200) {
+                        // The deadline bounds getting a response; the body is bounded by the read timeout, as the
+                        // parser also runs the consumer of the entries and slow consumers are not API timeouts
+                        abort.cancel(false);
+                        // Once the body has been handed to the parser it may have side effects, so it is never retried
+                        parsing = true;
+                        try (InputStream content = new CountingInputStream(response.getContent(), endpointLabel(endpoint))) {
+                            try {
+                                return parser.parse(content);
+                            } catch (IOException | RuntimeException e) {
+                                // Closing the body would download the rest of it to reuse the connection
+                                request.abort();
+                                throw e;
+                            }
+                        }
+                    }
+                    String body = response.getBodyAsString();
+                    failure = new TacticusApiException(TacticusApiException.Type.fromStatusCode(statusCode), endpoint, statusCode, body);
+                    if (statusCode == 429 && !instant) {
+                        // Hold back all callers, not just this one, so the throttling does not turn into a storm
+                        scheduler.pause(retryAfterMillis(response.getHeader("Retry-After"), backoffMillis(attempt)));
+                    }
+                } catch (IOException e) {
+                    if (!parsing) {
+                        MetricsRegistry.getInstance().timer(MetricsRegistry.FETCH, "endpoint", endpointLabel(endpoint),
+                                "status", "error").recordSince(sentNanos);
+                    }
+                    // Requests are only aborted by the deadline timer, or above once parsing failed
+                    if (!parsing && request.isAborted()) {
+                        throw new TacticusApiException(TacticusApiException.Type.TIMEOUT, endpoint, -1, null);
+                    }
+                    if (parsing || !isTransient(e)) {
+                        throw e;
+                    }
+                    failure = e;
+                }
+
+                boolean retryable = !(failure instanceof TacticusApiException) || ((TacticusApiException) failure).isRetryable();
+                long backoffMillis = instant ? 0 : backoffMillis(attempt);
+                if (!retryable || attempt >= settings.maxAttempts()
+                        || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis) >= deadline) {
+                    throw failure;
+                }
+                System.err.println("Retrying " + endpoint + " in " + backoffMillis + " ms after: " + failure.getMessage());
+                sleep(backoffMillis);
+            } finally {
+                abort.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Records the parse time of {@code endpoint}. Responses are parsed while they are streamed, so the time
+     * includes transferring the body, and reading it from the season cache on cache hits.
+     */
+    private static <T> ResponseParser<T> timed(String endpoint, ResponseParser<T> parser) {
+        return content -> {
+            long start = System.nanoTime();
+            try {
+                return parser.parse(content);
+            } finally {
+                MetricsRegistry.getInstance().timer(MetricsRegistry.PARSE, "endpoint", endpointLabel(endpoint)).recordSince(start);
+            }
+        };
+    }
+
+    /**
+     * @return the last path segment of {@code endpoint} without a trailing season number, e.g. {@code guildRaid}
+     * for {@code /api/v1/guildRaid/78}, to keep the number of distinct metrics small
+     */
+    static String endpointLabel(String endpoint) {
+        String path = TRAILING_NUMBER.matcher(endpoint).replaceFirst("");
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Sends the request, or replays its response from the archive. Recorded responses are archived once closed.
+     */
+    private Response execute(HttpGet request, String apiKey, String endpoint) throws IOException {
+        if (archive != null && archive.getMode() == TrafficArchive.Mode.REPLAY) {
+            return archive.replay(apiKey, endpoint);
+        }
+        long sentNanos = System.nanoTime();
+        Response response;
+        try {
+            response = new HttpResponse(httpClient.execute(request));
+        } catch (IOException e) {
+            if (archive != null) {
+                archive.recordFailure(apiKey, endpoint, sentNanos, request.isAborted(), e);
+            }
+            throw e;
+        }
+        return archive != null ? archive.record(apiKey, endpoint, sentNanos, response) : response;
+    }
+
+    /**
+     * Full-jitter exponential backoff: a random delay between zero and {@code initialBackoff * 2^(attempt - 1)}.
+     */
+    long backoffMillis(int attempt) {
+        long ceiling = settings.initialBackoffMillis() << Math.min(attempt - 1, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(ceiling, settings.maxBackoffMillis()) + 1);
+    }
+
+    public RequestScheduler.Metrics getSchedulerMetrics() {
+        return scheduler.getMetrics();
+    }
+
+    /**
+     * Waits for a request permit until the deadline of the call.
+     */
+    private void acquirePermit(RequestScheduler.Priority priority, long deadline, String endpoint) throws IOException {
+        try {
+            if (!scheduler.acquire(priority, deadline - System.nanoTime())) {
+                throw new TacticusApiException(TacticusApiException.Type.TIMEOUT, endpoint, -1, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request permit");
+        }
+    }
+
+    private static long retryAfterMillis(String retryAfter, long fallbackMillis) {
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                // HTTP dates are not used by the API, fall back to the backoff
+            }
+        }
+        return fallbackMillis;
+    }
+
+    private static boolean isTransient(IOException e) {
+        // Timeouts, refused or reset connections; ConnectException is a SocketException
+        return e instanceof InterruptedIOException || e instanceof SocketException || e instanceof NoHttpResponseException;
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    /**
+     * Runs an API call for one of the command line tools, printing its progress. API and parse errors are
+     * reported and turn into a {@code null} result so that the remaining calls of a run can continue.
+     */
+    public static <T> T fetchOrNull(String description, Call<T> call) throws IOException {
+        System.out.println("\n=== " + description + " ===");
+        try {
+            T result = call.execute();
+            System.out.println("Successfully parsed " + description);
+            return result;
+        } catch (TacticusApiException e) {
+            System.out.println("Error Response: " + e.getMessage());
+        } catch (JacksonException e) {
+            System.err.println("Error parsing JSON response: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deadlineTimer.shutdownNow();
+        try {
+            httpClient.close();
+        } finally {
+            if (archive != null) {
+                archive.close();
+            }
+        }
+    }
+
+    /**
+     * Status, headers and body of one response, received over HTTP or replayed from a {@link TrafficArchive}.
+     */
+    interface Response extends Closeable {
+        int getStatusCode();
+
+        /**
+         * @return the response headers, names are case-insensitive
+         */
+        Map<String, String> getHeaders();
+
+        /**
+         * @return the body, empty if there is none
+         */
+        InputStream getContent() throws IOException;
+
+        default String getHeader(String name) {
+            return getHeaders().get(name);
+        }
+
+        default String getBodyAsString() throws IOException {
+            try (InputStream content = getContent()) {
+                return new String(content.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private static class HttpResponse implements Response {
+        private final CloseableHttpResponse response;
+        private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        HttpResponse(CloseableHttpResponse response) {
+            this.response = response;
+            for (Header header : response.getAllHeaders()) {
+                headers.put(header.getName(), header.getValue());
+            }
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusLine().getStatusCode();
+        }
+
+        @Override
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            HttpEntity entity = response.getEntity();
+            return entity != null ? entity.getContent() : InputStream.nullInputStream();
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.close();
+        }
+    }
+
+    /**
+     * Counts the bytes read from a response body and adds them to the fetch metrics once closed.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final String endpoint;
+        private long bytes;
+
+        CountingInputStream(InputStream in, String endpoint) {
+            super(in);
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                bytes += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            bytes += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            MetricsRegistry.getInstance().counter(MetricsRegistry.FETCH_BYTES, "endpoint", endpoint).add(bytes);
+            bytes = 0;
+            super.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T execute() throws IOException;
+    }
+
+    /**
+     * Connection and retry settings of the client.
+     *
+     * @param deadlineMillis    upper bound for one call including all retries
+     * @param requestsPerSecond sustained request rate, zero or less disables rate limiting
+     */
+    public record Settings(int maxConnections, int connectTimeoutMillis, int readTimeoutMillis, long deadlineMillis,
+                           int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, long keepAliveMillis,
+                           double requestsPerSecond, int burst) {
+
+        /**
+         * Reads the settings from {@code -Dtacticus.api.*} system properties, falling back to defaults.
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("tacticus.api.maxConnections", 4),
+                    Integer.getInteger("tacticus.api.connectTimeoutMillis", 10_000),
+                    Integer.getInteger("tacticus.api.readTimeoutMillis", 30_000),
+                    Long.getLong("tacticus.api.deadlineMillis", 120_000L),
+                    Integer.getInteger("tacticus.api.maxAttempts", 4),
+                    Long.getLong("tacticus.api.initialBackoffMillis", 500L),
+                    Long.getLong("tacticus.api.maxBackoffMillis", 10_000L),
+                    Long.getLong("tacticus.api.keepAliveMillis", 30_000L),
+                    Double.parseDouble(System.getProperty("tacticus.api.requestsPerSecond", "5")),
+                    Integer.getInteger("tacticus.api.burst", 5));
+        }
+
+        public Settings withMaxConnections(int maxConnections) {
+            return new Settings(maxConnections, connectTimeoutMillis, readTimeoutMillis, deadlineMillis,
+                    maxAttempts, initialBackoffMillis, maxBackoffMillis, keepAliveMillis, requestsPerSecond, burst);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package de.blaukool.tacticus.api;
+
+import java.io.IOException;
+
+/**
+ * A request to the Tacticus API that did not return a usable response.
+ */
+public class TacticusApiException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Error types; the first three are the ones documented by the API ({@code {"type":"FORBIDDEN"}} etc.).
+     */
+    public enum Type {
+        FORBIDDEN,
+        NOT_FOUND,
+        UNKNOWN_ERROR,
+        THROTTLED,
+        TIMEOUT,
+        UNEXPECTED;
+
+        static Type fromStatusCode(int statusCode) {
+            switch (statusCode) {
+                case 403: return FORBIDDEN;
+                case 404: return NOT_FOUND;
+                case 429: return THROTTLED;
+                case 500: return UNKNOWN_ERROR;
+                default: return UNEXPECTED;
+            }
+        }
+    }
+
+    private final Type type;
+    private final String endpoint;
+    private final int statusCode;
+    private final String responseBody;
+
+    public TacticusApiException(Type type, String endpoint, int statusCode, String responseBody) {
+        super(type + " for " + endpoint + (statusCode > 0 ? " (status " + statusCode + ")" : "")
+                + (responseBody != null && !responseBody.isEmpty() ? ": " + responseBody : ""));
+        this.type = type;
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return the HTTP status code, or -1 if no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * @return whether the API documents this error as retryable
+     */
+    public boolean isRetryable() {
+        return type == Type.UNKNOWN_ERROR || type == Type.THROTTLED;
+    }
+}
@@ -0,0 +1,435 @@
+package de.blaukool.tacticus.api;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Recorded API traffic for reproducible investigations and offline re-runs.
+ * <p>
+ * When recording, every exchange of the client is appended to {@code index.jsonl} in the archive directory, one
+ * JSON line with the endpoint, status, response headers, latency and offset since the start of the recording,
+ * and the body gzip-compressed in {@code bodies/}. Transport failures are recorded as well. API keys are never
+ * written: an exchange only carries a short hash of its key, so runs over several keys replay the right responses.
+ * <p>
+ * When replaying, the client sends no requests. Every request is answered with the next exchange recorded for its
+ * key and endpoint, or for its endpoint if the key was not recorded; the last exchange of an endpoint is repeated
+ * once all others have been replayed. A response whose body failed to transfer is replayed with its status and
+ * the part of the body that arrived, and then fails as the recording did. Replays run at full speed, or with the
+ * recorded timings: every response arrives at its recorded offset since the start of the replay plus its recorded
+ * latency.
+ * Seasons served from the season cache never reach the API and are neither recorded nor replayed.
+ */
+public class TrafficArchive implements Closeable {
+    static final String RECORD_PROPERTY = "tacticus.api.record";
+    static final String REPLAY_PROPERTY = "tacticus.api.replay";
+    static final String REPLAY_TIMINGS_PROPERTY = "tacticus.api.replayTimings";
+    static final String INDEX_FILE = "index.jsonl";
+    static final String BODY_DIRECTORY = "bodies";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    public enum Mode { RECORD, REPLAY }
+
+    private final Path directory;
+    private final Mode mode;
+    private final boolean recordedTimings;
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Writer index;
+
+    private final Map<String, Deque<Exchange>> byKeyAndEndpoint = new HashMap<>();
+    private final Map<String, Deque<Exchange>> byEndpoint = new HashMap<>();
+
+    private TrafficArchive(Path directory, Mode mode, boolean recordedTimings) throws IOException {
+        this.directory = directory;
+        this.mode = mode;
+        this.recordedTimings = recordedTimings;
+
+        Path indexFile = directory.resolve(INDEX_FILE);
+        if (mode == Mode.RECORD) {
+            Files.createDirectories(directory.resolve(BODY_DIRECTORY));
+            // Continue the numbering of an earlier recording into the same archive
+            if (Files.exists(indexFile)) {
+                sequence.set(readIndex(indexFile).stream().mapToInt(Exchange::sequence).max().orElse(0));
+            }
+            this.index = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } else {
+            this.index = null;
+            for (Exchange exchange : readIndex(indexFile)) {
+                byKeyAndEndpoint.computeIfAbsent(exchange.key() + " " + exchange.endpoint(), k -> new ArrayDeque<>()).add(exchange);
+                byEndpoint.computeIfAbsent(exchange.endpoint(), k -> new ArrayDeque<>()).add(exchange);
+            }
+        }
+    }
+
+    /**
+     * Starts recording into {@code directory}, appending to an archive that is already there.
+     */
+    public static TrafficArchive record(Path directory) throws IOException {
+        return new TrafficArchive(directory, Mode.RECORD, false);
+    }
+
+    /**
+     * Opens the archive in {@code directory} for replay.
+     *
+     * @param recordedTimings whether every response is delayed by its recorded latency
+     */
+    public static TrafficArchive replay(Path directory, boolean recordedTimings) throws IOException {
+        return new TrafficArchive(directory, Mode.REPLAY, recordedTimings);
+    }
+
+    /**
+     * Opens the archive configured by {@code -Dtacticus.api.record=<directory>} or
+     * {@code -Dtacticus.api.replay=<directory>}; with {@code -Dtacticus.api.replayTimings=true} a replay keeps the
+     * recorded latencies.
+     *
+     * @return the archive, or {@code null} if traffic is neither recorded nor replayed
+     */
+    public static TrafficArchive fromSystemProperties() throws IOException {
+        String replay = System.getProperty(REPLAY_PROPERTY);
+        String record = System.getProperty(RECORD_PROPERTY);
+        if (replay != null && record != null) {
+            throw new IOException("Traffic can not be recorded and replayed at the same time");
+        }
+        if (replay != null) {
+            boolean timings = Boolean.parseBoolean(System.getProperty(REPLAY_TIMINGS_PROPERTY, "false"));
+            System.out.println("Replaying API traffic from " + replay + (timings ? " with recorded timings" : ""));
+            return replay(Paths.get(replay), timings);
+        }
+        if (record != null) {
+            System.out.println("Recording API traffic to " + record);
+            return record(Paths.get(record));
+        }
+        return null;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return whether this is a replay at full speed, which needs neither rate limiting nor backoff
+     */
+    boolean isInstantReplay() {
+        return mode == Mode.REPLAY && !recordedTimings;
+    }
+
+    /**
+     * Records {@code response} once it has been read and closed.
+     *
+     * @param sentNanos {@link System#nanoTime()} when the request was sent
+     */
+    TacticusApiClient.Response record(String apiKey, String endpoint, long sentNanos,
+                                      TacticusApiClient.Response response) throws IOException {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentNanos);
+        int number = sequence.incrementAndGet();
+        String body = BODY_DIRECTORY + "/" + String.format("%06d.json.gz", number);
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.getHeaders());
+        headers.remove("Set-Cookie");
+        Exchange exchange = new Exchange(number, offsetMillis(sentNanos), elapsedMillis, fingerprint(apiKey), endpoint,
+                response.getStatusCode(), headers, body, null, false);
+        return new RecordingResponse(response, exchange, directory.resolve(body));
+    }
+
+    /**
+     * Records a request that failed without a response.
+     */
+    void recordFailure(String apiKey, String endpoint, long sentNanos, boolean timeout, IOException failure) throws IOException {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentNanos);
+        append(new Exchange(sequence.incrementAndGet(), offsetMillis(sentNanos), elapsedMillis, fingerprint(apiKey),
+                endpoint, 0, Map.of(), null, describe(failure), timeout || failure instanceof InterruptedIOException));
+    }
+
+    /**
+     * @return the next recorded response for {@code endpoint}
+     * @throws SocketException if the recorded request failed without a response; a failed transfer of the body
+     *                         is thrown by the content of the response once the recorded part has been read
+     */
+    TacticusApiClient.Response replay(String apiKey, String endpoint) throws IOException {
+        Exchange exchange = next(fingerprint(apiKey), endpoint);
+        if (exchange == null) {
+            throw new IOException("No traffic recorded for " + endpoint + " in " + directory);
+        }
+        if (recordedTimings) {
+            // Requests sent after their recorded offset still wait for the recorded latency
+            long untilSent = Math.max(0, exchange.offsetMillis() - offsetMillis(System.nanoTime()));
+            try {
+                Thread.sleep(untilSent + exchange.elapsedMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while replaying " + endpoint);
+            }
+        }
+        if (exchange.error() != null && exchange.body() == null) {
+            throw exchange.failure();
+        }
+        return new ReplayedResponse(exchange, exchange.body() != null ? directory.resolve(exchange.body()) : null);
+    }
+
+    private synchronized Exchange next(String key, String endpoint) {
+        Deque<Exchange> exchanges = byKeyAndEndpoint.get(key + " " + endpoint);
+        if (exchanges == null) {
+            exchanges = byEndpoint.get(endpoint);
+        }
+        if (exchanges == null) {
+            return null;
+        }
+        return exchanges.size() > 1 ? exchanges.pollFirst() : exchanges.peekFirst();
+    }
+
+    private synchronized void append(Exchange exchange) throws IOException {
+        index.write(OBJECT_MAPPER.writeValueAsString(exchange));
+        index.write('\n');
+        // Keep everything recorded so far if the run is killed
+        index.flush();
+    }
+
+    private static String describe(IOException failure) {
+        return failure.getClass().getSimpleName() + (failure.getMessage() != null ? ": " + failure.getMessage() : "");
+    }
+
+    private long offsetMillis(long sentNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(sentNanos - startNanos);
+    }
+
+    private static List<Exchange> readIndex(Path indexFile) throws IOException {
+        List<Exchange> exchanges = new ArrayList<>();
+        for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                exchanges.add(OBJECT_MAPPER.readValue(line, Exchange.class));
+            }
+        }
+        return exchanges;
+    }
+
+    /**
+     * @return the first 12 hex digits of the SHA-256 of {@code apiKey}
+     */
+    static String fingerprint(String apiKey) {
+        if (apiKey == null) {
+            return null;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (index != null) {
+            synchronized (this) {
+                index.close();
+            }
+        }
+    }
+
+    /**
+     * One line of the index.
+     *
+     * @param offsetMillis  time the request was sent, since the start of the recording
+     * @param elapsedMillis time until the response headers, or the failure, arrived
+     * @param key           hash of the API key, see {@link #fingerprint}
+     * @param body          path of the compressed body relative to the archive, {@code null} for failures
+     * @param error         the transport failure of a request without response, or of the transfer of its body
+     */
+    record Exchange(int sequence, long offsetMillis, long elapsedMillis, String key, String endpoint, int status,
+                    Map<String, String> headers, String body, String error, boolean timeout) {
+
+        Exchange failed(IOException failure) {
+            return new Exchange(sequence, offsetMillis, elapsedMillis, key, endpoint, status, headers, body,
+                    describe(failure), failure instanceof InterruptedIOException);
+        }
+
+        /**
+         * @return the recorded failure as it is thrown on replay
+         */
+        IOException failure() {
+            return timeout ? new SocketTimeoutException(error) : new SocketException(error);
+        }
+    }
+
+    /**
+     * Writes the body to the archive while it is read and appends the exchange to the index on close, with the
+     * failure if the body could not be transferred.
+     */
+    private class RecordingResponse implements TacticusApiClient.Response {
+        private final TacticusApiClient.Response response;
+        private final Exchange exchange;
+        private final Path bodyFile;
+        private InputStream content;
+        private IOException failure;
+
+        RecordingResponse(TacticusApiClient.Response response, Exchange exchange, Path bodyFile) {
+            this.response = response;
+            this.exchange = exchange;
+            this.bodyFile = bodyFile;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public Map<String, String> getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (content == null) {
+                OutputStream sink = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(bodyFile)));
+                content = new FilterInputStream(new CachingInputStream(response.getContent(), sink)) {
+                    @Override
+                    public int read() throws IOException {
+                        try {
+                            return super.read();
+                        } catch (IOException e) {
+                            throw failed(e);
+                        }
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        try {
+                            return super.read(b, off, len);
+                        } catch (IOException e) {
+                            throw failed(e);
+                        }
+                    }
+
+                    @Override
+                    public long skip(long n) throws IOException {
+                        try {
+                            return super.skip(n);
+                        } catch (IOException e) {
+                            throw failed(e);
+                        }
+                    }
+                };
+            }
+            return content;
+        }
+
+        /**
+         * Keeps the first failure of the body transfer for the index; later reads may fail differently or not at all.
+         */
+        private IOException failed(IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+            return e;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                try {
+                    // Also stores bodies nobody read
+                    getContent().close();
+                } finally {
+                    response.close();
+                }
+            } catch (IOException e) {
+                throw failed(e);
+            } finally {
+                append(failure != null ? exchange.failed(failure) : exchange);
+            }
+        }
+    }
+
+    private static class ReplayedResponse implements TacticusApiClient.Response {
+        private final Exchange exchange;
+        private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final Path bodyFile;
+        private InputStream content;
+
+        ReplayedResponse(Exchange exchange, Path bodyFile) {
+            this.exchange = exchange;
+            this.bodyFile = bodyFile;
+            if (exchange.headers() != null) {
+                headers.putAll(exchange.headers());
+            }
+        }
+
+        @Override
+        public int getStatusCode() {
+            return exchange.status();
+        }
+
+        @Override
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (content == null) {
+                content = bodyFile != null && Files.exists(bodyFile)
+                        ? new GZIPInputStream(new BufferedInputStream(Files.newInputStream(bodyFile)))
+                        : InputStream.nullInputStream();
+                if (exchange.error() != null) {
+                    content = new FailingInputStream(content, exchange);
+                }
+            }
+            return content;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (content != null) {
+                content.close();
+            }
+        }
+    }
+
+    /**
+     * Ends the recorded part of a body whose transfer failed with the recorded failure instead of its end.
+     */
+    private static class FailingInputStream extends FilterInputStream {
+        private final Exchange exchange;
+
+        FailingInputStream(InputStream in, Exchange exchange) {
+            super(in);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b == -1) {
+                throw exchange.failure();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n == -1) {
+                throw exchange.failure();
+            }
+            return n;
+        }
+    }
+}
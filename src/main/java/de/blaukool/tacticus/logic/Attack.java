@@ -1,11 +1,15 @@
 package de.blaukool.tacticus.logic;
 
-import java.io.Serializable;
-
+/**
+ * One attack on a boss or sideboss. Attacks are ordered by the time they were completed (or started, if the
+ * completion is unknown) and then by remaining health, highest first.
+ */
 public class Attack implements Comparable<Attack> {
     private String attackerName;
     private int damage;
     private int remainingHealth;
+    private long startedOn = RaidTable.NO_TIME;
+    private long completedOn = RaidTable.NO_TIME;
 
     public Attack(String attackerName, int damage, int remainingHealth) {
         this.attackerName = attackerName;
@@ -13,6 +17,16 @@ public class Attack implements Comparable<Attack> {
         this.remainingHealth = remainingHealth;
     }
 
+    /**
+     * @param startedOn   epoch millis, or {@link RaidTable#NO_TIME}
+     * @param completedOn epoch millis, or {@link RaidTable#NO_TIME}
+     */
+    public Attack(String attackerName, int damage, int remainingHealth, long startedOn, long completedOn) {
+        this(attackerName, damage, remainingHealth);
+        this.startedOn = startedOn;
+        this.completedOn = completedOn;
+    }
+
     public String getAttackerName() {
         return attackerName;
     }
@@ -37,6 +51,21 @@ public class Attack implements Comparable<Attack> {
         this.remainingHealth = remainingHealth;
     }
 
+    public long getStartedOn() {
+        return startedOn;
+    }
+
+    public long getCompletedOn() {
+        return completedOn;
+    }
+
+    /**
+     * @return the completion time if known, otherwise the start time
+     */
+    public long getTimestamp() {
+        return completedOn != RaidTable.NO_TIME ? completedOn : startedOn;
+    }
+
     @Override
     public String toString() {
         return "\n\t\t" + attackerName + '\'' +
@@ -46,6 +75,8 @@ public class Attack implements Comparable<Attack> {
 
     @Override
     public int compareTo(Attack o) {
+        int time = Long.compare(this.getTimestamp(), o.getTimestamp());
+        if (time != 0) return time;
         return Integer.compare(o.remainingHealth, this.remainingHealth);
     }
 }
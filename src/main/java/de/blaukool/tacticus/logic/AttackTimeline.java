@@ -0,0 +1,53 @@
+package de.blaukool.tacticus.logic;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The attacks on one boss or sideboss. Attacks are appended in the order they are read and sorted once when the
+ * timeline is read (see {@link Attack#compareTo(Attack)}); attacks that compare equal are all kept.
+ * <p>
+ * Adding and sorting are synchronized, so attacks may be added from several threads. The timeline may be read
+ * from several threads once all attacks have been added.
+ */
+public class AttackTimeline extends AbstractList<Attack> {
+    private final List<Attack> attacks = new ArrayList<>();
+    private volatile boolean sorted = true;
+
+    @Override
+    public synchronized boolean add(Attack attack) {
+        attacks.add(attack);
+        sorted = false;
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        attacks.clear();
+        sorted = true;
+    }
+
+    @Override
+    public Attack get(int index) {
+        ensureSorted();
+        return attacks.get(index);
+    }
+
+    @Override
+    public int size() {
+        return attacks.size();
+    }
+
+    private void ensureSorted() {
+        if (!sorted) {
+            synchronized (this) {
+                if (!sorted) {
+                    // Stable, so attacks that compare equal stay in the order they were added
+                    attacks.sort(null);
+                    sorted = true;
+                }
+            }
+        }
+    }
+}
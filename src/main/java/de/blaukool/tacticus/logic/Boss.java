@@ -4,22 +4,13 @@ import java.util.*;
 
 public class Boss implements Comparable<Boss>{
     private String name;
-    private SortedSet<Attack> attacks = new TreeSet<>();
+    private final AttackTimeline attacks = new AttackTimeline();
     private List<Sideboss> sideboss = new ArrayList<>();
+    private Map<String, Sideboss> sidebossByName = new HashMap<>();
     private String rarity;
     private int number;
     private int tier;
 
-    static private final Map<String, Integer> RARITIES = new HashMap<>();
-    static {
-        RARITIES.put("Common", 1);
-        RARITIES.put("Uncommon", 2);
-        RARITIES.put("Rare", 3);
-        RARITIES.put("Epic", 4);
-        RARITIES.put("Legendary", 5);
-        RARITIES.put("Mythic", 6);
-    }
-
     public Boss(String name, int number, String rarity, int tier) {
         this.name = name;
         this.number = number;
@@ -43,20 +34,51 @@ public class Boss implements Comparable<Boss>{
         this.name = name;
     }
 
-    public SortedSet<Attack> getAttacks() {
+    /**
+     * @return all attacks in order of time, attacks are added to the returned timeline
+     */
+    public AttackTimeline getAttacks() {
         return attacks;
     }
 
-    public void setAttacks(SortedSet<Attack> attacks) {
-        this.attacks = attacks;
+    public void setAttacks(List<Attack> attacks) {
+        this.attacks.clear();
+        this.attacks.addAll(attacks);
     }
 
+    /**
+     * @return the sidebosses in the order they were first attacked; new ones are added with {@link #getOrAddSideboss}
+     */
     public List<Sideboss> getSideboss() {
-        return sideboss;
+        return Collections.unmodifiableList(sideboss);
     }
 
     public void setSideboss(List<Sideboss> sideboss) {
-        this.sideboss = sideboss;
+        this.sideboss = new ArrayList<>(sideboss);
+        this.sidebossByName = new HashMap<>();
+        for (Sideboss sb : sideboss) {
+            sidebossByName.put(sb.getName(), sb);
+        }
+    }
+
+    /**
+     * @return the sideboss with the given name, added after the existing sidebosses if there is none yet
+     */
+    public Sideboss getOrAddSideboss(String name) {
+        Sideboss existing = sidebossByName.get(name);
+        if (existing == null) {
+            existing = new Sideboss(name);
+            sideboss.add(existing);
+            sidebossByName.put(name, existing);
+        }
+        return existing;
+    }
+
+    /**
+     * @return the sideboss with the given name, or {@code null}
+     */
+    public Sideboss findSideboss(String name) {
+        return sidebossByName.get(name);
     }
 
     public String getRarity() {
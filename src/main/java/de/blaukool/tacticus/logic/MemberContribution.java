@@ -5,16 +5,20 @@ import de.blaukool.tacticus.api.GuildRaidResponse;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Damage and number of attacks of one member in one season. Counters are primitive longs, so adding an entry does
+ * not allocate and totals over a whole guild do not overflow.
+ */
 public class MemberContribution {
     String name;
     String role;
     Integer level;
-    Integer bossBattle = 0;
-    Integer sidebossBattle = 0;
-    Integer bossBomb = 0;
-    Integer sidebossBomb = 0;
-    Integer battleCount = 0;
-    Integer bombCount = 0;
+    long bossBattle;
+    long sidebossBattle;
+    long bossBomb;
+    long sidebossBomb;
+    long battleCount;
+    long bombCount;
     List<GuildRaidResponse.Raid> raids = new ArrayList<GuildRaidResponse.Raid>();
 
     public List<GuildRaidResponse.Raid> getRaids() {
@@ -26,14 +30,18 @@ public class MemberContribution {
     }
 
     public void addRaid(GuildRaidResponse.Raid raid){
+        if (raids instanceof RaidTable.Rows) {
+            // Lists backed by the raid table are views of the aggregated rows; entries added by hand go to a copy
+            raids = new ArrayList<>(raids);
+        }
         raids.add(raid);
     }
 
-    public Integer getBossBattle() {
+    public long getBossBattle() {
         return bossBattle;
     }
 
-    public void setBossBattle(Integer bossBattle) {
+    public void setBossBattle(long bossBattle) {
         this.bossBattle = bossBattle;
     }
 
@@ -53,59 +61,71 @@ public class MemberContribution {
         this.role = role;
     }
 
-    public Integer getSidebossBattle() {
+    public long getSidebossBattle() {
         return sidebossBattle;
     }
 
-    public void setSidebossBattle(Integer sidebossBattle) {
+    public void setSidebossBattle(long sidebossBattle) {
         this.sidebossBattle = sidebossBattle;
     }
 
-    public Integer getBossBomb() {
+    public long getBossBomb() {
         return bossBomb;
     }
 
-    public void setBossBomb(Integer bossBomb) {
+    public void setBossBomb(long bossBomb) {
         this.bossBomb = bossBomb;
     }
 
-    public Integer getSidebossBomb() {
+    public long getSidebossBomb() {
         return sidebossBomb;
     }
 
-    public void setSidebossBomb(Integer sidebossBomb) {
+    public void setSidebossBomb(long sidebossBomb) {
         this.sidebossBomb = sidebossBomb;
     }
 
-    public void addBossBattle(Integer damage) {
+    public void addBossBattle(long damage) {
         this.bossBattle += damage;
     }
 
-    public void addBossBomb(Integer damage) {
+    public void addBossBomb(long damage) {
         this.bossBomb += damage;
     }
 
-    public void addSidebossBattle(Integer damage) {
+    public void addSidebossBattle(long damage) {
         this.sidebossBattle += damage;
     }
 
-    public void addSidebossBomb(Integer damage) {
+    public void addSidebossBomb(long damage) {
         this.sidebossBomb += damage;
     }
 
-    public Integer getBattleCount() {
+    /**
+     * Adds the damage and attack counts of {@code other} to this contribution.
+     */
+    public void add(MemberContribution other) {
+        this.bossBattle += other.bossBattle;
+        this.sidebossBattle += other.sidebossBattle;
+        this.bossBomb += other.bossBomb;
+        this.sidebossBomb += other.sidebossBomb;
+        this.battleCount += other.battleCount;
+        this.bombCount += other.bombCount;
+    }
+
+    public long getBattleCount() {
         return battleCount;
     }
 
-    public void setBattleCount(Integer battleCount) {
+    public void setBattleCount(long battleCount) {
         this.battleCount = battleCount;
     }
 
-    public Integer getBombCount() {
+    public long getBombCount() {
         return bombCount;
     }
 
-    public void setBombCount(Integer bombCount) {
+    public void setBombCount(long bombCount) {
         this.bombCount = bombCount;
     }
 
@@ -117,6 +137,13 @@ public class MemberContribution {
         this.bombCount++;
     }
 
+    /**
+     * @return damage over all contribution types
+     */
+    public long getTotalDamage() {
+        return bossBattle + bossBomb + sidebossBattle + sidebossBomb;
+    }
+
     public Integer getLevel() {
         return level;
     }
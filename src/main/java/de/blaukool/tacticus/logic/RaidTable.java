@@ -0,0 +1,300 @@
+package de.blaukool.tacticus.logic;
+
+import de.blaukool.tacticus.api.DamageType;
+import de.blaukool.tacticus.api.EncounterType;
+import de.blaukool.tacticus.api.GuildRaidResponse;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The raid entries of one season, stored column by column. Numbers are kept in primitive arrays, timestamps as
+ * epoch millis, and the repeating strings (user, unit, boss type, rarity, encounter and damage type) are stored
+ * once per season in a {@link Dictionary} and referenced by their code from every row. Encounter and damage type
+ * are additionally stored as the ordinal of their decoded enum, which is what the aggregations branch on.
+ * <p>
+ * Hero and machine of war details are only kept if requested, e.g. for the details output, as the reports do not
+ * use them; they are then held per row as parsed. The config hash of an entry is never kept.
+ */
+public class RaidTable implements Consumer<GuildRaidResponse.Raid> {
+    /** Epoch millis of a missing timestamp */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Dictionary userIds = new Dictionary();
+    private final Dictionary unitIds = new Dictionary();
+    private final Dictionary types = new Dictionary();
+    private final Dictionary rarities = new Dictionary();
+    private final Dictionary encounterTypes = new Dictionary();
+    private final Dictionary damageTypes = new Dictionary();
+
+    private int size;
+    private int[] tier = new int[INITIAL_CAPACITY];
+    private int[] set = new int[INITIAL_CAPACITY];
+    private int[] encounterIndex = new int[INITIAL_CAPACITY];
+    private int[] damage = new int[INITIAL_CAPACITY];
+    private int[] remainingHp = new int[INITIAL_CAPACITY];
+    private int[] maxHp = new int[INITIAL_CAPACITY];
+    private long[] startedOn = new long[INITIAL_CAPACITY];
+    private long[] completedOn = new long[INITIAL_CAPACITY];
+    private int[] userId = new int[INITIAL_CAPACITY];
+    private int[] unitId = new int[INITIAL_CAPACITY];
+    private int[] type = new int[INITIAL_CAPACITY];
+    private int[] rarity = new int[INITIAL_CAPACITY];
+    private int[] encounterType = new int[INITIAL_CAPACITY];
+    private int[] damageType = new int[INITIAL_CAPACITY];
+    private byte[] encounterTypeValue = new byte[INITIAL_CAPACITY];
+    private byte[] damageTypeValue = new byte[INITIAL_CAPACITY];
+    private final List<List<GuildRaidResponse.PublicHeroDetail>> heroDetails;
+    private final List<GuildRaidResponse.PublicHeroDetail> machineOfWarDetails;
+
+    public RaidTable() {
+        this(false);
+    }
+
+    /**
+     * @param keepHeroDetails whether the hero and machine of war details of the entries are kept
+     */
+    public RaidTable(boolean keepHeroDetails) {
+        heroDetails = keepHeroDetails ? new ArrayList<>(INITIAL_CAPACITY) : null;
+        machineOfWarDetails = keepHeroDetails ? new ArrayList<>(INITIAL_CAPACITY) : null;
+    }
+
+    /**
+     * Appends the entry as a new row.
+     */
+    @Override
+    public void accept(GuildRaidResponse.Raid raid) {
+        if (size == tier.length) {
+            grow();
+        }
+        int row = size++;
+        tier[row] = raid.getTier();
+        set[row] = raid.getSet();
+        encounterIndex[row] = raid.getEncounterIndex();
+        damage[row] = raid.getDamageDealt();
+        remainingHp[row] = raid.getRemainingHp();
+        maxHp[row] = raid.getMaxHp();
+        startedOn[row] = raid.getStartedOn() != null ? raid.getStartedOn().getTime() : NO_TIME;
+        completedOn[row] = raid.getCompletedOn() != null ? raid.getCompletedOn().getTime() : NO_TIME;
+        userId[row] = userIds.encode(raid.getUserId());
+        unitId[row] = unitIds.encode(raid.getUnitId());
+        type[row] = types.encode(raid.getType());
+        rarity[row] = rarities.encode(raid.getRarity());
+        encounterType[row] = encounterTypes.encode(raid.getEncounterType());
+        damageType[row] = damageTypes.encode(raid.getDamageType());
+        encounterTypeValue[row] = (byte) raid.getEncounterTypeValue().ordinal();
+        damageTypeValue[row] = (byte) raid.getDamageTypeValue().ordinal();
+        if (heroDetails != null) {
+            heroDetails.add(raid.getHeroDetails());
+            machineOfWarDetails.add(raid.getMachineOfWarDetails());
+        }
+    }
+
+    /**
+     * Appends all rows of {@code other}, in their order. Strings are encoded with the dictionaries of this table.
+     */
+    public void addAll(RaidTable other) {
+        while (size + other.size > tier.length) {
+            grow();
+        }
+        int[] users = other.userIds.codesIn(userIds);
+        int[] units = other.unitIds.codesIn(unitIds);
+        int[] bossTypes = other.types.codesIn(types);
+        int[] rarityCodes = other.rarities.codesIn(rarities);
+        int[] encounters = other.encounterTypes.codesIn(encounterTypes);
+        int[] damages = other.damageTypes.codesIn(damageTypes);
+
+        System.arraycopy(other.tier, 0, tier, size, other.size);
+        System.arraycopy(other.set, 0, set, size, other.size);
+        System.arraycopy(other.encounterIndex, 0, encounterIndex, size, other.size);
+        System.arraycopy(other.damage, 0, damage, size, other.size);
+        System.arraycopy(other.remainingHp, 0, remainingHp, size, other.size);
+        System.arraycopy(other.maxHp, 0, maxHp, size, other.size);
+        System.arraycopy(other.startedOn, 0, startedOn, size, other.size);
+        System.arraycopy(other.completedOn, 0, completedOn, size, other.size);
+        System.arraycopy(other.encounterTypeValue, 0, encounterTypeValue, size, other.size);
+        System.arraycopy(other.damageTypeValue, 0, damageTypeValue, size, other.size);
+        for (int row = 0; row < other.size; row++) {
+            userId[size + row] = Dictionary.recode(other.userId[row], users);
+            unitId[size + row] = Dictionary.recode(other.unitId[row], units);
+            type[size + row] = Dictionary.recode(other.type[row], bossTypes);
+            rarity[size + row] = Dictionary.recode(other.rarity[row], rarityCodes);
+            encounterType[size + row] = Dictionary.recode(other.encounterType[row], encounters);
+            damageType[size + row] = Dictionary.recode(other.damageType[row], damages);
+        }
+        if (heroDetails != null) {
+            heroDetails.addAll(other.heroDetails != null ? other.heroDetails : Collections.nCopies(other.size, null));
+            machineOfWarDetails.addAll(other.machineOfWarDetails != null ? other.machineOfWarDetails : Collections.nCopies(other.size, null));
+        }
+        size += other.size;
+    }
+
+    private void grow() {
+        int capacity = tier.length + (tier.length >> 1);
+        tier = Arrays.copyOf(tier, capacity);
+        set = Arrays.copyOf(set, capacity);
+        encounterIndex = Arrays.copyOf(encounterIndex, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        remainingHp = Arrays.copyOf(remainingHp, capacity);
+        maxHp = Arrays.copyOf(maxHp, capacity);
+        startedOn = Arrays.copyOf(startedOn, capacity);
+        completedOn = Arrays.copyOf(completedOn, capacity);
+        userId = Arrays.copyOf(userId, capacity);
+        unitId = Arrays.copyOf(unitId, capacity);
+        type = Arrays.copyOf(type, capacity);
+        rarity = Arrays.copyOf(rarity, capacity);
+        encounterType = Arrays.copyOf(encounterType, capacity);
+        damageType = Arrays.copyOf(damageType, capacity);
+        encounterTypeValue = Arrays.copyOf(encounterTypeValue, capacity);
+        damageTypeValue = Arrays.copyOf(damageTypeValue, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getTier(int row) { return tier[row]; }
+    public int getSet(int row) { return set[row]; }
+    public int getEncounterIndex(int row) { return encounterIndex[row]; }
+    public int getDamageDealt(int row) { return damage[row]; }
+    public int getRemainingHp(int row) { return remainingHp[row]; }
+    public int getMaxHp(int row) { return maxHp[row]; }
+    public long getStartedOn(int row) { return startedOn[row]; }
+    public long getCompletedOn(int row) { return completedOn[row]; }
+
+    public EncounterType getEncounterTypeValue(int row) { return EncounterType.fromOrdinal(encounterTypeValue[row]); }
+    public DamageType getDamageTypeValue(int row) { return DamageType.fromOrdinal(damageTypeValue[row]); }
+
+    public int getUserIdCode(int row) { return userId[row]; }
+    public int getUnitIdCode(int row) { return unitId[row]; }
+    public int getTypeCode(int row) { return type[row]; }
+    public int getRarityCode(int row) { return rarity[row]; }
+    public int getEncounterTypeCode(int row) { return encounterType[row]; }
+    public int getDamageTypeCode(int row) { return damageType[row]; }
+
+    public Dictionary getUserIds() { return userIds; }
+    public Dictionary getUnitIds() { return unitIds; }
+    public Dictionary getTypes() { return types; }
+    public Dictionary getRarities() { return rarities; }
+    public Dictionary getEncounterTypes() { return encounterTypes; }
+    public Dictionary getDamageTypes() { return damageTypes; }
+
+    public String getUserId(int row) { return userIds.decode(userId[row]); }
+    public String getUnitId(int row) { return unitIds.decode(unitId[row]); }
+    public String getType(int row) { return types.decode(type[row]); }
+    public String getRarity(int row) { return rarities.decode(rarity[row]); }
+    public String getEncounterType(int row) { return encounterTypes.decode(encounterType[row]); }
+    public String getDamageType(int row) { return damageTypes.decode(damageType[row]); }
+
+    /**
+     * @return a new entry with the values of the row, without config hash and, unless they are kept, without
+     * hero details
+     */
+    public GuildRaidResponse.Raid toRaid(int row) {
+        GuildRaidResponse.Raid raid = new GuildRaidResponse.Raid();
+        raid.setUserId(getUserId(row));
+        raid.setTier(tier[row]);
+        raid.setSet(set[row]);
+        raid.setEncounterIndex(encounterIndex[row]);
+        raid.setRemainingHp(remainingHp[row]);
+        raid.setMaxHp(maxHp[row]);
+        raid.setEncounterType(getEncounterType(row));
+        raid.setUnitId(getUnitId(row));
+        raid.setType(getType(row));
+        raid.setRarity(getRarity(row));
+        raid.setDamageDealt(damage[row]);
+        raid.setDamageType(getDamageType(row));
+        raid.setStartedOn(startedOn[row] != NO_TIME ? new Date(startedOn[row]) : null);
+        raid.setCompletedOn(completedOn[row] != NO_TIME ? new Date(completedOn[row]) : null);
+        if (heroDetails != null) {
+            raid.setHeroDetails(heroDetails.get(row));
+            raid.setMachineOfWarDetails(machineOfWarDetails.get(row));
+        }
+        return raid;
+    }
+
+    /**
+     * A read-only list of rows of this table, e.g. the entries of one member. Entries are created from the table
+     * when they are read, so the list only holds the row numbers; rows are added by the aggregation only.
+     */
+    public class Rows extends AbstractList<GuildRaidResponse.Raid> {
+        private int[] rows = new int[16];
+        private int count;
+
+        public void addRow(int row) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count++] = row;
+        }
+
+        public int getRow(int index) {
+            Objects.checkIndex(index, count);
+            return rows[index];
+        }
+
+        @Override
+        public GuildRaidResponse.Raid get(int index) {
+            return toRaid(getRow(index));
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * Assigns consecutive codes to distinct strings, starting with 0. {@code null} is encoded as -1.
+     */
+    public static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        public String decode(int code) {
+            return code < 0 ? null : values.get(code);
+        }
+
+        /**
+         * @return the code of {@code value}, or -1 if no row holds it
+         */
+        public int codeOf(String value) {
+            Integer code = value != null ? codes.get(value) : null;
+            return code != null ? code : -1;
+        }
+
+        public int size() {
+            return values.size();
+        }
+
+        /**
+         * @return the code in {@code target} for every code of this dictionary, adding missing values to it
+         */
+        int[] codesIn(Dictionary target) {
+            int[] codes = new int[values.size()];
+            for (int code = 0; code < codes.length; code++) {
+                codes[code] = target.encode(values.get(code));
+            }
+            return codes;
+        }
+
+        static int recode(int code, int[] codes) {
+            return code < 0 ? code : codes[code];
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package de.blaukool.tacticus.logic;
+
+import de.blaukool.tacticus.api.DamageType;
+import de.blaukool.tacticus.api.EncounterType;
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.metrics.MetricsRegistry;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates the raid entries of one season into member contributions and the boss view. Entries are collected
+ * in a {@link RaidTable} while they are read and aggregated from its columns when a result is requested.
+ * Entries are only kept (on their member contribution) if {@code keepRaids} is set, e.g. for the battle statistics
+ * sheet; they are then read back from the table. Their hero and machine of war details are kept on top of that only
+ * if {@code keepHeroDetails} is set, as no report uses them.
+ */
+public class SeasonAggregator implements Consumer<GuildRaidResponse.Raid> {
+    private final Map<String, MemberContribution> memberContributions = new HashMap<>();
+    private final Map<String, RaidTable.Rows> memberRows = new HashMap<>();
+    private final Map<Long, Boss> bossMap = new HashMap<>();
+    private final UserIDTranslator translator = UserIDTranslator.getInstance();
+    private final RaidTable table;
+    private final boolean keepRaids;
+    private int aggregatedRows;
+
+    public SeasonAggregator(Map<String, String> memberNames, Map<String, String> memberRoles, Map<String, Integer> memberLevel, boolean keepRaids) {
+        this(memberNames, memberRoles, memberLevel, keepRaids, false);
+    }
+
+    /**
+     * @param keepHeroDetails whether the kept entries include their hero and machine of war details; only has an
+     *                        effect if {@code keepRaids} is set
+     */
+    public SeasonAggregator(Map<String, String> memberNames, Map<String, String> memberRoles, Map<String, Integer> memberLevel,
+                            boolean keepRaids, boolean keepHeroDetails) {
+        this.keepRaids = keepRaids;
+        this.table = new RaidTable(keepRaids && keepHeroDetails);
+
+        // Initialize member contributions for this season
+        for (Map.Entry<String, String> entry : memberNames.entrySet()) {
+            MemberContribution contribution = new MemberContribution();
+            contribution.setName(entry.getValue());
+            contribution.setLevel(memberLevel.get(entry.getKey()));
+            contribution.setRole(memberRoles.get(entry.getKey()));
+            addMember(entry.getKey(), contribution);
+        }
+    }
+
+    private void addMember(String userId, MemberContribution contribution) {
+        memberContributions.put(userId, contribution);
+        if (keepRaids) {
+            RaidTable.Rows rows = table.new Rows();
+            contribution.setRaids(rows);
+            memberRows.put(userId, rows);
+        }
+    }
+
+    @Override
+    public void accept(GuildRaidResponse.Raid raid) {
+        table.accept(raid);
+    }
+
+    /**
+     * Adds all rows of the table that have not been aggregated yet. Results may be read from several threads
+     * once all entries have been read, so this is synchronized.
+     */
+    private synchronized void aggregate() {
+        if (aggregatedRows == table.size()) {
+            return;
+        }
+        long start = System.nanoTime();
+        aggregateMemberContributions(aggregatedRows);
+        aggregateBossView(aggregatedRows);
+        MetricsRegistry.getInstance().counter(MetricsRegistry.AGGREGATE_ROWS).add(table.size() - aggregatedRows);
+        aggregatedRows = table.size();
+        MetricsRegistry.getInstance().timer(MetricsRegistry.AGGREGATE).recordSince(start);
+    }
+
+    /**
+     * Adds the rows from {@code from} on to the member contributions; the first pass of {@link #aggregate()}.
+     */
+    void aggregateMemberContributions(int from) {
+        // Everything that only depends on a dictionary value is resolved once per value instead of once per row
+        int users = table.getUserIds().size();
+        MemberContribution[] contributions = new MemberContribution[users + 1];
+        RaidTable.Rows[] rows = new RaidTable.Rows[users + 1];
+
+        for (int row = from; row < table.size(); row++) {
+            int user = userIndex(row, users);
+            if (contributions[user] == null) {
+                String userId = table.getUserId(row);
+                contributions[user] = getOrAddMember(userId);
+                rows[user] = memberRows.get(userId);
+            }
+            addToMemberContribution(contributions[user], rows[user], row, table.getEncounterTypeValue(row), table.getDamageTypeValue(row));
+        }
+    }
+
+    /**
+     * Adds the rows from {@code from} on to the boss view; the second pass of {@link #aggregate()}.
+     */
+    void aggregateBossView(int from) {
+        int users = table.getUserIds().size();
+        String[] attackerNames = new String[users + 1];
+        String[] sidebossNames = new String[table.getUnitIds().size()];
+
+        for (int row = from; row < table.size(); row++) {
+            int user = userIndex(row, users);
+            if (attackerNames[user] == null) {
+                attackerNames[user] = translator.getUserName(table.getUserId(row));
+            }
+            addToBossView(row, table.getEncounterTypeValue(row), attackerNames[user], sidebossNames);
+        }
+    }
+
+    /**
+     * @return the dictionary code of the user of {@code row}; entries without user id are stored at {@code users}
+     */
+    private int userIndex(int row, int users) {
+        int code = table.getUserIdCode(row);
+        return code >= 0 ? code : users;
+    }
+
+    private MemberContribution getOrAddMember(String userId) {
+        MemberContribution contribution = memberContributions.get(userId);
+        if (contribution == null) {
+            contribution = new MemberContribution();
+            contribution.setName(translator.getUserName(userId));
+            contribution.setRole("Discharged");
+            addMember(userId, contribution);
+        }
+        return contribution;
+    }
+
+    private void addToMemberContribution(MemberContribution contribution, RaidTable.Rows rows, int row, EncounterType encounter, DamageType damageType) {
+        int damage = table.getDamageDealt(row);
+        switch (damageType) {
+            case BATTLE:
+                if (encounter == EncounterType.BOSS) {
+                    contribution.addBossBattle(damage);
+                } else if (encounter == EncounterType.SIDE_BOSS) {
+                    contribution.addSidebossBattle(damage);
+                } else {
+                    break;
+                }
+                contribution.incrementBattleCount();
+                break;
+            case BOMB:
+                if (encounter == EncounterType.BOSS) {
+                    contribution.addBossBomb(damage);
+                } else if (encounter == EncounterType.SIDE_BOSS) {
+                    contribution.addSidebossBomb(damage);
+                } else {
+                    break;
+                }
+                contribution.incrementBombCount();
+                break;
+            default:
+                // Unknown damage types are kept on the entry, but not counted
+        }
+        if (rows != null) {
+            rows.addRow(row);
+        }
+    }
+
+    private void addToBossView(int row, EncounterType encounter, String attackerName, String[] sidebossNames) {
+        long bossKey = bossKey(table.getRarityCode(row), table.getTypeCode(row), table.getTier(row));
+        Boss thisBoss = bossMap.get(bossKey);
+        if (thisBoss == null) {
+            thisBoss = new Boss(table.getType(row), table.getSet(row) + 1, table.getRarity(row), table.getTier(row));
+            bossMap.put(bossKey, thisBoss);
+        }
+        Attack thisAttack = new Attack(attackerName, table.getDamageDealt(row), table.getRemainingHp(row),
+                table.getStartedOn(row), table.getCompletedOn(row));
+        if (encounter == EncounterType.SIDE_BOSS) {
+            // Entries without unit id have no dictionary code
+            int unit = table.getUnitIdCode(row);
+            String sidebossName = unit >= 0 ? sidebossNames[unit] : GuildRaidResponse.UNKNOWN_UNIT_NAME;
+            if (sidebossName == null) {
+                sidebossName = GuildRaidResponse.formatUnitId(table.getUnitId(row));
+                sidebossNames[unit] = sidebossName;
+            }
+            Sideboss thisSideboss = thisBoss.getOrAddSideboss(sidebossName);
+            thisSideboss.getAttacks().add(thisAttack);
+        } else {
+            thisBoss.getAttacks().add(thisAttack);
+        }
+    }
+
+    /**
+     * Bosses are identified by rarity, type and tier.
+     */
+    private static long bossKey(int rarityCode, int typeCode, int tier) {
+        return ((long) (rarityCode + 1) << 48) | ((long) (typeCode + 1) << 32) | (tier & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Aggregates {@code entries} on the common fork-join pool. Chunks of the list are aggregated in parallel and
+     * merged in list order, so the result is the same as accepting every entry in order on a single aggregator.
+     */
+    public static SeasonAggregator aggregate(List<GuildRaidResponse.Raid> entries, Map<String, String> memberNames,
+                                             Map<String, String> memberRoles, Map<String, Integer> memberLevel, boolean keepRaids) {
+        return aggregate(entries, memberNames, memberRoles, memberLevel, keepRaids, false);
+    }
+
+    public static SeasonAggregator aggregate(List<GuildRaidResponse.Raid> entries, Map<String, String> memberNames,
+                                             Map<String, String> memberRoles, Map<String, Integer> memberLevel,
+                                             boolean keepRaids, boolean keepHeroDetails) {
+        return entries.parallelStream().collect(
+                () -> new SeasonAggregator(memberNames, memberRoles, memberLevel, keepRaids, keepHeroDetails),
+                SeasonAggregator::accept,
+                SeasonAggregator::merge);
+    }
+
+    /**
+     * Adds the entries and results of {@code other} after the entries of this aggregator. Both aggregators must
+     * have been created for the same guild members; {@code other} must not be used afterwards.
+     */
+    public synchronized void merge(SeasonAggregator other) {
+        // Both sides are aggregated before merging, so the expensive part runs on the threads of the partial results
+        aggregate();
+        other.aggregate();
+        int offset = table.size();
+        table.addAll(other.table);
+        aggregatedRows = table.size();
+
+        for (Map.Entry<String, MemberContribution> entry : other.memberContributions.entrySet()) {
+            MemberContribution contribution = memberContributions.get(entry.getKey());
+            if (contribution == null) {
+                // Discharged member that only attacked in the entries of other
+                contribution = new MemberContribution();
+                contribution.setName(entry.getValue().getName());
+                contribution.setRole(entry.getValue().getRole());
+                contribution.setLevel(entry.getValue().getLevel());
+                addMember(entry.getKey(), contribution);
+            }
+            contribution.add(entry.getValue());
+
+            RaidTable.Rows rows = memberRows.get(entry.getKey());
+            RaidTable.Rows otherRows = other.memberRows.get(entry.getKey());
+            if (rows != null && otherRows != null) {
+                for (int i = 0; i < otherRows.size(); i++) {
+                    rows.addRow(offset + otherRows.getRow(i));
+                }
+            }
+        }
+
+        for (Boss otherBoss : other.bossMap.values()) {
+            long bossKey = bossKey(table.getRarities().codeOf(otherBoss.getRarity()), table.getTypes().codeOf(otherBoss.getName()), otherBoss.getTier());
+            Boss thisBoss = bossMap.get(bossKey);
+            if (thisBoss == null) {
+                bossMap.put(bossKey, otherBoss);
+                continue;
+            }
+            thisBoss.getAttacks().addAll(otherBoss.getAttacks());
+            for (Sideboss otherSideboss : otherBoss.getSideboss()) {
+                thisBoss.getOrAddSideboss(otherSideboss.getName()).getAttacks().addAll(otherSideboss.getAttacks());
+            }
+        }
+    }
+
+    /**
+     * @return the entries read so far
+     */
+    public RaidTable getRaidTable() {
+        return table;
+    }
+
+    public int getEntryCount() {
+        return table.size();
+    }
+
+    public Map<String, MemberContribution> getMemberContributions() {
+        aggregate();
+        return memberContributions;
+    }
+
+    /**
+     * @return all member contributions, sorted by total damage (sum of all contribution types) descending
+     */
+    public List<MemberContribution> getSortedContributions() {
+        aggregate();
+        List<MemberContribution> sortedContributions = new ArrayList<>(memberContributions.values());
+        sortedContributions.sort((a, b) -> Long.compare(b.getTotalDamage(), a.getTotalDamage()));
+        return sortedContributions;
+    }
+
+    /**
+     * @return damage of all members over all contribution types
+     */
+    public long getTotalDamage() {
+        aggregate();
+        long total = 0;
+        for (MemberContribution contribution : memberContributions.values()) {
+            total += contribution.getTotalDamage();
+        }
+        return total;
+    }
+
+    public SortedSet<Boss> getBosses() {
+        aggregate();
+        return new TreeSet<>(bossMap.values());
+    }
+}
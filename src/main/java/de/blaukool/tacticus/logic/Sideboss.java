@@ -1,13 +1,10 @@
 package de.blaukool.tacticus.logic;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 public class Sideboss {
     private String name;
-    private SortedSet<Attack> attacks = new TreeSet<>();
+    private final AttackTimeline attacks = new AttackTimeline();
 
     public Sideboss(String name) {
         this.name = name;
@@ -21,12 +18,16 @@ public class Sideboss {
         this.name = name;
     }
 
-    public SortedSet<Attack> getAttacks() {
+    /**
+     * @return all attacks in order of time, attacks are added to the returned timeline
+     */
+    public AttackTimeline getAttacks() {
         return attacks;
     }
 
-    public void setAttacks(SortedSet<Attack> attacks) {
-        this.attacks = attacks;
+    public void setAttacks(List<Attack> attacks) {
+        this.attacks.clear();
+        this.attacks.addAll(attacks);
     }
 
     @Override
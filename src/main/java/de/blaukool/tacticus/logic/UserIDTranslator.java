@@ -2,26 +2,56 @@ package de.blaukool.tacticus.logic;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
+/**
+ * Resolves user ids to names from {@code userMapping.properties} on the classpath and, optionally, an external
+ * mapping file in the same format whose entries take precedence. Lookups read an immutable snapshot of the
+ * mappings, so a {@link #reload()} never blocks them.
+ * <p>
+ * Use {@link #getInstance()} instead of creating translators per lookup. The shared instance reads the external
+ * file configured with {@code -Dtacticus.userMapping.file} and reloads it whenever the file changes.
+ */
 public class UserIDTranslator {
     private static final String USER_MAPPING_FILE = "/userMapping.properties";
-    private final Map<String, String> userIdToNameMap;
+    static final String USER_MAPPING_FILE_PROPERTY = "tacticus.userMapping.file";
+
+    private final Path mappingFile;
+    private volatile Map<String, String> userIdToNameMap;
 
     public UserIDTranslator() {
-        this.userIdToNameMap = loadUserMappings();
+        this(null);
+    }
+
+    /**
+     * @param mappingFile external mapping file overriding the classpath mappings; may be {@code null}
+     */
+    public UserIDTranslator(Path mappingFile) {
+        this.mappingFile = mappingFile;
+        this.userIdToNameMap = snapshot(loadUserMappings());
+    }
+
+    /**
+     * @return the translator shared by the whole process, watching the configured external mapping file
+     */
+    public static UserIDTranslator getInstance() {
+        return Shared.INSTANCE;
     }
 
     protected Map<String, String> loadUserMappings() {
         Map<String, String> mappings = new HashMap<>();
-        
+
         try (InputStream inputStream = getClass().getResourceAsStream(USER_MAPPING_FILE)) {
             if (inputStream != null) {
                 Properties properties = new Properties();
                 properties.load(inputStream);
-                
+
                 for (String key : properties.stringPropertyNames()) {
                     mappings.put(key, properties.getProperty(key));
                 }
@@ -31,10 +61,69 @@ public class UserIDTranslator {
         } catch (IOException e) {
             System.err.println("Error loading user mappings: " + e.getMessage());
         }
-        
+
+        if (mappingFile != null && Files.exists(mappingFile)) {
+            try (Reader reader = Files.newBufferedReader(mappingFile, StandardCharsets.UTF_8)) {
+                Properties properties = new Properties();
+                properties.load(reader);
+
+                for (String key : properties.stringPropertyNames()) {
+                    mappings.put(key, properties.getProperty(key));
+                }
+            } catch (IOException e) {
+                System.err.println("Error loading user mappings from " + mappingFile + ": " + e.getMessage());
+            }
+        }
+
         return mappings;
     }
 
+    /**
+     * Reads the mappings again and swaps them in at once.
+     */
+    public void reload() {
+        userIdToNameMap = snapshot(loadUserMappings());
+    }
+
+    /**
+     * Reloads the mappings whenever the external mapping file is created or modified, on a daemon thread.
+     * Does nothing if no external mapping file has been configured.
+     */
+    public void startWatching() throws IOException {
+        if (mappingFile == null) {
+            return;
+        }
+        Path directory = mappingFile.toAbsolutePath().getParent();
+        Path fileName = mappingFile.getFileName();
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watcher = new Thread(() -> {
+            try (watchService) {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= fileName.equals(event.context());
+                    }
+                    if (changed) {
+                        reload();
+                        System.out.println("Reloaded user mappings from " + mappingFile + ": " + getMappingsCount() + " entries");
+                    }
+                    if (!key.reset()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Watching ends with the process
+            } catch (IOException e) {
+                System.err.println("Error watching user mappings: " + e.getMessage());
+            }
+        }, "user-mapping-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
     public String getUserName(String userId) {
         return userIdToNameMap.getOrDefault(userId, "unknown");
     }
@@ -46,4 +135,23 @@ public class UserIDTranslator {
     public int getMappingsCount() {
         return userIdToNameMap.size();
     }
-}
\ No newline at end of file
+
+    private static Map<String, String> snapshot(Map<String, String> mappings) {
+        return mappings != null ? Collections.unmodifiableMap(new HashMap<>(mappings)) : null;
+    }
+
+    private static class Shared {
+        static final UserIDTranslator INSTANCE = create();
+
+        private static UserIDTranslator create() {
+            String file = System.getProperty(USER_MAPPING_FILE_PROPERTY);
+            UserIDTranslator translator = new UserIDTranslator(file != null ? Paths.get(file) : null);
+            try {
+                translator.startWatching();
+            } catch (IOException e) {
+                System.err.println("Error watching user mappings: " + e.getMessage());
+            }
+            return translator;
+        }
+    }
+}
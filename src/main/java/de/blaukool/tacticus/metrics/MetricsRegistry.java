@@ -0,0 +1,293 @@
+package de.blaukool.tacticus.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timers and counters of the phases of a run: fetch, parse, aggregation, sheet building, autosize and file write.
+ * Metrics are identified by a name and optional label pairs, e.g. {@code timer("tacticus_fetch", "endpoint",
+ * "guild")}, and are cheap enough to be recorded once per request, season or sheet.
+ * <p>
+ * Use {@link #getInstance()} so all parts of a run record into the same registry. {@link #report()} prints a
+ * summary table and writes the dumps configured with {@code -Dtacticus.metrics.json=<file>} and
+ * {@code -Dtacticus.metrics.prometheus=<file>}.
+ */
+public class MetricsRegistry {
+    static final String JSON_FILE_PROPERTY = "tacticus.metrics.json";
+    static final String PROMETHEUS_FILE_PROPERTY = "tacticus.metrics.prometheus";
+
+    public static final String FETCH = "tacticus_fetch";
+    public static final String FETCH_BYTES = "tacticus_fetch_bytes";
+    public static final String PARSE = "tacticus_parse";
+    public static final String PARSE_ENTRIES = "tacticus_parse_entries";
+    public static final String AGGREGATE = "tacticus_aggregate";
+    public static final String AGGREGATE_ROWS = "tacticus_aggregate_rows";
+    public static final String SHEET_BUILD = "tacticus_sheet_build";
+    public static final String SHEET_AUTOSIZE = "tacticus_sheet_autosize";
+    public static final String WORKBOOK_WRITE = "tacticus_workbook_write";
+
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @return the registry shared by the whole process
+     */
+    public static MetricsRegistry getInstance() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * @param labels label names and values, alternating
+     */
+    public Timer timer(String name, String... labels) {
+        return timers.computeIfAbsent(new Key(name, labels), key -> new Timer());
+    }
+
+    /**
+     * @param labels label names and values, alternating
+     */
+    public Counter counter(String name, String... labels) {
+        return counters.computeIfAbsent(new Key(name, labels), key -> new Counter());
+    }
+
+    public void clear() {
+        timers.clear();
+        counters.clear();
+    }
+
+    /**
+     * Prints the summary table and writes the configured dumps. Errors writing a dump are reported only.
+     */
+    public void report() {
+        printSummary(System.out);
+        String json = System.getProperty(JSON_FILE_PROPERTY);
+        String prometheus = System.getProperty(PROMETHEUS_FILE_PROPERTY);
+        try {
+            if (json != null) {
+                writeJson(Paths.get(json));
+                System.out.println("Metrics written to " + json);
+            }
+            if (prometheus != null) {
+                writePrometheus(Paths.get(prometheus));
+                System.out.println("Metrics written to " + prometheus);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing metrics: " + e.getMessage());
+        }
+    }
+
+    public void printSummary(PrintStream out) {
+        out.println("\n=== Metrics ===");
+        out.printf("%-26s %-40s %10s %12s %10s %10s%n", "Metric", "Labels", "Count", "Total ms", "Avg ms", "Max ms");
+        out.println("-".repeat(113));
+        for (Map.Entry<Key, Timer> entry : sorted(timers)) {
+            Timer timer = entry.getValue();
+            long count = timer.getCount();
+            out.printf("%-26s %-40s %10d %,12.1f %10.1f %10.1f%n", entry.getKey().name(), entry.getKey().labelText(),
+                    count, millis(timer.getTotalNanos()), count == 0 ? 0 : millis(timer.getTotalNanos()) / count,
+                    millis(timer.getMaxNanos()));
+        }
+        for (Map.Entry<Key, Counter> entry : sorted(counters)) {
+            out.printf("%-26s %-40s %,10d%n", entry.getKey().name(), entry.getKey().labelText(), entry.getValue().getValue());
+        }
+
+        long entries = counters.entrySet().stream().filter(e -> e.getKey().name().equals(PARSE_ENTRIES))
+                .mapToLong(e -> e.getValue().getValue()).sum();
+        long parseNanos = timers.entrySet().stream().filter(e -> e.getKey().name().equals(PARSE)
+                && e.getKey().labels().containsValue("guildRaid")).mapToLong(e -> e.getValue().getTotalNanos()).sum();
+        if (entries > 0 && parseNanos > 0) {
+            // The parse timers also cover seasons read from the season cache
+            out.printf("Parsed %,d raid entries at %,.0f entries/s (including season cache reads)%n", entries,
+                    entries / (parseNanos / 1e9));
+        }
+    }
+
+    public void writeJson(Path file) throws IOException {
+        List<Map<String, Object>> timerList = new ArrayList<>();
+        for (Map.Entry<Key, Timer> entry : sorted(timers)) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("name", entry.getKey().name());
+            values.put("labels", entry.getKey().labels());
+            values.put("count", entry.getValue().getCount());
+            values.put("totalMillis", millis(entry.getValue().getTotalNanos()));
+            values.put("maxMillis", millis(entry.getValue().getMaxNanos()));
+            timerList.add(values);
+        }
+        List<Map<String, Object>> counterList = new ArrayList<>();
+        for (Map.Entry<Key, Counter> entry : sorted(counters)) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("name", entry.getKey().name());
+            values.put("labels", entry.getKey().labels());
+            values.put("value", entry.getValue().getValue());
+            counterList.add(values);
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("timers", timerList);
+        document.put("counters", counterList);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text format. Timers become summaries in seconds, each followed by a
+     * {@code _seconds_max} gauge family, counters get the {@code _total} suffix.
+     */
+    public void writePrometheus(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writePrometheus(writer);
+        }
+    }
+
+    void writePrometheus(Writer writer) throws IOException {
+        Map<String, List<Map.Entry<Key, Timer>>> timersByName = new LinkedHashMap<>();
+        for (Map.Entry<Key, Timer> entry : sorted(timers)) {
+            timersByName.computeIfAbsent(entry.getKey().name() + "_seconds", k -> new ArrayList<>()).add(entry);
+        }
+        for (Map.Entry<String, List<Map.Entry<Key, Timer>>> family : timersByName.entrySet()) {
+            String name = family.getKey();
+            // A summary may only carry _count and _sum samples, the maximum is a family of its own
+            writer.write("# TYPE " + name + " summary\n");
+            for (Map.Entry<Key, Timer> entry : family.getValue()) {
+                String labels = entry.getKey().prometheusLabels();
+                writer.write(name + "_count" + labels + " " + entry.getValue().getCount() + "\n");
+                writer.write(name + "_sum" + labels + " " + entry.getValue().getTotalNanos() / 1e9 + "\n");
+            }
+            writer.write("# TYPE " + name + "_max gauge\n");
+            for (Map.Entry<Key, Timer> entry : family.getValue()) {
+                writer.write(name + "_max" + entry.getKey().prometheusLabels() + " " + entry.getValue().getMaxNanos() / 1e9 + "\n");
+            }
+        }
+        String type = null;
+        for (Map.Entry<Key, Counter> entry : sorted(counters)) {
+            String name = entry.getKey().name() + "_total";
+            if (!name.equals(type)) {
+                writer.write("# TYPE " + name + " counter\n");
+                type = name;
+            }
+            writer.write(name + entry.getKey().prometheusLabels() + " " + entry.getValue().getValue() + "\n");
+        }
+    }
+
+    private static <T> List<Map.Entry<Key, T>> sorted(Map<Key, T> metrics) {
+        List<Map.Entry<Key, T>> entries = new ArrayList<>(metrics.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+        return entries;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Number of calls, total and maximum duration of a phase.
+     */
+    public static class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * Records the time since {@code startNanos}, a value of {@link System#nanoTime()}.
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(getTotalNanos());
+        }
+    }
+
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public long getValue() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Name and labels of a metric. Labels are sorted by name, so the order they are given in does not matter.
+     */
+    private record Key(String name, SortedMap<String, String> labels) implements Comparable<Key> {
+
+        Key(String name, String... labels) {
+            this(name, toMap(labels));
+        }
+
+        private static SortedMap<String, String> toMap(String... labels) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("Labels must be given as name and value pairs");
+            }
+            SortedMap<String, String> map = new TreeMap<>();
+            for (int i = 0; i < labels.length; i += 2) {
+                map.put(labels[i], labels[i + 1]);
+            }
+            return Collections.unmodifiableSortedMap(map);
+        }
+
+        String labelText() {
+            StringJoiner text = new StringJoiner(",");
+            labels.forEach((label, value) -> text.add(label + "=" + value));
+            return text.toString();
+        }
+
+        String prometheusLabels() {
+            if (labels.isEmpty()) {
+                return "";
+            }
+            StringJoiner text = new StringJoiner(",", "{", "}");
+            labels.forEach((label, value) -> text.add(label + "=\"" + value.replace("\\", "\\\\")
+                    .replace("\"", "\\\"").replace("\n", "\\n") + "\""));
+            return text.toString();
+        }
+
+        @Override
+        public int compareTo(Key o) {
+            int byName = name.compareTo(o.name);
+            return byName != 0 ? byName : labelText().compareTo(o.labelText());
+        }
+    }
+
+    private static class Shared {
+        static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    }
+}
@@ -0,0 +1,466 @@
+package de.blaukool.tacticus.simulation;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.api.GuildResponse;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Generates synthetic guild and guild raid season responses for load and scale testing. The same seed and
+ * settings always produce the same data, and every season is generated on its own, so single seasons can be
+ * produced in any order.
+ * <p>
+ * A season is played as the game does: per tier and set the two sidebosses are fought before the boss, every
+ * attack lowers the remaining HP of the current encounter until it is defeated, and the next encounter starts
+ * with the following attack. Attacks are spread over the 14 days of a season around the preferred hour of each
+ * member, more active members attack more often, and about every seventh attack is a bomb.
+ * <p>
+ * Entries are written with a streaming {@link JsonGenerator} and only the attack times of one season are kept in
+ * memory, so large datasets can be written to disk or streamed to a consumer.
+ */
+public class GuildDataGenerator {
+    static final String SEED_PROPERTY = "tacticus.generator.seed";
+    static final String GUILD_FILE = "guild.json";
+    static final String SEASON_FILE_FORMAT = "guildRaid_%d.json";
+    static final String USER_MAPPING_FILE = "userMapping.properties";
+
+    /** Members are packed into 15 bits of an attack */
+    static final int MAX_MEMBERS = 0x7FFF;
+    static final long SEASON_MILLIS = 14L * 24 * 60 * 60 * 1000;
+    /** Start of season 0, so a season always covers the same two weeks */
+    private static final long SEASON_ZERO = Instant.parse("2021-06-07T00:00:00Z").toEpochMilli() - 50 * SEASON_MILLIS;
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+
+    private static final String[] RARITIES = {"Common", "Uncommon", "Rare", "Epic", "Legendary", "Mythic"};
+    private static final String[][] BOSSES = {
+            {"TervigonLeviathan", "TyranTervigonLeviathan", "TyranWingedPrime", "TyranNeurothrope"},
+            {"HiveTyrantGorgon", "TyranHiveTyrantGorgon", "TyranLictor", "TyranZoanthrope"},
+            {"ScreamerKiller", "TyranScreamerKiller", "TyranRipperSwarm", "TyranTermagant"},
+            {"Magnus", "TsonsMagnus", "TsonsRubricMarine", "TsonsScarabOccult"},
+            {"Ghazghkull", "OrksGhazghkull", "OrksNob", "OrksWarboss"},
+            {"Belisarius", "AdmecBelisarius", "AdmecManipulus", "AdmecRuststalker"},
+            {"RogalDorn", "AstraRogalDorn", "AstraCommissar", "AstraCastellan"},
+            {"SzarekhSilentKing", "NecroSzarekh", "NecroDestroyer", "NecroOverlord"}};
+    private static final String[] HEROES = {"UltraCalgar", "UltraTitus", "BloodMephiston", "DarkaAzrael",
+            "SpaceBlackmane", "ImperAbaddon", "NecroImotekh", "OrksGhazghkull", "TyranParasite", "AdeptCelestine",
+            "AstraYarrick", "EldarAunshi", "TauAunshi", "GenesPatriarch", "DeathMortarion", "ThousAhriman"};
+    private static final String[] MACHINES_OF_WAR = {"UltraBiovore", "AstraManticore", "OrksDeffDread", "TauRazorshark"};
+
+    private final long seed;
+    private final int entriesPerSeason;
+    private final String guildName;
+    private final List<Member> members;
+    private final double[] cumulativeActivity;
+
+    /**
+     * @param seed             seed of all random values
+     * @param memberCount      number of guild members
+     * @param entriesPerSeason number of entries, battles and bombs, in every season
+     */
+    public GuildDataGenerator(long seed, int memberCount, int entriesPerSeason) {
+        if (memberCount <= 0 || memberCount > MAX_MEMBERS || entriesPerSeason < 0) {
+            throw new IllegalArgumentException("Need 1 to " + MAX_MEMBERS + " members and no negative number of entries");
+        }
+        this.seed = seed;
+        this.entriesPerSeason = entriesPerSeason;
+
+        Random random = new Random(seed);
+        this.guildName = "Synthetic Guild " + Long.toHexString(seed);
+        this.members = new ArrayList<>(memberCount);
+        this.cumulativeActivity = new double[memberCount];
+        double activity = 0;
+        for (int i = 0; i < memberCount; i++) {
+            Member member = new Member(random, i);
+            members.add(member);
+            activity += member.activity;
+            cumulativeActivity[i] = activity;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: GuildDataGenerator <directory> <members> <first season> <last season> [entries per season]");
+            return;
+        }
+        try {
+            Path directory = Paths.get(args[0]);
+            int memberCount = Integer.parseInt(args[1]);
+            int firstSeason = Integer.parseInt(args[2]);
+            int lastSeason = Integer.parseInt(args[3]);
+            int entries = args.length > 4 ? Integer.parseInt(args[4]) : memberCount * 120;
+            long seed = Long.getLong(SEED_PROPERTY, 1L);
+
+            GuildDataGenerator generator = new GuildDataGenerator(seed, memberCount, entries);
+            generator.writeTo(directory, firstSeason, lastSeason);
+            System.out.println("Generated " + (lastSeason - firstSeason + 1) + " seasons with " + entries
+                    + " entries each in " + directory.toAbsolutePath());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error writing generated data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the guild, every season from {@code firstSeason} to {@code lastSeason} and a user mapping file with
+     * the member names to {@code directory}.
+     */
+    public void writeTo(Path directory, int firstSeason, int lastSeason) throws IOException {
+        Files.createDirectories(directory);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(directory.resolve(GUILD_FILE)))) {
+            writeGuild(out, firstSeason, lastSeason);
+        }
+        for (int season = firstSeason; season <= lastSeason; season++) {
+            Path file = directory.resolve(String.format(SEASON_FILE_FORMAT, season));
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                writeSeason(out, season);
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(USER_MAPPING_FILE), StandardCharsets.UTF_8)) {
+            getMemberNames().store(writer, "Names of the generated members");
+        }
+    }
+
+    /**
+     * Writes a guild response whose guild lists the seasons from {@code firstSeason} to {@code lastSeason}.
+     */
+    public void writeGuild(OutputStream out, int firstSeason, int lastSeason) throws IOException {
+        GuildResponse.Guild guild = createGuild(firstSeason, lastSeason);
+        try (JsonGenerator json = createGenerator(out)) {
+            json.writeStartObject();
+            json.writeObjectFieldStart("guild");
+            json.writeStringField("guildId", guild.getGuildId());
+            json.writeStringField("guildTag", guild.getGuildTag());
+            json.writeStringField("name", guild.getName());
+            json.writeNumberField("level", guild.getLevel());
+            json.writeArrayFieldStart("members");
+            for (GuildResponse.GuildMember member : guild.getMembers()) {
+                json.writeStartObject();
+                json.writeStringField("userId", member.getUserId());
+                json.writeStringField("role", member.getRole());
+                json.writeNumberField("level", member.getLevel());
+                json.writeStringField("lastActivityOn", formatDate(member.getLastActivityOn().getTime()));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("guildRaidSeasons");
+            for (Integer season : guild.getGuildRaidSeasons()) {
+                json.writeNumber(season);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes a guild raid response of {@code season}, streaming the entries as they are generated.
+     */
+    public void writeSeason(OutputStream out, int season) throws IOException {
+        try (JsonGenerator json = createGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("season", season);
+            json.writeStringField("seasonConfigId", seasonConfigId(season));
+            json.writeArrayFieldStart("entries");
+            try {
+                generateSeason(season, raid -> {
+                    try {
+                        writeRaid(json, raid);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    public GuildResponse.Guild createGuild(int firstSeason, int lastSeason) {
+        GuildResponse.Guild guild = new GuildResponse.Guild();
+        guild.setGuildId(new UUID(seed, 0).toString());
+        guild.setGuildTag("SYN" + Math.floorMod(seed, 1000));
+        guild.setName(guildName);
+        guild.setLevel(Math.min(50, 10 + members.size() / 2));
+
+        long lastActivity = seasonStart(lastSeason + 1);
+        List<GuildResponse.GuildMember> guildMembers = new ArrayList<>(members.size());
+        for (Member member : members) {
+            GuildResponse.GuildMember guildMember = new GuildResponse.GuildMember();
+            guildMember.setUserId(member.userId);
+            guildMember.setRole(member.role);
+            guildMember.setLevel(member.level);
+            guildMember.setLastActivityOn(new Date(lastActivity - (long) ((1 - member.activity) * 72 * HOUR_MILLIS)));
+            guildMembers.add(guildMember);
+        }
+        guild.setMembers(guildMembers);
+
+        List<Integer> seasons = new ArrayList<>();
+        for (int season = firstSeason; season <= lastSeason; season++) {
+            seasons.add(season);
+        }
+        guild.setGuildRaidSeasons(seasons);
+        return guild;
+    }
+
+    /**
+     * Generates the entries of {@code season} in the order they were played and passes them to {@code consumer}.
+     */
+    public void generateSeason(int season, Consumer<GuildRaidResponse.Raid> consumer) {
+        Random random = new Random(seed * 31 + season);
+        long start = seasonStart(season);
+        String configHash = seasonConfigId(season);
+
+        // Attack time, member and bomb flag packed into one long, so sorting a season needs no objects
+        long[] attacks = new long[entriesPerSeason];
+        for (int i = 0; i < attacks.length; i++) {
+            int memberIndex = pickMember(random);
+            Member member = members.get(memberIndex);
+            long day = random.nextInt(14);
+            double hour = member.peakHour + random.nextGaussian() * 2.5;
+            long offset = day * 24 * HOUR_MILLIS + (long) (hour * HOUR_MILLIS) + random.nextInt(60 * 60 * 1000);
+            offset = Math.floorMod(offset, SEASON_MILLIS);
+            boolean bomb = random.nextInt(7) == 0;
+            attacks[i] = offset << 16 | (long) memberIndex << 1 | (bomb ? 1 : 0);
+        }
+        Arrays.sort(attacks);
+
+        Encounter encounter = new Encounter(season);
+        for (long attack : attacks) {
+            Member member = members.get((int) (attack >>> 1 & 0x7FFF));
+            boolean bomb = (attack & 1) == 1;
+            long startedOn = start + (attack >>> 16);
+
+            GuildRaidResponse.Raid raid = new GuildRaidResponse.Raid();
+            raid.setUserId(member.userId);
+            raid.setTier(encounter.tier);
+            raid.setSet(encounter.set);
+            raid.setEncounterIndex(encounter.index);
+            raid.setMaxHp(encounter.maxHp);
+            raid.setEncounterType(encounter.index == 0 ? "Boss" : "SideBoss");
+            raid.setUnitId(encounter.unitId());
+            raid.setType(encounter.boss()[0]);
+            raid.setRarity(RARITIES[Math.min(encounter.tier, RARITIES.length - 1)]);
+            raid.setDamageType(bomb ? "Bomb" : "Battle");
+
+            int damage = bomb ? member.bombDamage(encounter.tier, random) : member.battleDamage(encounter.tier, random);
+            damage = Math.min(damage, encounter.remainingHp);
+            raid.setDamageDealt(damage);
+            raid.setRemainingHp(encounter.remainingHp - damage);
+            raid.setStartedOn(new Date(startedOn));
+            raid.setCompletedOn(new Date(startedOn + (bomb ? 2_000 : 30_000 + random.nextInt(150_000))));
+            raid.setGlobalConfigHash(configHash);
+            if (!bomb) {
+                raid.setHeroDetails(member.team(random));
+                if (random.nextBoolean()) {
+                    raid.setMachineOfWarDetails(member.machineOfWar());
+                }
+            }
+            consumer.accept(raid);
+
+            encounter.hit(damage);
+        }
+    }
+
+    /**
+     * @return the name of every member by user id, in the format of {@code userMapping.properties}
+     */
+    public Properties getMemberNames() {
+        Properties names = new Properties();
+        for (Member member : members) {
+            names.setProperty(member.userId, member.name);
+        }
+        return names;
+    }
+
+    public int getEntriesPerSeason() {
+        return entriesPerSeason;
+    }
+
+    static long seasonStart(int season) {
+        return SEASON_ZERO + season * SEASON_MILLIS;
+    }
+
+    private static String seasonConfigId(int season) {
+        return "synthetic-season-" + season;
+    }
+
+    private int pickMember(Random random) {
+        double value = random.nextDouble() * cumulativeActivity[cumulativeActivity.length - 1];
+        int index = Arrays.binarySearch(cumulativeActivity, value);
+        return Math.min(index < 0 ? -index - 1 : index, cumulativeActivity.length - 1);
+    }
+
+    private static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        // The caller owns the stream
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return json;
+    }
+
+    private static void writeRaid(JsonGenerator json, GuildRaidResponse.Raid raid) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("userId", raid.getUserId());
+        json.writeNumberField("tier", raid.getTier());
+        json.writeNumberField("set", raid.getSet());
+        json.writeNumberField("encounterIndex", raid.getEncounterIndex());
+        json.writeNumberField("remainingHp", raid.getRemainingHp());
+        json.writeNumberField("maxHp", raid.getMaxHp());
+        json.writeStringField("encounterType", raid.getEncounterType());
+        json.writeStringField("unitId", raid.getUnitId());
+        json.writeStringField("type", raid.getType());
+        json.writeStringField("rarity", raid.getRarity());
+        json.writeNumberField("damageDealt", raid.getDamageDealt());
+        json.writeStringField("damageType", raid.getDamageType());
+        json.writeStringField("startedOn", formatDate(raid.getStartedOn().getTime()));
+        json.writeStringField("completedOn", formatDate(raid.getCompletedOn().getTime()));
+        json.writeArrayFieldStart("heroDetails");
+        if (raid.getHeroDetails() != null) {
+            for (GuildRaidResponse.PublicHeroDetail hero : raid.getHeroDetails()) {
+                writeHero(json, hero);
+            }
+        }
+        json.writeEndArray();
+        if (raid.getMachineOfWarDetails() != null) {
+            json.writeFieldName("machineOfWarDetails");
+            writeHero(json, raid.getMachineOfWarDetails());
+        }
+        json.writeStringField("globalConfigHash", raid.getGlobalConfigHash());
+        json.writeEndObject();
+    }
+
+    private static void writeHero(JsonGenerator json, GuildRaidResponse.PublicHeroDetail hero) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("unitId", hero.getUnitId());
+        json.writeNumberField("power", hero.getPower());
+        json.writeEndObject();
+    }
+
+    private static String formatDate(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).toString();
+    }
+
+    /**
+     * A generated guild member. Activity weights how many attacks of a season the member makes.
+     */
+    private static class Member {
+        private final String userId;
+        private final String name;
+        private final String role;
+        private final int level;
+        private final double activity;
+        private final double peakHour;
+        private final String[] roster;
+        private final int machineOfWar;
+
+        Member(Random random, int index) {
+            this.userId = new UUID(random.nextLong(), random.nextLong()).toString();
+            this.name = "Member" + (index + 1);
+            this.role = index == 0 ? "LEADER" : index < 3 ? "CO_LEADER" : index < 6 ? "OFFICER" : "MEMBER";
+            this.level = 10 + random.nextInt(41);
+            this.activity = 0.2 + random.nextDouble() * 0.8;
+            this.peakHour = random.nextInt(24);
+
+            List<String> heroes = new ArrayList<>(Arrays.asList(HEROES));
+            Collections.shuffle(heroes, random);
+            this.roster = heroes.subList(0, 8).toArray(new String[0]);
+            this.machineOfWar = random.nextInt(MACHINES_OF_WAR.length);
+        }
+
+        int battleDamage(int tier, Random random) {
+            double base = (20_000 + level * 4_000) * (1 + tier * 0.35);
+            return (int) Math.max(1, base * (0.4 + random.nextDouble() * 1.2));
+        }
+
+        int bombDamage(int tier, Random random) {
+            return (int) ((8_000 + level * 800) * (1 + tier * 0.2) * (0.9 + random.nextDouble() * 0.2));
+        }
+
+        List<GuildRaidResponse.PublicHeroDetail> team(Random random) {
+            List<GuildRaidResponse.PublicHeroDetail> team = new ArrayList<>(5);
+            int first = random.nextInt(roster.length);
+            for (int i = 0; i < 5; i++) {
+                GuildRaidResponse.PublicHeroDetail hero = new GuildRaidResponse.PublicHeroDetail();
+                hero.setUnitId(roster[(first + i) % roster.length]);
+                hero.setPower(level * 900 + random.nextInt(5_000));
+                team.add(hero);
+            }
+            return team;
+        }
+
+        GuildRaidResponse.PublicHeroDetail machineOfWar() {
+            GuildRaidResponse.PublicHeroDetail machine = new GuildRaidResponse.PublicHeroDetail();
+            machine.setUnitId(MACHINES_OF_WAR[machineOfWar]);
+            machine.setPower(level * 1_200);
+            return machine;
+        }
+    }
+
+    /**
+     * The encounter currently fought. Every tier and set starts with its two sidebosses, then the boss.
+     */
+    private static class Encounter {
+        private final int bossOffset;
+        private int tier;
+        private int set;
+        private int index = 1;
+        private int maxHp;
+        private int remainingHp;
+
+        Encounter(int season) {
+            this.bossOffset = Math.floorMod(season, BOSSES.length);
+            start();
+        }
+
+        String[] boss() {
+            return BOSSES[(bossOffset + set) % BOSSES.length];
+        }
+
+        String unitId() {
+            String[] boss = boss();
+            return index == 0 ? "GuildBoss" + (set + 1) + "Boss1" + boss[1] : "GuildBoss" + (set + 1) + "MiniBoss" + index + boss[1 + index];
+        }
+
+        void hit(int damage) {
+            remainingHp -= damage;
+            if (remainingHp > 0) {
+                return;
+            }
+            if (index == 1) {
+                index = 2;
+            } else if (index == 2) {
+                index = 0;
+            } else {
+                index = 1;
+                if (++set == 5) {
+                    set = 0;
+                    tier++;
+                }
+            }
+            start();
+        }
+
+        private void start() {
+            long hp = 1_500_000L * (tier + 1) * (tier + 1) * (4 + set) / 4;
+            if (index != 0) {
+                hp /= 4;
+            }
+            maxHp = (int) Math.min(hp, Integer.MAX_VALUE);
+            remainingHp = maxHp;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package de.blaukool.tacticus.simulation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local stand-in for the Tacticus API, for end-to-end tests without the live service. Serves
+ * {@code /api/v1/guild}, {@code /api/v1/guildRaid} (the latest season) and {@code /api/v1/guildRaid/{season}}
+ * from a directory written by {@link GuildDataGenerator#writeTo} or straight from a generator, and answers
+ * errors with the status codes and bodies of the real API.
+ * <p>
+ * {@link Faults} add latency, random 403/404/500 responses and throttling with {@code 429}, so concurrency,
+ * retries and caching of the client can be load-tested. Point the tools at the server with
+ * {@code -Dtacticus.api.baseUrl=http://127.0.0.1:<port>}.
+ */
+public class LocalApiServer implements Closeable {
+    static final String GUILD_PATH = "/api/v1/guild";
+    static final String GUILD_RAID_PATH = "/api/v1/guildRaid";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Source source;
+    private final Faults faults;
+    private final TokenBucket throttle;
+    private final LongAdder requests = new LongAdder();
+    private final Map<Integer, LongAdder> responses = new ConcurrentHashMap<>();
+
+    /**
+     * Serves the files of {@code directory}, see {@link GuildDataGenerator#writeTo}.
+     *
+     * @param port port to listen on, 0 picks a free port
+     */
+    public static LocalApiServer serveDirectory(int port, Path directory, Faults faults) throws IOException {
+        return new LocalApiServer(port, new DirectorySource(directory), faults);
+    }
+
+    /**
+     * Serves the seasons from {@code firstSeason} to {@code lastSeason} of {@code generator}, generating every
+     * response while it is sent.
+     *
+     * @param port port to listen on, 0 picks a free port
+     */
+    public static LocalApiServer serveGenerated(int port, GuildDataGenerator generator, int firstSeason, int lastSeason,
+                                                Faults faults) throws IOException {
+        return new LocalApiServer(port, new GeneratorSource(generator, firstSeason, lastSeason), faults);
+    }
+
+    private LocalApiServer(int port, Source source, Faults faults) throws IOException {
+        this.source = source;
+        this.faults = faults;
+        this.throttle = faults.requestsPerSecond() > 0 ? new TokenBucket(faults.requestsPerSecond()) : null;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "tacticus-stub-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: LocalApiServer <port> [directory written by GuildDataGenerator]");
+            return;
+        }
+        try {
+            int port = Integer.parseInt(args[0]);
+            Faults faults = Faults.fromSystemProperties();
+            LocalApiServer server;
+            if (args.length > 1) {
+                server = serveDirectory(port, Paths.get(args[1]), faults);
+            } else {
+                GuildDataGenerator generator = new GuildDataGenerator(Long.getLong(GuildDataGenerator.SEED_PROPERTY, 1L), 30, 3_600);
+                server = serveGenerated(port, generator, 70, 80, faults);
+            }
+            System.out.println("Tacticus API stand-in listening on " + server.getBaseUrl() + " with " + faults);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            Thread.currentThread().join();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port: " + args[0]);
+        } catch (IOException e) {
+            System.err.println("Error starting server: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of requests received, including rejected ones
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return the number of responses sent with {@code statusCode}
+     */
+    public long getResponseCount(int statusCode) {
+        LongAdder count = responses.get(statusCode);
+        return count != null ? count.sum() : 0;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            delay();
+            String apiKey = exchange.getRequestHeaders().getFirst("X-API-KEY");
+            if (apiKey == null || apiKey.isBlank()) {
+                sendError(exchange, 403, "FORBIDDEN");
+                return;
+            }
+            if (throttle != null && !throttle.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 429, "THROTTLED");
+                return;
+            }
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < faults.forbiddenRate()) {
+                sendError(exchange, 403, "FORBIDDEN");
+                return;
+            }
+            roll -= faults.forbiddenRate();
+            if (roll < faults.notFoundRate()) {
+                sendError(exchange, 404, "NOT_FOUND");
+                return;
+            }
+            roll -= faults.notFoundRate();
+            if (roll < faults.errorRate()) {
+                sendError(exchange, 500, "UNKNOWN_ERROR");
+                return;
+            }
+            route(exchange);
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "METHOD_NOT_ALLOWED");
+        } else if (path.equals(GUILD_PATH)) {
+            sendJson(exchange, source::writeGuild);
+        } else if (path.equals(GUILD_RAID_PATH) || path.equals(GUILD_RAID_PATH + "/")) {
+            int season = source.latestSeason();
+            if (season < 0) {
+                sendError(exchange, 404, "NOT_FOUND");
+                return;
+            }
+            sendJson(exchange, out -> source.writeSeason(out, season));
+        } else if (path.startsWith(GUILD_RAID_PATH + "/")) {
+            int season;
+            try {
+                season = Integer.parseInt(path.substring(GUILD_RAID_PATH.length() + 1));
+            } catch (NumberFormatException e) {
+                sendError(exchange, 404, "NOT_FOUND");
+                return;
+            }
+            if (!source.hasSeason(season)) {
+                sendError(exchange, 404, "NOT_FOUND");
+                return;
+            }
+            sendJson(exchange, out -> source.writeSeason(out, season));
+        } else {
+            sendError(exchange, 404, "NOT_FOUND");
+        }
+    }
+
+    private void delay() throws InterruptedIOException {
+        long millis = faults.latencyMillis();
+        if (faults.latencyJitterMillis() > 0) {
+            millis += ThreadLocalRandom.current().nextLong(faults.latencyJitterMillis() + 1);
+        }
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while delaying response");
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, Body body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        // Chunked, so large seasons are streamed as they are read or generated
+        exchange.sendResponseHeaders(200, 0);
+        count(200);
+        try (OutputStream out = exchange.getResponseBody()) {
+            body.write(out);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int statusCode, String type) throws IOException {
+        byte[] body = ("{\"type\":\"" + type + "\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        count(statusCode);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void count(int statusCode) {
+        responses.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Faults injected into every request. Rates are probabilities between 0 and 1 and are drawn independently
+     * per request; throttled requests are answered with {@code 429} and {@code Retry-After: 1}.
+     *
+     * @param latencyMillis       delay before every response
+     * @param latencyJitterMillis upper bound of a random delay added to {@code latencyMillis}
+     * @param requestsPerSecond   accepted request rate before throttling, zero or less disables throttling
+     */
+    public record Faults(long latencyMillis, long latencyJitterMillis, double forbiddenRate, double notFoundRate,
+                         double errorRate, double requestsPerSecond) {
+        public static final Faults NONE = new Faults(0, 0, 0, 0, 0, 0);
+
+        /**
+         * Reads the faults from {@code -Dtacticus.stub.*} system properties, by default none are injected.
+         */
+        public static Faults fromSystemProperties() {
+            return new Faults(
+                    Long.getLong("tacticus.stub.latencyMillis", 0L),
+                    Long.getLong("tacticus.stub.latencyJitterMillis", 0L),
+                    Double.parseDouble(System.getProperty("tacticus.stub.forbiddenRate", "0")),
+                    Double.parseDouble(System.getProperty("tacticus.stub.notFoundRate", "0")),
+                    Double.parseDouble(System.getProperty("tacticus.stub.errorRate", "0")),
+                    Double.parseDouble(System.getProperty("tacticus.stub.requestsPerSecond", "0")));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private interface Source {
+        void writeGuild(OutputStream out) throws IOException;
+
+        void writeSeason(OutputStream out, int season) throws IOException;
+
+        boolean hasSeason(int season);
+
+        /**
+         * @return the latest season, or -1 if there is none
+         */
+        int latestSeason() throws IOException;
+    }
+
+    private static class DirectorySource implements Source {
+        private static final Pattern SEASON_FILE = Pattern.compile("guildRaid_(\\d+)\\.json");
+
+        private final Path directory;
+
+        DirectorySource(Path directory) throws IOException {
+            if (!Files.isRegularFile(directory.resolve(GuildDataGenerator.GUILD_FILE))) {
+                throw new IOException("No " + GuildDataGenerator.GUILD_FILE + " in " + directory);
+            }
+            this.directory = directory;
+        }
+
+        @Override
+        public void writeGuild(OutputStream out) throws IOException {
+            Files.copy(directory.resolve(GuildDataGenerator.GUILD_FILE), out);
+        }
+
+        @Override
+        public void writeSeason(OutputStream out, int season) throws IOException {
+            Files.copy(seasonFile(season), out);
+        }
+
+        @Override
+        public boolean hasSeason(int season) {
+            return Files.isRegularFile(seasonFile(season));
+        }
+
+        @Override
+        public int latestSeason() throws IOException {
+            int latest = -1;
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Matcher matcher = SEASON_FILE.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        latest = Math.max(latest, Integer.parseInt(matcher.group(1)));
+                    }
+                }
+            }
+            return latest;
+        }
+
+        private Path seasonFile(int season) {
+            return directory.resolve(String.format(GuildDataGenerator.SEASON_FILE_FORMAT, season));
+        }
+    }
+
+    private static class GeneratorSource implements Source {
+        private final GuildDataGenerator generator;
+        private final int firstSeason;
+        private final int lastSeason;
+
+        GeneratorSource(GuildDataGenerator generator, int firstSeason, int lastSeason) {
+            this.generator = generator;
+            this.firstSeason = firstSeason;
+            this.lastSeason = lastSeason;
+        }
+
+        @Override
+        public void writeGuild(OutputStream out) throws IOException {
+            generator.writeGuild(out, firstSeason, lastSeason);
+        }
+
+        @Override
+        public void writeSeason(OutputStream out, int season) throws IOException {
+            generator.writeSeason(out, season);
+        }
+
+        @Override
+        public boolean hasSeason(int season) {
+            return season >= firstSeason && season <= lastSeason;
+        }
+
+        @Override
+        public int latestSeason() {
+            return lastSeason;
+        }
+    }
+
+    /**
+     * Accepts {@code rate} requests per second with a burst of one second.
+     */
+    private static class TokenBucket {
+        private final double rate;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(double rate) {
+            this.rate = rate;
+            this.tokens = Math.max(1, rate);
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(Math.max(1, rate), tokens + (now - lastRefill) / 1e9 * rate);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
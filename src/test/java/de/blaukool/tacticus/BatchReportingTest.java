@@ -0,0 +1,79 @@
+package de.blaukool.tacticus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchReportingTest {
+
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() {
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(outputStream));
+        System.setErr(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    public void testMain_NoKeysFile() {
+        BatchReporting.main(new String[]{});
+
+        assertTrue(outputStream.toString().contains("Please provide a file with one API key per line as an argument"));
+    }
+
+    @Test
+    public void testMain_MissingKeysFile() {
+        BatchReporting.main(new String[]{tempDir.resolve("missing.txt").toString()});
+
+        assertTrue(outputStream.toString().contains("Error reading API keys"));
+    }
+
+    @Test
+    public void testMain_EmptyKeysFile() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("keys.txt"), "# no keys yet\n\n");
+
+        BatchReporting.main(new String[]{file.toString()});
+
+        assertTrue(outputStream.toString().contains("No API keys found"));
+    }
+
+    @Test
+    public void testReadKeys() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("keys.txt"),
+                "# alliance keys\n"
+                        + "key-1, First Guild\n"
+                        + "\n"
+                        + "  key-2  \n"
+                        + "key-3,\n");
+
+        List<BatchReporting.GuildKey> keys = BatchReporting.readKeys(file);
+
+        assertEquals(3, keys.size());
+        assertEquals(new BatchReporting.GuildKey("key-1", "First Guild"), keys.get(0));
+        assertEquals(new BatchReporting.GuildKey("key-2", "Key 2"), keys.get(1));
+        assertEquals(new BatchReporting.GuildKey("key-3", "Key 3"), keys.get(2));
+    }
+}
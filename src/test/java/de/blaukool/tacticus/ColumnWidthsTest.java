@@ -0,0 +1,66 @@
+package de.blaukool.tacticus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnWidthsTest {
+
+    @Test
+    public void testWidestValueWins() {
+        ColumnWidths widths = new ColumnWidths();
+        widths.track(0, "Short", false);
+        widths.track(0, "A much longer name", false);
+        widths.track(0, "Mid length", false);
+
+        assertEquals((18 + 1) * 256, widths.getWidth(0));
+    }
+
+    @Test
+    public void testBoldTextIsWider() {
+        ColumnWidths widths = new ColumnWidths();
+        widths.track(0, "Sideb. Battle", true);
+        widths.track(1, "Sideb. Battle", false);
+
+        assertTrue(widths.getWidth(0) > widths.getWidth(1));
+    }
+
+    @Test
+    public void testUntrackedColumns() {
+        ColumnWidths widths = new ColumnWidths();
+        widths.track(0, "Player", false);
+        widths.track(40, "42", false);
+
+        assertEquals(41, widths.getColumnCount());
+        assertEquals(-1, widths.getWidth(1));
+        assertEquals(-1, widths.getWidth(100));
+        assertEquals((2 + 1) * 256, widths.getWidth(40));
+    }
+
+    @Test
+    public void testEmptyValuesAreNotTracked() {
+        ColumnWidths widths = new ColumnWidths();
+        widths.track(0, "", false);
+
+        assertEquals(-1, widths.getWidth(0));
+    }
+
+    @Test
+    public void testNullValuesAreNotTracked() {
+        ColumnWidths widths = new ColumnWidths();
+        widths.track(0, null, true);
+        widths.track(1, null, false);
+        widths.track(1, "Name", false);
+
+        assertEquals(-1, widths.getWidth(0));
+        assertEquals((4 + 1) * 256, widths.getWidth(1));
+    }
+
+    @Test
+    public void testWidthIsCapped() {
+        ColumnWidths widths = new ColumnWidths();
+        widths.track(0, "x".repeat(1000), false);
+
+        assertEquals(255 * 256, widths.getWidth(0));
+    }
+}
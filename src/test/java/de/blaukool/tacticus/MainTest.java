@@ -250,12 +250,12 @@ public class MainTest {
         assertEquals("TestUser", contribution.getName());
         assertEquals("MEMBER", contribution.getRole());
         assertEquals(Integer.valueOf(75), contribution.getLevel());
-        assertEquals(Integer.valueOf(0), contribution.getBossBattle());
-        assertEquals(Integer.valueOf(0), contribution.getSidebossBattle());
-        assertEquals(Integer.valueOf(0), contribution.getBossBomb());
-        assertEquals(Integer.valueOf(0), contribution.getSidebossBomb());
-        assertEquals(Integer.valueOf(0), contribution.getBattleCount());
-        assertEquals(Integer.valueOf(0), contribution.getBombCount());
+        assertEquals(0, contribution.getBossBattle());
+        assertEquals(0, contribution.getSidebossBattle());
+        assertEquals(0, contribution.getBossBomb());
+        assertEquals(0, contribution.getSidebossBomb());
+        assertEquals(0, contribution.getBattleCount());
+        assertEquals(0, contribution.getBombCount());
     }
 
     @Test
@@ -310,15 +310,15 @@ public class MainTest {
         assertEquals("TestPlayer", contribution.getName());
         assertEquals("OFFICER", contribution.getRole());
         assertEquals(Integer.valueOf(60), contribution.getLevel());
-        assertEquals(Integer.valueOf(1000), contribution.getBossBattle());
-        assertEquals(Integer.valueOf(1500), contribution.getBossBomb());
-        assertEquals(Integer.valueOf(800), contribution.getSidebossBattle());
-        assertEquals(Integer.valueOf(1200), contribution.getSidebossBomb());
-        assertEquals(Integer.valueOf(2), contribution.getBattleCount()); // Boss + SideBoss battles
-        assertEquals(Integer.valueOf(2), contribution.getBombCount());   // Boss + SideBoss bombs
+        assertEquals(1000, contribution.getBossBattle());
+        assertEquals(1500, contribution.getBossBomb());
+        assertEquals(800, contribution.getSidebossBattle());
+        assertEquals(1200, contribution.getSidebossBomb());
+        assertEquals(2, contribution.getBattleCount()); // Boss + SideBoss battles
+        assertEquals(2, contribution.getBombCount());   // Boss + SideBoss bombs
         
         // Verify total damage calculation
-        int totalDamage = contribution.getBossBattle() + contribution.getBossBomb() + 
+        long totalDamage = contribution.getBossBattle() + contribution.getBossBomb() + 
                          contribution.getSidebossBattle() + contribution.getSidebossBomb();
         assertEquals(4500, totalDamage);
     }
@@ -609,8 +609,8 @@ public class MainTest {
         // Verify discharged player contribution was recorded
         assertEquals("Discharged", contribution.getRole());
         assertEquals("unknown", contribution.getName());
-        assertEquals(Integer.valueOf(2000), contribution.getBossBattle());
-        assertEquals(Integer.valueOf(1), contribution.getBattleCount());
+        assertEquals(2000, contribution.getBossBattle());
+        assertEquals(1, contribution.getBattleCount());
     }
 
     @Test
@@ -661,15 +661,15 @@ public class MainTest {
         de.blaukool.tacticus.logic.MemberContribution activeMember = memberContributions.get("active-player-id");
         assertEquals("ActivePlayer", activeMember.getName());
         assertEquals("OFFICER", activeMember.getRole());
-        assertEquals(Integer.valueOf(1000), activeMember.getBossBattle());
-        assertEquals(Integer.valueOf(1), activeMember.getBattleCount());
+        assertEquals(1000, activeMember.getBossBattle());
+        assertEquals(1, activeMember.getBattleCount());
         
         // Verify discharged player
         de.blaukool.tacticus.logic.MemberContribution dischargedMember = memberContributions.get("discharged-player-id");
         assertEquals("unknown", dischargedMember.getName());
         assertEquals("Discharged", dischargedMember.getRole());
-        assertEquals(Integer.valueOf(1500), dischargedMember.getBossBomb());
-        assertEquals(Integer.valueOf(1), dischargedMember.getBombCount());
+        assertEquals(1500, dischargedMember.getBossBomb());
+        assertEquals(1, dischargedMember.getBombCount());
     }
 
     @Test
@@ -1,6 +1,7 @@
 package de.blaukool.tacticus;
 
 import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.Role;
 import org.apache.http.HttpEntity;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -15,6 +16,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -84,23 +86,6 @@ public class OfftimeCheckerTest {
         });
     }
 
-    @Test
-    public void testGetRolePriority() throws Exception {
-        // Use reflection to test the private getRolePriority method
-        Method getRolePriorityMethod = OfftimeChecker.class.getDeclaredMethod("getRolePriority", String.class);
-        getRolePriorityMethod.setAccessible(true);
-        
-        // Test role priorities
-        assertEquals(0, getRolePriorityMethod.invoke(null, "LEADER"));
-        assertEquals(0, getRolePriorityMethod.invoke(null, "leader")); // Case insensitive
-        assertEquals(1, getRolePriorityMethod.invoke(null, "CO_LEADER"));
-        assertEquals(2, getRolePriorityMethod.invoke(null, "OFFICER"));
-        assertEquals(3, getRolePriorityMethod.invoke(null, "MEMBER"));
-        assertEquals(4, getRolePriorityMethod.invoke(null, "UNKNOWN_ROLE"));
-        String nullvalue = null;
-        assertEquals(4, getRolePriorityMethod.invoke(null, nullvalue));
-    }
-
     @Test
     public void testFormatDurationDetailed() throws Exception {
         // Use reflection to test the private formatDurationDetailed method
@@ -217,20 +202,19 @@ public class OfftimeCheckerTest {
     }
 
     @Test
-    public void testRoleHierarchyOrdering() throws Exception {
-        // Test that role hierarchy is maintained in sorting
-        Method getRolePriorityMethod = OfftimeChecker.class.getDeclaredMethod("getRolePriority", String.class);
-        getRolePriorityMethod.setAccessible(true);
-        
-        // Verify hierarchy order
-        int leaderPriority = (Integer) getRolePriorityMethod.invoke(null, "LEADER");
-        int coLeaderPriority = (Integer) getRolePriorityMethod.invoke(null, "CO_LEADER");
-        int officerPriority = (Integer) getRolePriorityMethod.invoke(null, "OFFICER");
-        int memberPriority = (Integer) getRolePriorityMethod.invoke(null, "MEMBER");
-        
-        assertTrue(leaderPriority < coLeaderPriority);
-        assertTrue(coLeaderPriority < officerPriority);
-        assertTrue(officerPriority < memberPriority);
+    public void testRoleHierarchyOrdering() {
+        // Members are sorted by Role.compareTo, so the declaration order of the constants is the hierarchy
+        assertTrue(Role.LEADER.compareTo(Role.CO_LEADER) < 0);
+        assertTrue(Role.CO_LEADER.compareTo(Role.OFFICER) < 0);
+        assertTrue(Role.OFFICER.compareTo(Role.MEMBER) < 0);
+        assertTrue(Role.MEMBER.compareTo(Role.UNKNOWN) < 0);
+
+        List<Role> roles = new ArrayList<>();
+        for (String role : Arrays.asList("member", null, "OFFICER", "UNKNOWN_ROLE", "co_leader", "Leader")) {
+            roles.add(Role.fromValue(role));
+        }
+        roles.sort(null);
+        assertEquals(List.of(Role.LEADER, Role.CO_LEADER, Role.OFFICER, Role.MEMBER, Role.UNKNOWN, Role.UNKNOWN), roles);
     }
 
     @Test
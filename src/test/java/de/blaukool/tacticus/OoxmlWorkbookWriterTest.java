@@ -0,0 +1,93 @@
+package de.blaukool.tacticus;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OoxmlWorkbookWriterTest {
+
+    @Test
+    public void testColumnName() {
+        assertEquals("A", OoxmlWorkbookWriter.columnName(0));
+        assertEquals("Z", OoxmlWorkbookWriter.columnName(25));
+        assertEquals("AA", OoxmlWorkbookWriter.columnName(26));
+        assertEquals("AB", OoxmlWorkbookWriter.columnName(27));
+        assertEquals("ZZ", OoxmlWorkbookWriter.columnName(701));
+        assertEquals("AAA", OoxmlWorkbookWriter.columnName(702));
+    }
+
+    @Test
+    public void testEscape() {
+        assertEquals("plain", OoxmlWorkbookWriter.escape("plain"));
+        assertEquals("&lt;Tom &amp; &quot;Jerry&quot;&gt;", OoxmlWorkbookWriter.escape("<Tom & \"Jerry\">"));
+        assertEquals("tab\tbell", OoxmlWorkbookWriter.escape("tab\tbel\u0007l"));
+    }
+
+    @Test
+    public void testWorkbookCanBeReadByPoi() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OoxmlWorkbookWriter writer = new OoxmlWorkbookWriter(out)) {
+            ReportSheet first = writer.createSheet("First & Only");
+            first.row(0);
+            first.text(0, "<Header>", ReportSheet.Style.HEADER);
+            first.row(3);
+            first.text(0, "  padded  ", ReportSheet.Style.DEFAULT);
+            first.number(1, 1234567, ReportSheet.Style.NUMBER);
+            first.number(30, 1.5, ReportSheet.Style.DEFAULT);
+            first.row(4);
+            first.text(0, null, ReportSheet.Style.DEFAULT);
+            first.text(1, null, ReportSheet.Style.HEADER);
+
+            ReportSheet second = writer.createSheet("Second");
+            second.row(0);
+            second.text(0, "Ünïcödé 🐉", ReportSheet.Style.DEFAULT);
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(2, workbook.getNumberOfSheets());
+            Sheet first = workbook.getSheet("First & Only");
+            Cell header = first.getRow(0).getCell(0);
+            assertEquals("<Header>", header.getStringCellValue());
+            assertTrue(workbook.getFontAt(header.getCellStyle().getFontIndex()).getBold());
+
+            assertNull(first.getRow(1));
+            Row row = first.getRow(3);
+            assertEquals("  padded  ", row.getCell(0).getStringCellValue());
+            assertEquals(1234567, row.getCell(1).getNumericCellValue());
+            assertEquals("#,##0", row.getCell(1).getCellStyle().getDataFormatString());
+            assertEquals("1,234,567", new DataFormatter().formatCellValue(row.getCell(1)));
+            assertEquals(1.5, row.getCell(30).getNumericCellValue());
+            assertEquals((9 + 1) * 256, first.getColumnWidth(1));
+            assertEquals(CellType.BLANK, first.getRow(4).getCell(0).getCellType());
+            assertTrue(workbook.getFontAt(first.getRow(4).getCell(1).getCellStyle().getFontIndex()).getBold());
+
+            assertEquals("Ünïcödé 🐉", workbook.getSheet("Second").getRow(0).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void testRowsMustAscend() throws Exception {
+        try (OoxmlWorkbookWriter writer = new OoxmlWorkbookWriter(new ByteArrayOutputStream())) {
+            ReportSheet sheet = writer.createSheet("Sheet");
+            sheet.row(2);
+
+            assertThrows(IllegalStateException.class, () -> sheet.row(1));
+        }
+    }
+
+    @Test
+    public void testFinishedSheetRejectsCells() throws Exception {
+        try (OoxmlWorkbookWriter writer = new OoxmlWorkbookWriter(new ByteArrayOutputStream())) {
+            ReportSheet sheet = writer.createSheet("Sheet");
+            sheet.row(0);
+            writer.createSheet("Next");
+
+            assertThrows(IllegalStateException.class, () -> sheet.text(0, "late", ReportSheet.Style.DEFAULT));
+        }
+    }
+}
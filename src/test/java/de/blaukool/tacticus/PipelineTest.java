@@ -0,0 +1,117 @@
+package de.blaukool.tacticus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.blaukool.tacticus.api.TacticusApiClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineTest {
+
+    private static final String GUILD_BODY = "{\"guild\":{\"guildId\":\"guild-1\",\"guildTag\":\"TAG\",\"name\":\"Test Guild\",\"level\":5,"
+            + "\"members\":[{\"userId\":\"user1\",\"role\":\"LEADER\",\"level\":50,\"lastActivityOn\":\"2024-01-01T10:00:00Z\"}],"
+            + "\"guildRaidSeasons\":[78]}}";
+    private static final String SEASON_BODY = "{\"season\":78,\"seasonConfigId\":\"config\",\"entries\":["
+            + "{\"userId\":\"user1\",\"tier\":1,\"set\":0,\"encounterIndex\":0,\"remainingHp\":5000,\"maxHp\":10000,"
+            + "\"encounterType\":\"Boss\",\"unitId\":\"GuildBoss1Boss1TyranTervigonLeviathan\",\"type\":\"TervigonLeviathan\","
+            + "\"rarity\":\"Common\",\"damageDealt\":5000,\"damageType\":\"Battle\",\"heroDetails\":[],\"globalConfigHash\":\"hash\"}]}";
+
+    private HttpServer server;
+    private Map<String, Integer> requests;
+    private TacticusApiClient client;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        requests = new ConcurrentHashMap<>();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        client = new TacticusApiClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                new TacticusApiClient.Settings(2, 1000, 5000, 10_000, 1, 1, 5, 1000, 0, 1), null);
+
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(outputStream));
+        System.setErr(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testMain_NoApiKey() {
+        Pipeline.main(new String[]{});
+
+        assertTrue(outputStream.toString().contains("Please provide an API key as an argument"));
+    }
+
+    @Test
+    public void testMain_UnknownSink() {
+        Pipeline.main(new String[]{"test-api-key", "console,pdf"});
+
+        assertTrue(outputStream.toString().contains("Unknown output 'pdf'"));
+    }
+
+    @Test
+    public void testParseSinks() {
+        assertEquals(EnumSet.of(Pipeline.Sink.CONSOLE, Pipeline.Sink.EXCEL, Pipeline.Sink.OFFTIME), Pipeline.parseSinks("console,excel,offtime"));
+        assertEquals(EnumSet.of(Pipeline.Sink.DETAILS), Pipeline.parseSinks(" Details ,"));
+        assertThrows(IllegalArgumentException.class, () -> Pipeline.parseSinks(","));
+    }
+
+    @Test
+    public void testAllConsoleSinksShareOneFetch() throws Exception {
+        Set<Pipeline.Sink> sinks = EnumSet.of(Pipeline.Sink.CONSOLE, Pipeline.Sink.DETAILS, Pipeline.Sink.OFFTIME);
+
+        Pipeline.run(client, "key-1", sinks, 2);
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("=== All Guild Members Activity Status ==="));
+        assertTrue(output.contains("=== Guild Raid Season 78 Member Contributions ==="));
+        assertTrue(output.contains("Raid Entries: 1"));
+        assertTrue(output.contains("HP Left"));
+        assertEquals(Map.of("/api/v1/guild", 1, "/api/v1/guildRaid/78", 1), requests);
+    }
+
+    @Test
+    public void testOfftimeOnlyDoesNotFetchSeasons() throws Exception {
+        Pipeline.run(client, "key-1", EnumSet.of(Pipeline.Sink.OFFTIME), 2);
+
+        assertTrue(outputStream.toString().contains("Total members: 1"));
+        assertEquals(Map.of("/api/v1/guild", 1), requests);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.merge(path, 1, Integer::sum);
+        String body = path.startsWith("/api/v1/guildRaid/") ? SEASON_BODY : GUILD_BODY;
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
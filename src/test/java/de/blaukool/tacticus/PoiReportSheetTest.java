@@ -0,0 +1,93 @@
+package de.blaukool.tacticus;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoiReportSheetTest {
+
+    private Workbook workbook;
+    private Sheet sheet;
+    private CellStyle headerStyle;
+    private CellStyle numberStyle;
+
+    @BeforeEach
+    public void setUp() {
+        workbook = new XSSFWorkbook();
+        sheet = workbook.createSheet("Test");
+
+        headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+
+        numberStyle = workbook.createCellStyle();
+        numberStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Test
+    public void testCellsAreCreatedWithStyles() {
+        PoiReportSheet reportSheet = new PoiReportSheet(sheet, headerStyle, numberStyle);
+        reportSheet.row(2);
+        reportSheet.text(0, "Player", ReportSheet.Style.HEADER);
+        reportSheet.number(1, 1234567, ReportSheet.Style.NUMBER);
+        reportSheet.text(2, "MEMBER", ReportSheet.Style.DEFAULT);
+
+        Row row = sheet.getRow(2);
+        assertEquals("Player", row.getCell(0).getStringCellValue());
+        assertEquals(headerStyle, row.getCell(0).getCellStyle());
+        assertEquals(1234567, row.getCell(1).getNumericCellValue());
+        assertEquals(numberStyle, row.getCell(1).getCellStyle());
+        assertEquals("MEMBER", row.getCell(2).getStringCellValue());
+        assertEquals(0, row.getCell(2).getCellStyle().getIndex());
+    }
+
+    @Test
+    public void testNullTextIsBlankCell() {
+        PoiReportSheet reportSheet = new PoiReportSheet(sheet, headerStyle, numberStyle);
+        reportSheet.row(0);
+        reportSheet.text(0, null, ReportSheet.Style.DEFAULT);
+        reportSheet.finish();
+
+        assertEquals(CellType.BLANK, sheet.getRow(0).getCell(0).getCellType());
+    }
+
+    @Test
+    public void testNumbersAreMeasuredFormatted() {
+        PoiReportSheet reportSheet = new PoiReportSheet(sheet, headerStyle, numberStyle);
+        reportSheet.row(0);
+        reportSheet.number(0, 1234567, ReportSheet.Style.NUMBER);
+        reportSheet.number(1, 1234567, ReportSheet.Style.DEFAULT);
+        reportSheet.finish();
+
+        // "1,234,567" and "1234567"
+        assertEquals((9 + 1) * 256, sheet.getColumnWidth(0));
+        assertEquals((7 + 1) * 256, sheet.getColumnWidth(1));
+    }
+
+    @Test
+    public void testFinishSetsOnlyTrackedColumns() {
+        int defaultWidth = sheet.getColumnWidth(1);
+        PoiReportSheet reportSheet = new PoiReportSheet(sheet, headerStyle, numberStyle);
+        reportSheet.row(0);
+        reportSheet.text(0, "Player", ReportSheet.Style.DEFAULT);
+        reportSheet.number(20, 42, ReportSheet.Style.DEFAULT);
+
+        reportSheet.finish();
+
+        assertEquals((6 + 1) * 256, sheet.getColumnWidth(0));
+        assertEquals(defaultWidth, sheet.getColumnWidth(1));
+        assertEquals((2 + 1) * 256, sheet.getColumnWidth(20));
+    }
+}
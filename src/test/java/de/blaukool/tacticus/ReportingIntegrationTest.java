@@ -200,7 +200,7 @@ public class ReportingIntegrationTest {
                 assertEquals(source.getSidebossBomb(), (int) dataRow.getCell(7).getNumericCellValue(), "Sideboss Bomb should match");
 
                 // Verify total
-                int expectedTotal = source.getBossBattle() + source.getBossBomb() +
+                long expectedTotal = source.getBossBattle() + source.getBossBomb() +
                                   source.getSidebossBattle() + source.getSidebossBomb();
                 assertEquals(expectedTotal, (int) dataRow.getCell(8).getNumericCellValue(), "Total should match");
 
@@ -321,9 +321,9 @@ public class ReportingIntegrationTest {
     private String generateTestExcelFile(Integer season, List<MemberContribution> contributions) throws Exception {
         // Sort contributions by total damage (descending) - matching Reporting logic
         contributions.sort((a, b) -> {
-            int totalA = a.getBossBattle() + a.getBossBomb() + a.getSidebossBattle() + a.getSidebossBomb();
-            int totalB = b.getBossBattle() + b.getBossBomb() + b.getSidebossBattle() + b.getSidebossBomb();
-            return Integer.compare(totalB, totalA);
+            long totalA = a.getBossBattle() + a.getBossBomb() + a.getSidebossBattle() + a.getSidebossBomb();
+            long totalB = b.getBossBattle() + b.getBossBomb() + b.getSidebossBattle() + b.getSidebossBomb();
+            return Long.compare(totalB, totalA);
         });
 
         // Create workbook and sheets
@@ -596,7 +596,7 @@ public class ReportingIntegrationTest {
 
         // Test that contribution data is properly calculated
         for (MemberContribution contribution : memberContributions.values()) {
-            int totalDamage = contribution.getBossBattle() + contribution.getBossBomb() +
+            long totalDamage = contribution.getBossBattle() + contribution.getBossBomb() +
                             contribution.getSidebossBattle() + contribution.getSidebossBomb();
             assertTrue(totalDamage >= 0, "Total damage should be non-negative");
             assertTrue(contribution.getBattleCount() >= 0, "Battle count should be non-negative");
@@ -1,21 +1,33 @@
 package de.blaukool.tacticus;
 
+import com.sun.net.httpserver.HttpServer;
 import de.blaukool.tacticus.api.GuildRaidResponse;
 import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.TacticusApiClient;
 import de.blaukool.tacticus.logic.MemberContribution;
+import de.blaukool.tacticus.logic.SeasonAggregator;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -78,9 +90,6 @@ public class ReportingTest {
             Class<?> clazz = Reporting.class;
 
             // Check API constants
-            assertEquals("https://api.tacticusgame.com", getStaticField(clazz, "API_BASE_URL"));
-            assertEquals("/api/v1/guild", getStaticField(clazz, "GUILD_ENDPOINT"));
-            assertEquals("/api/v1/guildRaid/", getStaticField(clazz, "GUILD_RAID_ENDPOINT"));
             assertEquals("yyyyMMdd_HHmmss", getStaticField(clazz, "TIMESTAMP_FORMAT"));
             assertEquals("%s_raid_report_season_%s_%s.xlsx", getStaticField(clazz, "FILENAME_FORMAT"));
 
@@ -279,9 +288,9 @@ public class ReportingTest {
 
         // Sort by total damage (descending)
         contributions.sort((a, b) -> {
-            int totalA = a.getBossBattle() + a.getBossBomb() + a.getSidebossBattle() + a.getSidebossBomb();
-            int totalB = b.getBossBattle() + b.getBossBomb() + b.getSidebossBattle() + b.getSidebossBomb();
-            return Integer.compare(totalB, totalA);
+            long totalA = a.getBossBattle() + a.getBossBomb() + a.getSidebossBattle() + a.getSidebossBomb();
+            long totalB = b.getBossBattle() + b.getBossBomb() + b.getSidebossBattle() + b.getSidebossBomb();
+            return Long.compare(totalB, totalA);
         });
 
         // Verify sorting (Player1 should be first with total 2550)
@@ -304,7 +313,7 @@ public class ReportingTest {
         contribution.setSidebossBattle(750);
         contribution.setSidebossBomb(300);
 
-        int total = contribution.getBossBattle() + contribution.getBossBomb() +
+        long total = contribution.getBossBattle() + contribution.getBossBomb() +
                    contribution.getSidebossBattle() + contribution.getSidebossBomb();
 
         assertEquals(2550, total);
@@ -332,7 +341,245 @@ public class ReportingTest {
         assertEquals("TestGuild_raid_report_season_78_20250923_143022.xlsx", filename);
     }
 
+    @Test
+    public void testFetchSeasons_CurrentSeasonAdmittedFirst() throws Exception {
+        List<String> paths = Collections.synchronizedList(new ArrayList<>());
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            paths.add(exchange.getRequestURI().getPath());
+            byte[] body = "{\"season\":0,\"entries\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (TacticusApiClient client = new TacticusApiClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                new TacticusApiClient.Settings(2, 1000, 5000, 10_000, 1, 1, 5, 1000, 0, 1), null)) {
+            List<Integer> seasons = List.of(70, 71, 72, 73, 74, 75, 76, 77, 78, 79);
+            CompletionService<Reporting.FetchedSeason> fetched = Reporting.fetchSeasons(executor, client, "key-1", "guild-1",
+                    seasons, 1, Map.of(), Map.of(), Map.of());
+            for (int i = 0; i < seasons.size(); i++) {
+                assertNotNull(fetched.take().get().aggregator());
+            }
+        } finally {
+            executor.shutdownNow();
+            server.stop(0);
+        }
+
+        // The current season does not queue behind the backfill of completed seasons, which keep their order
+        List<String> expected = new ArrayList<>(List.of("/api/v1/guildRaid/79"));
+        for (int season = 70; season < 79; season++) {
+            expected.add("/api/v1/guildRaid/" + season);
+        }
+        assertEquals(expected, paths);
+    }
+
+    @Test
+    public void testWriteSeasonWorkbook_StreamingMatchesInMemory() throws Exception {
+        SeasonAggregator aggregator = createTestAggregator(250);
+
+        ByteArrayOutputStream inMemory = new ByteArrayOutputStream();
+        Reporting.writeSeasonWorkbook(78, aggregator, Reporting.WorkbookWriter.XSSF, inMemory);
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        Reporting.writeSeasonWorkbook(78, aggregator, Reporting.WorkbookWriter.SXSSF, streamed);
+
+        assertSameWorkbook(inMemory.toByteArray(), streamed.toByteArray());
+    }
+
+    @Test
+    public void testWriteSeasonWorkbook_OoxmlMatchesPoi() throws Exception {
+        SeasonAggregator aggregator = createTestAggregator(250);
+
+        ByteArrayOutputStream poi = new ByteArrayOutputStream();
+        Reporting.writeSeasonWorkbook(78, aggregator, Reporting.WorkbookWriter.XSSF, poi);
+        ByteArrayOutputStream ooxml = new ByteArrayOutputStream();
+        Reporting.writeSeasonWorkbook(78, aggregator, Reporting.WorkbookWriter.OOXML, ooxml);
+
+        assertSameWorkbook(poi.toByteArray(), ooxml.toByteArray());
+    }
+
+    @Test
+    public void testWriteConsolidatedWorkbook_SheetsAndOverview() throws Exception {
+        SortedMap<Integer, SeasonAggregator> seasons = new TreeMap<>();
+        seasons.put(79, createTestAggregator(30));
+        seasons.put(78, createTestAggregator(250));
+
+        for (Reporting.WorkbookWriter writer : Reporting.WorkbookWriter.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Reporting.writeConsolidatedWorkbook(seasons, writer, out);
+
+            try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+                assertEquals(7, workbook.getNumberOfSheets(), writer.name());
+                assertEquals("Seasons Overview", workbook.getSheetName(0));
+                assertEquals("S78 Statistics Overview", workbook.getSheetName(1));
+                assertEquals("S78 Boss Timeline", workbook.getSheetName(2));
+                assertEquals("S78 Player Battle Statistics", workbook.getSheetName(3));
+                assertEquals("S79 Statistics Overview", workbook.getSheetName(4));
+
+                Sheet overview = workbook.getSheetAt(0);
+                assertEquals("Guild Raid Seasons 78 to 79", overview.getRow(0).getCell(0).getStringCellValue());
+                Row season78 = overview.getRow(3);
+                assertEquals(78, season78.getCell(0).getNumericCellValue());
+                assertEquals(250, season78.getCell(1).getNumericCellValue());
+                assertEquals(5, season78.getCell(2).getNumericCellValue());
+                assertEquals(seasons.get(78).getTotalDamage(), (long) season78.getCell(7).getNumericCellValue());
+                assertEquals(79, overview.getRow(4).getCell(0).getNumericCellValue());
+
+                // Member matrix: header row, then members sorted by total damage over all seasons
+                Row header = overview.getRow(8);
+                assertEquals("Season 78", header.getCell(2).getStringCellValue());
+                assertEquals("Total", header.getCell(4).getStringCellValue());
+                long previous = Long.MAX_VALUE;
+                long matrixTotal = 0;
+                for (int r = 9; r < 14; r++) {
+                    Row member = overview.getRow(r);
+                    long total = (long) member.getCell(4).getNumericCellValue();
+                    assertEquals(total, (long) (member.getCell(2).getNumericCellValue() + member.getCell(3).getNumericCellValue()));
+                    assertTrue(total <= previous);
+                    previous = total;
+                    matrixTotal += total;
+                }
+                assertEquals(seasons.get(78).getTotalDamage() + seasons.get(79).getTotalDamage(), matrixTotal);
+            }
+        }
+    }
+
+    @Test
+    public void testWriteConsolidatedWorkbook_SharedStrings() throws Exception {
+        SortedMap<Integer, SeasonAggregator> seasons = new TreeMap<>();
+        seasons.put(78, createTestAggregator(250));
+        seasons.put(79, createTestAggregator(30));
+
+        for (Reporting.WorkbookWriter writer : Reporting.WorkbookWriter.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Reporting.writeConsolidatedWorkbook(seasons, writer, out);
+
+            Path file = tempDir.resolve(writer.name() + ".xlsx");
+            Files.write(file, out.toByteArray());
+            Map<String, String> entries = new HashMap<>();
+            try (ZipFile zip = new ZipFile(file.toFile())) {
+                for (ZipEntry entry : Collections.list(zip.entries())) {
+                    entries.put(entry.getName(), new String(zip.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            String sharedStrings = entries.get("xl/sharedStrings.xml");
+            assertNotNull(sharedStrings, writer.name());
+            // Member names repeat on every sheet of both seasons but are stored once
+            assertEquals(1, sharedStrings.split("<t>Player1</t>", -1).length - 1, writer.name());
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                if (entry.getKey().startsWith("xl/worksheets/")) {
+                    assertFalse(entry.getValue().contains("inlineStr"), writer.name() + " " + entry.getKey());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWorkbookWriter_FromSystemProperties() {
+        try {
+            System.setProperty("tacticus.report.writer", "XSSF");
+            assertEquals(Reporting.WorkbookWriter.XSSF, Reporting.WorkbookWriter.fromSystemProperties());
+            System.setProperty("tacticus.report.writer", "csv");
+            assertThrows(IllegalArgumentException.class, Reporting.WorkbookWriter::fromSystemProperties);
+        } finally {
+            System.clearProperty("tacticus.report.writer");
+        }
+        assertEquals(Reporting.WorkbookWriter.SXSSF, Reporting.WorkbookWriter.fromSystemProperties());
+    }
+
+    @Test
+    public void testAwaitSeasonReports_IsolatesFailedSeasons() {
+        Map<Integer, Future<String>> reports = new LinkedHashMap<>();
+        reports.put(77, CompletableFuture.completedFuture("season77.xlsx"));
+        reports.put(78, CompletableFuture.failedFuture(new IllegalStateException("broken season")));
+        reports.put(79, CompletableFuture.completedFuture("season79.xlsx"));
+
+        List<String> files = Reporting.awaitSeasonReports(reports);
+
+        assertEquals(List.of("season77.xlsx", "season79.xlsx"), files);
+        assertTrue(outputStream.toString().contains("Error creating Excel report for Season 78"));
+        assertTrue(outputStream.toString().contains("broken season"));
+    }
+
+    @Test
+    public void testNewRenderExecutor_UsesConfiguredThreads() throws Exception {
+        System.setProperty("tacticus.report.renderThreads", "3");
+        ExecutorService executor = Reporting.newRenderExecutor();
+        try {
+            assertEquals(3, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        } finally {
+            executor.shutdownNow();
+            System.clearProperty("tacticus.report.renderThreads");
+        }
+    }
+
     // Helper methods
+    private void assertSameWorkbook(byte[] expectedBytes, byte[] actualBytes) throws IOException {
+        try (Workbook expected = new XSSFWorkbook(new ByteArrayInputStream(expectedBytes));
+             Workbook actual = new XSSFWorkbook(new ByteArrayInputStream(actualBytes))) {
+            assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+            DataFormatter formatter = new DataFormatter();
+            for (int i = 0; i < expected.getNumberOfSheets(); i++) {
+                Sheet expectedSheet = expected.getSheetAt(i);
+                Sheet actualSheet = actual.getSheetAt(i);
+                assertEquals(expectedSheet.getSheetName(), actualSheet.getSheetName());
+                assertEquals(expectedSheet.getLastRowNum(), actualSheet.getLastRowNum());
+                for (int r = 0; r <= expectedSheet.getLastRowNum(); r++) {
+                    Row expectedRow = expectedSheet.getRow(r);
+                    Row actualRow = actualSheet.getRow(r);
+                    assertEquals(expectedRow == null, actualRow == null, "Row " + r + " of " + expectedSheet.getSheetName());
+                    if (expectedRow == null) {
+                        continue;
+                    }
+                    assertEquals(expectedRow.getLastCellNum(), actualRow.getLastCellNum(), "Cells of row " + r + " of " + expectedSheet.getSheetName());
+                    for (int c = 0; c < expectedRow.getLastCellNum(); c++) {
+                        String position = "Cell " + r + "/" + c + " of " + expectedSheet.getSheetName();
+                        Cell expectedCell = expectedRow.getCell(c);
+                        Cell actualCell = actualRow.getCell(c);
+                        assertEquals(formatter.formatCellValue(expectedCell), formatter.formatCellValue(actualCell), position);
+                        assertEquals(expectedCell.getCellType(), actualCell.getCellType(), position);
+                        assertEquals(expectedCell.getCellStyle().getDataFormatString(), actualCell.getCellStyle().getDataFormatString(), position);
+                        assertEquals(expected.getFontAt(expectedCell.getCellStyle().getFontIndex()).getBold(),
+                                actual.getFontAt(actualCell.getCellStyle().getFontIndex()).getBold(), position);
+                    }
+                }
+                for (int c = 0; c < 11; c++) {
+                    assertEquals(expectedSheet.getColumnWidth(c), actualSheet.getColumnWidth(c), "Width of column " + c + " of " + expectedSheet.getSheetName());
+                }
+            }
+        }
+    }
+
+    private SeasonAggregator createTestAggregator(int raids) {
+        Map<String, String> memberNames = new HashMap<>();
+        Map<String, String> memberRoles = new HashMap<>();
+        Map<String, Integer> memberLevel = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            memberNames.put("user" + i, "Player" + i);
+            memberRoles.put("user" + i, "MEMBER");
+            memberLevel.put("user" + i, 40 + i);
+        }
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+        for (int i = 0; i < raids; i++) {
+            boolean sideboss = i % 3 == 0;
+            GuildRaidResponse.Raid raid = new GuildRaidResponse.Raid();
+            raid.setUserId("user" + (i % 5));
+            raid.setEncounterType(sideboss ? "SideBoss" : "Boss");
+            raid.setDamageType(i % 7 == 0 ? "Bomb" : "Battle");
+            raid.setDamageDealt(1000 + i * 37);
+            raid.setRemainingHp(1_000_000 - i * 1000);
+            raid.setTier(i % 2);
+            raid.setSet(0);
+            raid.setRarity(i % 2 == 0 ? "Legendary" : "Epic");
+            raid.setType("TervigonLeviathan");
+            raid.setUnitId(sideboss ? "GuildBoss1MiniBoss1TyranWingedPrime" : "GuildBoss1Boss1TyranTervigonLeviathan");
+            aggregator.accept(raid);
+        }
+        return aggregator;
+    }
+
     private List<MemberContribution> createTestContributions() {
         List<MemberContribution> contributions = new ArrayList<>();
 
@@ -343,4 +343,25 @@ public class GuildRaidResponseTest {
         assertEquals("hero-1", retrievedRaid.getHeroDetails().get(0).getUnitId());
         assertNotNull(retrievedRaid.getMachineOfWarDetails());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFormatUnitId() {
+        assertEquals("TyranWingedPrime", GuildRaidResponse.formatUnitId("GuildBoss1MiniBoss1TyranWingedPrime"));
+        assertEquals("TyranTervigonLeviathan", GuildRaidResponse.formatUnitId("GuildBoss1Boss1TyranTervigonLeviathan"));
+        // Parsed names are remembered, so repeated ids return the same instance
+        assertSame(GuildRaidResponse.formatUnitId("GuildBoss2MiniBoss3Lictor"), GuildRaidResponse.formatUnitId("GuildBoss2MiniBoss3Lictor"));
+        assertEquals(GuildRaidResponse.UNKNOWN_UNIT_NAME, GuildRaidResponse.formatUnitId(null));
+
+        raid.setUnitId("GuildBoss2MiniBoss3Lictor");
+        assertEquals("Lictor", raid.getUnitIdFormated());
+    }
+
+    @Test
+    public void testFormatUnitIdCacheIsBounded() {
+        for (int i = 0; i < GuildRaidResponse.MAX_UNIT_NAMES + 100; i++) {
+            assertEquals("Unit" + (char) ('A' + i % 26), GuildRaidResponse.formatUnitId("GuildBoss" + i + "MiniBoss1Unit" + (char) ('A' + i % 26)));
+        }
+
+        assertTrue(GuildRaidResponse.getCachedUnitNameCount() <= GuildRaidResponse.MAX_UNIT_NAMES);
+    }
+}
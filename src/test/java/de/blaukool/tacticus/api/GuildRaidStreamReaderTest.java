@@ -0,0 +1,108 @@
+package de.blaukool.tacticus.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuildRaidStreamReaderTest {
+
+    private static final String RESPONSE = "{"
+            + "\"season\":78,"
+            + "\"seasonConfigId\":\"config-78\","
+            + "\"entries\":["
+            + "{\"userId\":\"user1\",\"tier\":1,\"set\":0,\"encounterIndex\":0,\"remainingHp\":5000,\"maxHp\":10000,"
+            + "\"encounterType\":\"Boss\",\"unitId\":\"GuildBoss1Boss1TyranTervigonLeviathan\",\"type\":\"TervigonLeviathan\","
+            + "\"rarity\":\"Common\",\"damageDealt\":5000,\"damageType\":\"Battle\",\"startedOn\":1700000000000,"
+            + "\"heroDetails\":[{\"unitId\":\"ultraEliminatorSgt\",\"power\":5700}],\"globalConfigHash\":\"hash\"},"
+            + "{\"userId\":\"user2\",\"tier\":1,\"set\":0,\"encounterIndex\":1,\"remainingHp\":0,\"maxHp\":10000,"
+            + "\"encounterType\":\"SideBoss\",\"unitId\":\"GuildBoss1MiniBoss1TyranWingedPrime\",\"type\":\"TervigonLeviathan\","
+            + "\"rarity\":\"Common\",\"damageDealt\":10000,\"damageType\":\"Bomb\",\"startedOn\":1700000100000,"
+            + "\"heroDetails\":[],\"globalConfigHash\":\"hash\"}"
+            + "]}";
+
+    private GuildRaidStreamReader reader;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        reader = new GuildRaidStreamReader(objectMapper);
+    }
+
+    @Test
+    public void testReadStreamsEveryEntry() throws Exception {
+        List<GuildRaidResponse.Raid> received = new ArrayList<>();
+
+        GuildRaidResponse header = reader.read(stream(RESPONSE), received::add);
+
+        assertEquals(78, header.getSeason());
+        assertEquals("config-78", header.getSeasonConfigId());
+        assertNull(header.getEntries(), "Entries must not be materialized");
+
+        assertEquals(2, received.size());
+        assertEquals("user1", received.get(0).getUserId());
+        assertEquals(5000, received.get(0).getDamageDealt());
+        assertEquals("ultraEliminatorSgt", received.get(0).getHeroDetails().get(0).getUnitId());
+        assertEquals("SideBoss", received.get(1).getEncounterType());
+        assertEquals("Bomb", received.get(1).getDamageType());
+    }
+
+    @Test
+    public void testReadFieldOrderIndependent() throws Exception {
+        String json = "{\"entries\":[],\"unknownField\":{\"nested\":[1,2]},\"season\":80}";
+        List<GuildRaidResponse.Raid> received = new ArrayList<>();
+
+        GuildRaidResponse header = reader.read(stream(json), received::add);
+
+        assertEquals(80, header.getSeason());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testReadNullEntries() throws Exception {
+        List<GuildRaidResponse.Raid> received = new ArrayList<>();
+
+        GuildRaidResponse header = reader.read(stream("{\"season\":81,\"entries\":null}"), received::add);
+
+        assertEquals(81, header.getSeason());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testReadDecodesTypesAndKeepsUnknownValues() throws Exception {
+        String json = "{\"season\":82,\"entries\":["
+                + "{\"encounterType\":\"SideBoss\",\"damageType\":\"Bomb\",\"rarity\":\"Mythic\"},"
+                + "{\"encounterType\":\"Overlord\",\"damageType\":\"Psychic\",\"rarity\":\"Relic\"}"
+                + "]}";
+        List<GuildRaidResponse.Raid> received = new ArrayList<>();
+
+        reader.read(stream(json), received::add);
+
+        assertEquals(EncounterType.SIDE_BOSS, received.get(0).getEncounterTypeValue());
+        assertEquals(DamageType.BOMB, received.get(0).getDamageTypeValue());
+        assertEquals(EncounterType.UNKNOWN, received.get(1).getEncounterTypeValue());
+        assertEquals("Overlord", received.get(1).getEncounterType());
+        assertEquals(DamageType.UNKNOWN, received.get(1).getDamageTypeValue());
+        assertEquals("Psychic", received.get(1).getDamageType());
+        assertEquals("Relic", received.get(1).getRarity());
+    }
+
+    @Test
+    public void testReadRejectsNonObject() {
+        assertThrows(JsonProcessingException.class, () -> reader.read(stream("[1,2,3]"), raid -> { }));
+    }
+
+    private InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -68,10 +68,26 @@ public class GuildResponseTest {
         
         assertEquals(userId, guildMember.getUserId());
         assertEquals(role, guildMember.getRole());
+        assertEquals(Role.LEADER, guildMember.getRoleValue());
         assertEquals(level, guildMember.getLevel());
         assertEquals(lastActivity, guildMember.getLastActivityOn());
     }
 
+    @Test
+    public void testGuildMemberRoleValue() {
+        assertEquals(Role.UNKNOWN, guildMember.getRoleValue());
+
+        guildMember.setRole("co_leader");
+        assertEquals(Role.CO_LEADER, guildMember.getRoleValue());
+
+        guildMember.setRole("ARCHON");
+        assertEquals(Role.UNKNOWN, guildMember.getRoleValue());
+        assertEquals("ARCHON", guildMember.getRole());
+
+        guildMember.setRole(null);
+        assertEquals(Role.UNKNOWN, guildMember.getRoleValue());
+    }
+
     @Test
     public void testGuildMemberGetName_WithUserMapping() {
         // Test with a user ID that should be in the userMapping.properties
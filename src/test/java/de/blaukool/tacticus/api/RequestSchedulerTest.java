@@ -0,0 +1,124 @@
+package de.blaukool.tacticus.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestSchedulerTest {
+
+    @Test
+    public void testBurstIsGrantedImmediately() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 3);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            scheduler.acquire(RequestScheduler.Priority.CURRENT);
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(3, scheduler.getMetrics().granted());
+    }
+
+    @Test
+    public void testRateIsEnforcedAfterBurst() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(20, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            scheduler.acquire(RequestScheduler.Priority.CURRENT);
+        }
+
+        // One permit from the burst, four more at 20/s take at least 200 ms
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(180));
+        assertTrue(scheduler.getMetrics().maxWaitMillis() > 0);
+    }
+
+    @Test
+    public void testDisabledLimiterNeverWaits() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(0, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            scheduler.acquire(RequestScheduler.Priority.BACKFILL);
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testCurrentGoesAheadOfBackfill() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(50, 1);
+        // Drain the burst and hold permits back so that all waiters queue up
+        scheduler.acquire(RequestScheduler.Priority.CURRENT);
+        scheduler.pause(300);
+
+        List<RequestScheduler.Priority> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(4);
+        List<Thread> threads = new ArrayList<>();
+        for (RequestScheduler.Priority priority : List.of(RequestScheduler.Priority.BACKFILL, RequestScheduler.Priority.BACKFILL,
+                RequestScheduler.Priority.CURRENT, RequestScheduler.Priority.CURRENT)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    scheduler.acquire(priority);
+                    order.add(priority);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+            // Make sure every thread is queued before the next one arrives
+            Thread.sleep(30);
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(RequestScheduler.Priority.CURRENT, RequestScheduler.Priority.CURRENT,
+                RequestScheduler.Priority.BACKFILL, RequestScheduler.Priority.BACKFILL), order);
+        assertEquals(4, scheduler.getMetrics().maxQueueDepth());
+        assertEquals(0, scheduler.getMetrics().queueDepth());
+    }
+
+    @Test
+    public void testInterruptedWaiterLeavesQueue() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1);
+        scheduler.acquire(RequestScheduler.Priority.CURRENT);
+
+        Thread waiter = new Thread(() -> {
+            try {
+                scheduler.acquire(RequestScheduler.Priority.CURRENT);
+            } catch (InterruptedException e) {
+                // expected
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        waiter.interrupt();
+        waiter.join(1000);
+
+        assertFalse(waiter.isAlive());
+        assertEquals(0, scheduler.getMetrics().queueDepth());
+        assertEquals(1, scheduler.getMetrics().granted());
+    }
+
+    @Test
+    public void testTimedOutWaiterLeavesQueue() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1);
+        scheduler.acquire(RequestScheduler.Priority.CURRENT);
+
+        long start = System.nanoTime();
+        assertFalse(scheduler.acquire(RequestScheduler.Priority.CURRENT, TimeUnit.MILLISECONDS.toNanos(100)));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(900));
+        assertEquals(0, scheduler.getMetrics().queueDepth());
+        assertEquals(1, scheduler.getMetrics().granted());
+        assertTrue(scheduler.acquire(RequestScheduler.Priority.CURRENT, TimeUnit.SECONDS.toNanos(5)));
+    }
+}
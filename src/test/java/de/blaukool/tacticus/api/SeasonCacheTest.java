@@ -0,0 +1,120 @@
+package de.blaukool.tacticus.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeasonCacheTest {
+
+    private static final String BODY = "{\"season\":78,\"entries\":[]}";
+
+    @TempDir
+    Path tempDir;
+
+    private SeasonCache cache;
+    private AtomicInteger fetchCount;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SeasonCache(tempDir);
+        fetchCount = new AtomicInteger();
+    }
+
+    @Test
+    public void testMissFetchesAndStores() throws Exception {
+        String result = cache.load("guild-1", 78, this::readAll, this::fetch);
+
+        assertEquals(BODY, result);
+        assertEquals(1, fetchCount.get());
+        assertTrue(cache.contains("guild-1", 78));
+        assertFalse(cache.contains("guild-1", 79));
+        assertFalse(cache.contains("guild-2", 78));
+    }
+
+    @Test
+    public void testHitServedFromDisk() throws Exception {
+        cache.load("guild-1", 78, this::readAll, this::fetch);
+
+        String result = cache.load("guild-1", 78, this::readAll, this::fetch);
+
+        assertEquals(BODY, result);
+        assertEquals(1, fetchCount.get(), "Second load must not fetch again");
+    }
+
+    @Test
+    public void testStoresRemainderNotReadByParser() throws Exception {
+        // Parser only looks at the first byte, the cache must still hold the complete body
+        cache.load("guild-1", 78, content -> (char) content.read() + "", this::fetch);
+
+        String result = cache.load("guild-1", 78, this::readAll, this::fetch);
+
+        assertEquals(BODY, result);
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void testFailedParseIsNotCached() throws Exception {
+        assertThrows(IOException.class, () -> cache.load("guild-1", 78, content -> {
+            throw new IOException("broken");
+        }, this::fetch));
+
+        assertFalse(cache.contains("guild-1", 78));
+        try (var files = Files.walk(tempDir)) {
+            assertTrue(files.noneMatch(p -> p.toString().endsWith(".tmp")), "Temporary files must be removed");
+        }
+    }
+
+    @Test
+    public void testFailedParseStopsReading() throws Exception {
+        AtomicInteger bytesRead = new AtomicInteger();
+        InputStream large = new InputStream() {
+            @Override
+            public int read() {
+                return bytesRead.incrementAndGet() <= 1_000_000 ? ' ' : -1;
+            }
+        };
+
+        assertThrows(IOException.class, () -> cache.load("guild-1", 78, content -> {
+            content.read();
+            throw new IOException("broken");
+        }, parser -> parser.parse(large)));
+
+        assertEquals(1, bytesRead.get(), "The rest of a broken body must not be read");
+        assertFalse(cache.contains("guild-1", 78));
+    }
+
+    @Test
+    public void testCorruptEntryIsDropped() throws Exception {
+        Path file = cache.getFile("guild-1", 78);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "not gzip");
+
+        assertThrows(IOException.class, () -> cache.load("guild-1", 78, this::readAll, this::fetch));
+        assertFalse(cache.contains("guild-1", 78));
+    }
+
+    @Test
+    public void testGuildIdSanitized() {
+        Path file = cache.getFile("../evil/guild", 78);
+        assertTrue(file.normalize().startsWith(tempDir));
+    }
+
+    private String fetch(ResponseParser<String> parser) throws IOException {
+        fetchCount.incrementAndGet();
+        return parser.parse(new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String readAll(InputStream content) throws IOException {
+        return new String(content.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
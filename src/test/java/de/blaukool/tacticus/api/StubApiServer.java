@@ -0,0 +1,105 @@
+package de.blaukool.tacticus.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Tacticus API in tests. Every request is answered with the next queued response, or with
+ * {@code 404 NOT_FOUND} once the queue is empty.
+ */
+class StubApiServer implements Closeable {
+    private final HttpServer server;
+    private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final List<String> apiKeys = new CopyOnWriteArrayList<>();
+
+    StubApiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    void respond(int status, String body) {
+        respond(status, body, 0);
+    }
+
+    /**
+     * @param delayMillis time before the response headers are sent
+     */
+    void respond(int status, String body, long delayMillis) {
+        responses.add(new Response(status, body, delayMillis, false));
+    }
+
+    /**
+     * Sends the headers and the first half of {@code body}, then drops the connection.
+     */
+    void respondTruncated(int status, String body) {
+        responses.add(new Response(status, body, 0, true));
+    }
+
+    String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return the {@code X-API-KEY} header of every request so far
+     */
+    List<String> getApiKeys() {
+        return apiKeys;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        apiKeys.add(exchange.getRequestHeaders().getFirst("X-API-KEY"));
+        Response response = responses.poll();
+        if (response == null) {
+            response = new Response(404, "{\"type\":\"NOT_FOUND\"}", 0, false);
+        }
+        try {
+            Thread.sleep(response.delayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        if (response.truncated()) {
+            exchange.sendResponseHeaders(response.status(), body.length);
+            exchange.getResponseBody().write(body, 0, body.length / 2);
+            exchange.getResponseBody().flush();
+            // The server drops the connection of a handler that fails
+            throw new IOException("Response truncated");
+        }
+        try {
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // Client gave up on the request
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private record Response(int status, String body, long delayMillis, boolean truncated) {
+    }
+}
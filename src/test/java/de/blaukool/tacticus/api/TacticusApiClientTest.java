@@ -0,0 +1,240 @@
+package de.blaukool.tacticus.api;
+
+import de.blaukool.tacticus.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TacticusApiClientTest {
+
+    private static final String GUILD_BODY = "{\"guild\":{\"guildId\":\"guild-1\",\"guildTag\":\"TAG\",\"name\":\"Test Guild\",\"level\":5,"
+            + "\"members\":[],\"guildRaidSeasons\":[78,79]}}";
+    private static final String SEASON_BODY = "{\"season\":78,\"seasonConfigId\":\"config\",\"entries\":["
+            + "{\"userId\":\"user1\",\"tier\":1,\"set\":0,\"encounterIndex\":0,\"remainingHp\":5000,\"maxHp\":10000,"
+            + "\"encounterType\":\"Boss\",\"unitId\":\"GuildBoss1Boss1TyranTervigonLeviathan\",\"type\":\"TervigonLeviathan\","
+            + "\"rarity\":\"Common\",\"damageDealt\":5000,\"damageType\":\"Battle\",\"heroDetails\":[],\"globalConfigHash\":\"hash\"}]}";
+
+    @TempDir
+    Path tempDir;
+
+    private StubApiServer server;
+    private TacticusApiClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new StubApiServer();
+        client = createClient(new SeasonCache(tempDir), 120_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testGetGuild() throws Exception {
+        server.respond(200, GUILD_BODY);
+
+        GuildResponse guild = client.getGuild("key-1");
+
+        assertEquals("guild-1", guild.getGuild().getGuildId());
+        assertEquals(List.of(78, 79), guild.getGuild().getGuildRaidSeasons());
+        assertEquals(List.of("key-1"), server.getApiKeys());
+    }
+
+    @Test
+    public void testForbiddenIsTypedAndNotRetried() {
+        server.respond(403, "{\"type\":\"FORBIDDEN\"}");
+
+        TacticusApiException e = assertThrows(TacticusApiException.class, () -> client.getGuild("key-1"));
+
+        assertEquals(TacticusApiException.Type.FORBIDDEN, e.getType());
+        assertEquals(403, e.getStatusCode());
+        assertEquals("{\"type\":\"FORBIDDEN\"}", e.getResponseBody());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testNotFoundIsTyped() {
+        server.respond(404, "{\"type\":\"NOT_FOUND\"}");
+
+        TacticusApiException e = assertThrows(TacticusApiException.class, () -> client.getGuild("key-1"));
+
+        assertEquals(TacticusApiException.Type.NOT_FOUND, e.getType());
+        assertFalse(e.isRetryable());
+    }
+
+    @Test
+    public void testUnknownErrorIsRetried() throws Exception {
+        server.respond(500, "{\"type\":\"UNKNOWN_ERROR\"}");
+        server.respond(500, "{\"type\":\"UNKNOWN_ERROR\"}");
+        server.respond(200, GUILD_BODY);
+
+        GuildResponse guild = client.getGuild("key-1");
+
+        assertEquals("Test Guild", guild.getGuild().getName());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void testThrottlingIsRetried() throws Exception {
+        server.respond(429, "");
+        server.respond(200, GUILD_BODY);
+
+        GuildResponse guild = client.getGuild("key-1");
+
+        assertEquals("Test Guild", guild.getGuild().getName());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, client.getSchedulerMetrics().granted());
+    }
+
+    @Test
+    public void testRetriesAreBounded() {
+        for (int i = 0; i < 5; i++) {
+            server.respond(500, "{\"type\":\"UNKNOWN_ERROR\"}");
+        }
+
+        TacticusApiException e = assertThrows(TacticusApiException.class, () -> client.getGuild("key-1"));
+
+        assertEquals(TacticusApiException.Type.UNKNOWN_ERROR, e.getType());
+        assertEquals(3, server.getRequestCount(), "maxAttempts is 3");
+    }
+
+    @Test
+    public void testDeadlineAbortsSlowResponse() throws Exception {
+        try (TacticusApiClient impatient = createClient(null, 300)) {
+            server.respond(200, GUILD_BODY, 3000);
+
+            long start = System.nanoTime();
+            TacticusApiException e = assertThrows(TacticusApiException.class, () -> impatient.getGuild("key-1"));
+
+            assertEquals(TacticusApiException.Type.TIMEOUT, e.getType());
+            assertTrue(System.nanoTime() - start < 2_000_000_000L, "Deadline must cut the request short");
+        }
+    }
+
+    @Test
+    public void testDeadlineBoundsWaitForPermit() throws Exception {
+        TacticusApiClient.Settings settings = new TacticusApiClient.Settings(2, 1000, 5000, 300, 3, 1, 5, 1000, 0.2, 1);
+        try (TacticusApiClient throttled = new TacticusApiClient(server.getBaseUrl(), settings, null)) {
+            server.respond(200, GUILD_BODY);
+            throttled.getGuild("key-1");
+
+            long start = System.nanoTime();
+            TacticusApiException e = assertThrows(TacticusApiException.class, () -> throttled.getGuild("key-1"));
+
+            assertEquals(TacticusApiException.Type.TIMEOUT, e.getType());
+            assertTrue(System.nanoTime() - start < 2_000_000_000L, "Deadline must cut the wait for a permit short");
+            assertEquals(1, server.getRequestCount());
+        }
+    }
+
+    @Test
+    public void testDeadlineDoesNotCoverConsumer() throws Exception {
+        try (TacticusApiClient impatient = createClient(null, 300)) {
+            // Large enough that the body is still being read when the deadline has passed
+            String entry = SEASON_BODY.substring(SEASON_BODY.indexOf('{', 1), SEASON_BODY.lastIndexOf(']'));
+            String body = SEASON_BODY.replace(entry, String.join(",", Collections.nCopies(5000, entry)));
+            server.respond(200, body);
+            List<GuildRaidResponse.Raid> raids = new ArrayList<>();
+
+            impatient.getGuildRaidSeason("key-1", "guild-1", 78, false, raid -> {
+                if (raids.isEmpty()) {
+                    try {
+                        Thread.sleep(600);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                raids.add(raid);
+            });
+
+            assertEquals(5000, raids.size());
+        }
+    }
+
+    @Test
+    public void testCompletedSeasonServedFromCache() throws Exception {
+        server.respond(200, SEASON_BODY);
+        List<GuildRaidResponse.Raid> first = new ArrayList<>();
+        List<GuildRaidResponse.Raid> second = new ArrayList<>();
+
+        GuildRaidResponse header = client.getGuildRaidSeason("key-1", "guild-1", 78, true, first::add);
+        client.getGuildRaidSeason("key-1", "guild-1", 78, true, second::add);
+
+        assertEquals(78, header.getSeason());
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertEquals(1, server.getRequestCount(), "Second call must be served from the cache");
+    }
+
+    @Test
+    public void testCurrentSeasonAlwaysFetched() throws Exception {
+        server.respond(200, SEASON_BODY);
+        server.respond(200, SEASON_BODY);
+
+        client.getGuildRaidSeason("key-1", "guild-1", 78, false, raid -> { });
+        client.getGuildRaidSeason("key-1", "guild-1", 78, false, raid -> { });
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testFetchAndParseMetrics() throws Exception {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        long fetches = metrics.timer(MetricsRegistry.FETCH, "endpoint", "guildRaid", "status", "200").getCount();
+        long failures = metrics.timer(MetricsRegistry.FETCH, "endpoint", "guildRaid", "status", "500").getCount();
+        long bytes = metrics.counter(MetricsRegistry.FETCH_BYTES, "endpoint", "guildRaid").getValue();
+        long parses = metrics.timer(MetricsRegistry.PARSE, "endpoint", "guildRaid").getCount();
+        long entries = metrics.counter(MetricsRegistry.PARSE_ENTRIES).getValue();
+        server.respond(500, "{\"type\":\"UNKNOWN_ERROR\"}");
+        server.respond(200, SEASON_BODY);
+
+        client.getGuildRaidSeason("key-1", "guild-1", 78, false, raid -> { });
+
+        assertEquals(fetches + 1, metrics.timer(MetricsRegistry.FETCH, "endpoint", "guildRaid", "status", "200").getCount());
+        assertEquals(failures + 1, metrics.timer(MetricsRegistry.FETCH, "endpoint", "guildRaid", "status", "500").getCount());
+        assertEquals(bytes + SEASON_BODY.length(), metrics.counter(MetricsRegistry.FETCH_BYTES, "endpoint", "guildRaid").getValue());
+        assertEquals(parses + 1, metrics.timer(MetricsRegistry.PARSE, "endpoint", "guildRaid").getCount());
+        assertEquals(entries + 1, metrics.counter(MetricsRegistry.PARSE_ENTRIES).getValue());
+    }
+
+    @Test
+    public void testEndpointLabel() {
+        assertEquals("guild", TacticusApiClient.endpointLabel(TacticusApiClient.GUILD_ENDPOINT));
+        assertEquals("guildRaid", TacticusApiClient.endpointLabel(TacticusApiClient.GUILD_RAID_ENDPOINT + 78));
+    }
+
+    @Test
+    public void testBaseUrlFromSystemProperties() {
+        String original = System.getProperty(TacticusApiClient.BASE_URL_PROPERTY);
+        try {
+            System.clearProperty(TacticusApiClient.BASE_URL_PROPERTY);
+            assertEquals(TacticusApiClient.DEFAULT_BASE_URL, TacticusApiClient.baseUrlFromSystemProperties());
+
+            System.setProperty(TacticusApiClient.BASE_URL_PROPERTY, "http://127.0.0.1:8080/");
+            assertEquals("http://127.0.0.1:8080", TacticusApiClient.baseUrlFromSystemProperties());
+        } finally {
+            if (original != null) {
+                System.setProperty(TacticusApiClient.BASE_URL_PROPERTY, original);
+            } else {
+                System.clearProperty(TacticusApiClient.BASE_URL_PROPERTY);
+            }
+        }
+    }
+
+    private TacticusApiClient createClient(SeasonCache cache, long deadlineMillis) {
+        TacticusApiClient.Settings settings = new TacticusApiClient.Settings(2, 1000, 5000, deadlineMillis, 3, 1, 5, 1000, 0, 1);
+        return new TacticusApiClient(server.getBaseUrl(), settings, cache);
+    }
+}
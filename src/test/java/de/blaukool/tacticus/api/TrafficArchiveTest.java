@@ -0,0 +1,217 @@
+package de.blaukool.tacticus.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrafficArchiveTest {
+
+    private static final String API_KEY = "aaaaaaaa-bbbb-cccc-dddd-eeeeeeeeeeee";
+    private static final String GUILD_BODY = "{\"guild\":{\"guildId\":\"guild-1\",\"guildTag\":\"TAG\",\"name\":\"Test Guild\",\"level\":5,"
+            + "\"members\":[],\"guildRaidSeasons\":[78]}}";
+    private static final String SEASON_BODY = "{\"season\":78,\"seasonConfigId\":\"config\",\"entries\":["
+            + "{\"userId\":\"user1\",\"tier\":1,\"set\":0,\"encounterIndex\":0,\"remainingHp\":5000,\"maxHp\":10000,"
+            + "\"encounterType\":\"Boss\",\"unitId\":\"GuildBoss1Boss1TyranTervigonLeviathan\",\"type\":\"TervigonLeviathan\","
+            + "\"rarity\":\"Common\",\"damageDealt\":5000,\"damageType\":\"Battle\",\"heroDetails\":[],\"globalConfigHash\":\"hash\"}]}";
+
+    @TempDir
+    Path archiveDir;
+
+    private StubApiServer server;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new StubApiServer();
+
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        server.close();
+    }
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        server.respond(200, GUILD_BODY);
+        server.respond(200, SEASON_BODY);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+            client.getGuildRaidSeason(API_KEY, null, 78, true, raid -> { });
+        }
+        server.close();
+
+        List<String> index = Files.readAllLines(archiveDir.resolve(TrafficArchive.INDEX_FILE));
+        assertEquals(2, index.size());
+        assertTrue(index.get(0).contains("\"endpoint\":\"/api/v1/guild\""));
+        assertTrue(index.get(1).contains("\"status\":200"));
+        assertEquals(SEASON_BODY, readBody(archiveDir.resolve(TrafficArchive.BODY_DIRECTORY).resolve("000002.json.gz")));
+
+        try (TacticusApiClient client = createClient("http://127.0.0.1:1", TrafficArchive.replay(archiveDir, false))) {
+            List<GuildRaidResponse.Raid> raids = new ArrayList<>();
+            assertEquals("Test Guild", client.getGuild(API_KEY).getGuild().getName());
+            assertEquals(78, client.getGuildRaidSeason(API_KEY, null, 78, true, raids::add).getSeason());
+            assertEquals(1, raids.size());
+            // The last exchange of an endpoint is repeated
+            assertEquals("Test Guild", client.getGuild(API_KEY).getGuild().getName());
+        }
+    }
+
+    @Test
+    public void testApiKeyIsNeverRecorded() throws Exception {
+        server.respond(200, GUILD_BODY);
+        server.respond(403, "{\"type\":\"FORBIDDEN\"}");
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+            assertThrows(TacticusApiException.class, () -> client.getGuild(API_KEY));
+        }
+
+        try (Stream<Path> files = Files.walk(archiveDir)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String content = file.toString().endsWith(".gz") ? readBody(file) : Files.readString(file);
+                assertFalse(content.contains(API_KEY), "API key written to " + file);
+            }
+        }
+        assertTrue(Files.readString(archiveDir.resolve(TrafficArchive.INDEX_FILE)).contains(TrafficArchive.fingerprint(API_KEY)));
+    }
+
+    @Test
+    public void testRetriesAreReplayedInOrder() throws Exception {
+        server.respond(500, "{\"type\":\"UNKNOWN_ERROR\"}");
+        server.respond(200, GUILD_BODY);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+        }
+
+        try (TacticusApiClient client = createClient("http://127.0.0.1:1", TrafficArchive.replay(archiveDir, false))) {
+            assertEquals("Test Guild", client.getGuild(API_KEY).getGuild().getName());
+        }
+        assertEquals(2, Files.readAllLines(archiveDir.resolve(TrafficArchive.INDEX_FILE)).size());
+    }
+
+    @Test
+    public void testReplayWithOtherKeyAndMissingEndpoint() throws Exception {
+        server.respond(200, GUILD_BODY);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+        }
+
+        try (TacticusApiClient client = createClient("http://127.0.0.1:1", TrafficArchive.replay(archiveDir, false))) {
+            assertEquals("Test Guild", client.getGuild("other-key").getGuild().getName());
+            IOException e = assertThrows(IOException.class, () -> client.getGuildRaidSeason("other-key", null, 78, true, raid -> { }));
+            assertTrue(e.getMessage().contains("No traffic recorded"));
+        }
+    }
+
+    @Test
+    public void testReplayWithRecordedTimings() throws Exception {
+        server.respond(200, GUILD_BODY, 200);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+        }
+
+        try (TacticusApiClient client = createClient("http://127.0.0.1:1", TrafficArchive.replay(archiveDir, true))) {
+            long start = System.nanoTime();
+            client.getGuild(API_KEY);
+            assertTrue(System.nanoTime() - start >= 190_000_000L);
+        }
+    }
+
+    @Test
+    public void testReplayKeepsRecordedOffsets() throws Exception {
+        server.respond(200, GUILD_BODY);
+        server.respond(200, GUILD_BODY);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+            Thread.sleep(300);
+            client.getGuild(API_KEY);
+        }
+
+        try (TacticusApiClient client = createClient("http://127.0.0.1:1", TrafficArchive.replay(archiveDir, true))) {
+            long start = System.nanoTime();
+            client.getGuild(API_KEY);
+            client.getGuild(API_KEY);
+            assertTrue(System.nanoTime() - start >= 290_000_000L);
+        }
+    }
+
+    @Test
+    public void testFailedBodyTransferIsRecorded() throws Exception {
+        server.respondTruncated(200, SEASON_BODY);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            assertThrows(IOException.class, () -> client.getGuildRaidSeason(API_KEY, null, 78, true, raid -> { }));
+        }
+
+        List<String> index = Files.readAllLines(archiveDir.resolve(TrafficArchive.INDEX_FILE));
+        assertFalse(index.isEmpty());
+        assertTrue(index.get(0).contains("\"status\":200"));
+        assertFalse(index.get(0).contains("\"error\":null"), index.get(0));
+    }
+
+    @Test
+    public void testFailedBodyTransferIsReplayedWithoutRetry() throws Exception {
+        server.respondTruncated(200, SEASON_BODY);
+        server.respond(200, SEASON_BODY);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            assertThrows(IOException.class, () -> client.getGuildRaidSeason(API_KEY, null, 78, true, raid -> { }));
+            client.getGuildRaidSeason(API_KEY, null, 78, true, raid -> { });
+        }
+        assertEquals(2, server.getRequestCount());
+
+        // a retry would be answered with the second, complete exchange
+        try (TacticusApiClient client = createClient("http://127.0.0.1:1", TrafficArchive.replay(archiveDir, false))) {
+            assertThrows(IOException.class, () -> client.getGuildRaidSeason(API_KEY, null, 78, true, raid -> { }));
+            List<GuildRaidResponse.Raid> raids = new ArrayList<>();
+            client.getGuildRaidSeason(API_KEY, null, 78, true, raids::add);
+            assertEquals(1, raids.size());
+        }
+    }
+
+    @Test
+    public void testRecordingAppendsToArchive() throws Exception {
+        server.respond(200, GUILD_BODY);
+        server.respond(200, GUILD_BODY);
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+        }
+        try (TacticusApiClient client = createClient(server.getBaseUrl(), TrafficArchive.record(archiveDir))) {
+            client.getGuild(API_KEY);
+        }
+
+        assertTrue(Files.exists(archiveDir.resolve(TrafficArchive.BODY_DIRECTORY).resolve("000002.json.gz")));
+        assertEquals(2, Files.readAllLines(archiveDir.resolve(TrafficArchive.INDEX_FILE)).size());
+    }
+
+    private static TacticusApiClient createClient(String baseUrl, TrafficArchive archive) {
+        TacticusApiClient.Settings settings = new TacticusApiClient.Settings(2, 1000, 5000, 10_000, 3, 1, 5, 1000, 0, 1);
+        return new TacticusApiClient(baseUrl, settings, null, archive);
+    }
+
+    private static String readBody(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
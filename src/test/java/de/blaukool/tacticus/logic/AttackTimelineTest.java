@@ -0,0 +1,83 @@
+package de.blaukool.tacticus.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttackTimelineTest {
+
+    @Test
+    public void testAttacksWithSameHealthAreKept() {
+        AttackTimeline timeline = new AttackTimeline();
+        timeline.add(new Attack("Alice", 5000, 0));
+        timeline.add(new Attack("Bob", 3000, 0));
+        timeline.add(new Attack("Carol", 1000, 0));
+
+        assertEquals(3, timeline.size());
+        // Equal attacks stay in the order they were added
+        assertEquals("Alice", timeline.get(0).getAttackerName());
+        assertEquals("Carol", timeline.get(2).getAttackerName());
+    }
+
+    @Test
+    public void testSortedByTimeThenHealth() {
+        AttackTimeline timeline = new AttackTimeline();
+        timeline.add(new Attack("Late", 100, 500, 3000, 4000));
+        timeline.add(new Attack("Early", 100, 900, 1000, 2000));
+        timeline.add(new Attack("SameTimeLowerHp", 100, 700, 1500, 2000));
+        timeline.add(new Attack("NotCompleted", 100, 800, 2500, RaidTable.NO_TIME));
+
+        assertEquals(List.of("Early", "SameTimeLowerHp", "NotCompleted", "Late"),
+                timeline.stream().map(Attack::getAttackerName).toList());
+    }
+
+    @Test
+    public void testWithoutTimestampsSortedByHealth() {
+        AttackTimeline timeline = new AttackTimeline();
+        timeline.add(new Attack("Second", 100, 800));
+        timeline.add(new Attack("First", 100, 900));
+
+        assertEquals("First", timeline.get(0).getAttackerName());
+    }
+
+    @Test
+    public void testAddAfterRead() {
+        AttackTimeline timeline = new AttackTimeline();
+        timeline.add(new Attack("Second", 100, 800));
+        assertEquals("Second", timeline.get(0).getAttackerName());
+
+        timeline.add(new Attack("First", 100, 900));
+
+        assertEquals("First", timeline.get(0).getAttackerName());
+        assertEquals(2, timeline.size());
+
+        timeline.clear();
+        assertTrue(timeline.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentAddsAreKeptAndSorted() throws Exception {
+        AttackTimeline timeline = new AttackTimeline();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4000; i++) {
+            int time = i;
+            executor.execute(() -> {
+                timeline.add(new Attack("Attacker" + time, 1, 0, time, time + 1));
+                // Reads sort the timeline while other threads are still adding
+                timeline.get(0);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(4000, timeline.size());
+        for (int i = 0; i < 4000; i++) {
+            assertEquals("Attacker" + i, timeline.get(i).getAttackerName());
+        }
+    }
+}
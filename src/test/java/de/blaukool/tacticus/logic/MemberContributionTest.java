@@ -19,12 +19,12 @@ public class MemberContributionTest {
         assertNull(memberContribution.getName());
         assertNull(memberContribution.getRole());
         assertNull(memberContribution.getLevel());
-        assertEquals(Integer.valueOf(0), memberContribution.getBossBattle());
-        assertEquals(Integer.valueOf(0), memberContribution.getSidebossBattle());
-        assertEquals(Integer.valueOf(0), memberContribution.getBossBomb());
-        assertEquals(Integer.valueOf(0), memberContribution.getSidebossBomb());
-        assertEquals(Integer.valueOf(0), memberContribution.getBattleCount());
-        assertEquals(Integer.valueOf(0), memberContribution.getBombCount());
+        assertEquals(0, memberContribution.getBossBattle());
+        assertEquals(0, memberContribution.getSidebossBattle());
+        assertEquals(0, memberContribution.getBossBomb());
+        assertEquals(0, memberContribution.getSidebossBomb());
+        assertEquals(0, memberContribution.getBattleCount());
+        assertEquals(0, memberContribution.getBombCount());
     }
 
     @Test
@@ -87,7 +87,7 @@ public class MemberContributionTest {
     @Test
     public void testSetAndGetDamage() {
         // Test setting and getting damage
-        Integer testDamage = 1000;
+        long testDamage = 1000;
         memberContribution.setBossBattle(testDamage);
         assertEquals(testDamage, memberContribution.getBossBattle());
     }
@@ -95,7 +95,7 @@ public class MemberContributionTest {
     @Test
     public void testSetAndGetDamage_Zero() {
         // Test setting zero damage
-        Integer zeroDamage = 0;
+        long zeroDamage = 0;
         memberContribution.setBossBattle(zeroDamage);
         assertEquals(zeroDamage, memberContribution.getBossBattle());
     }
@@ -103,24 +103,17 @@ public class MemberContributionTest {
     @Test
     public void testSetAndGetDamage_Negative() {
         // Test setting negative damage
-        Integer negativeDamage = -500;
+        long negativeDamage = -500;
         memberContribution.setBossBattle(negativeDamage);
         assertEquals(negativeDamage, memberContribution.getBossBattle());
     }
 
-    @Test
-    public void testSetAndGetDamage_Null() {
-        // Test setting null damage
-        memberContribution.setBossBattle(null);
-        assertNull(memberContribution.getBossBattle());
-    }
-
     @Test
     public void testAddBossBattle_FromZero() {
         // Test adding damage from initial zero value
-        Integer additionalDamage = 500;
+        long additionalDamage = 500;
         memberContribution.addBossBattle(additionalDamage);
-        assertEquals(Integer.valueOf(500), memberContribution.getBossBattle());
+        assertEquals(500, memberContribution.getBossBattle());
     }
 
     @Test
@@ -128,7 +121,7 @@ public class MemberContributionTest {
         // Test adding damage to existing value
         memberContribution.setBossBattle(1000);
         memberContribution.addBossBattle(500);
-        assertEquals(Integer.valueOf(1500), memberContribution.getBossBattle());
+        assertEquals(1500, memberContribution.getBossBattle());
     }
 
     @Test
@@ -137,7 +130,7 @@ public class MemberContributionTest {
         memberContribution.addBossBattle(100);
         memberContribution.addBossBattle(200);
         memberContribution.addBossBattle(300);
-        assertEquals(Integer.valueOf(600), memberContribution.getBossBattle());
+        assertEquals(600, memberContribution.getBossBattle());
     }
 
     @Test
@@ -145,7 +138,7 @@ public class MemberContributionTest {
         // Test adding zero damage
         memberContribution.setBossBattle(500);
         memberContribution.addBossBattle(0);
-        assertEquals(Integer.valueOf(500), memberContribution.getBossBattle());
+        assertEquals(500, memberContribution.getBossBattle());
     }
 
     @Test
@@ -153,29 +146,7 @@ public class MemberContributionTest {
         // Test adding negative damage (should decrease total)
         memberContribution.setBossBattle(1000);
         memberContribution.addBossBattle(-300);
-        assertEquals(Integer.valueOf(700), memberContribution.getBossBattle());
-    }
-
-    @Test
-    public void testAddBossBattle_Null() {
-        // Test adding null damage (should throw NullPointerException)
-        memberContribution.setBossBattle(500);
-        assertThrows(NullPointerException.class, () -> {
-            memberContribution.addBossBattle(null);
-        });
-        // Damage should remain unchanged after exception
-        assertEquals(Integer.valueOf(500), memberContribution.getBossBattle());
-    }
-
-    @Test
-    public void testAddDamage_WhenBossBattleIsNull() {
-        // Test adding damage when current damage is null (should throw NullPointerException)
-        memberContribution.setBossBattle(null);
-        assertThrows(NullPointerException.class, () -> {
-            memberContribution.addBossBattle(500);
-        });
-        // Should remain null after exception
-        assertNull(memberContribution.getBossBattle());
+        assertEquals(700, memberContribution.getBossBattle());
     }
 
     @Test
@@ -236,7 +207,7 @@ public class MemberContributionTest {
         assertEquals(playerName, memberContribution.getName());
         assertEquals(playerRole, memberContribution.getRole());
         assertEquals(playerLevel, memberContribution.getLevel());
-        assertEquals(Integer.valueOf(4250), memberContribution.getBossBattle());
+        assertEquals(4250, memberContribution.getBossBattle());
     }
 
     @Test
@@ -244,25 +215,31 @@ public class MemberContributionTest {
         // Test with large damage values
         memberContribution.setBossBattle(Integer.MAX_VALUE - 1000);
         memberContribution.addBossBattle(500);
-        assertEquals(Integer.valueOf(Integer.MAX_VALUE - 500), memberContribution.getBossBattle());
+        assertEquals(Integer.MAX_VALUE - 500, memberContribution.getBossBattle());
     }
 
     @Test
-    public void testOverflowHandling() {
-        // Test integer overflow behavior
+    public void testNoOverflowBeyondIntRange() {
+        // Damage is counted in longs, so it grows past Integer.MAX_VALUE
         memberContribution.setBossBattle(Integer.MAX_VALUE);
         memberContribution.addBossBattle(1);
-        // This will overflow to Integer.MIN_VALUE
-        assertEquals(Integer.valueOf(Integer.MIN_VALUE), memberContribution.getBossBattle());
+        assertEquals(Integer.MAX_VALUE + 1L, memberContribution.getBossBattle());
     }
 
     @Test
-    public void testUnderflowHandling() {
-        // Test integer underflow behavior
+    public void testNoUnderflowBeyondIntRange() {
         memberContribution.setBossBattle(Integer.MIN_VALUE);
         memberContribution.addBossBattle(-1);
-        // This will underflow to Integer.MAX_VALUE
-        assertEquals(Integer.valueOf(Integer.MAX_VALUE), memberContribution.getBossBattle());
+        assertEquals(Integer.MIN_VALUE - 1L, memberContribution.getBossBattle());
+    }
+
+    @Test
+    public void testTotalDamage() {
+        memberContribution.addBossBattle(Integer.MAX_VALUE);
+        memberContribution.addBossBomb(Integer.MAX_VALUE);
+        memberContribution.addSidebossBattle(1000);
+        memberContribution.addSidebossBomb(500);
+        assertEquals(2L * Integer.MAX_VALUE + 1500, memberContribution.getTotalDamage());
     }
 
     @Test
@@ -297,113 +274,93 @@ public class MemberContributionTest {
         memberContribution.setBossBattle(100);
         
         memberContribution.addBossBattle(50);
-        assertEquals(Integer.valueOf(150), memberContribution.getBossBattle());
+        assertEquals(150, memberContribution.getBossBattle());
         
         memberContribution.setName("UpdatedName");
         assertEquals("UpdatedName", memberContribution.getName());
         
         memberContribution.addBossBattle(25);
-        assertEquals(Integer.valueOf(175), memberContribution.getBossBattle());
+        assertEquals(175, memberContribution.getBossBattle());
         
         memberContribution.setBossBattle(0);
-        assertEquals(Integer.valueOf(0), memberContribution.getBossBattle());
+        assertEquals(0, memberContribution.getBossBattle());
         assertEquals("UpdatedName", memberContribution.getName());
     }
 
     @Test
     public void testBattleCountGetterSetter() {
         // Test battle count getter and setter
-        Integer testCount = 5;
+        long testCount = 5;
         memberContribution.setBattleCount(testCount);
         assertEquals(testCount, memberContribution.getBattleCount());
         
         // Test with zero
         memberContribution.setBattleCount(0);
-        assertEquals(Integer.valueOf(0), memberContribution.getBattleCount());
-        
-        // Test with null
-        memberContribution.setBattleCount(null);
-        assertNull(memberContribution.getBattleCount());
+        assertEquals(0, memberContribution.getBattleCount());
+
     }
 
     @Test
     public void testBombCountGetterSetter() {
         // Test bomb count getter and setter
-        Integer testCount = 3;
+        long testCount = 3;
         memberContribution.setBombCount(testCount);
         assertEquals(testCount, memberContribution.getBombCount());
         
         // Test with zero
         memberContribution.setBombCount(0);
-        assertEquals(Integer.valueOf(0), memberContribution.getBombCount());
-        
-        // Test with null
-        memberContribution.setBombCount(null);
-        assertNull(memberContribution.getBombCount());
+        assertEquals(0, memberContribution.getBombCount());
+
     }
 
     @Test
     public void testIncrementBattleCount() {
         // Test incrementing battle count from default
         memberContribution.incrementBattleCount();
-        assertEquals(Integer.valueOf(1), memberContribution.getBattleCount());
+        assertEquals(1, memberContribution.getBattleCount());
         
         // Test multiple increments
         memberContribution.incrementBattleCount();
         memberContribution.incrementBattleCount();
-        assertEquals(Integer.valueOf(3), memberContribution.getBattleCount());
+        assertEquals(3, memberContribution.getBattleCount());
         
         // Test increment from set value
         memberContribution.setBattleCount(10);
         memberContribution.incrementBattleCount();
-        assertEquals(Integer.valueOf(11), memberContribution.getBattleCount());
+        assertEquals(11, memberContribution.getBattleCount());
     }
 
     @Test
     public void testIncrementBombCount() {
         // Test incrementing bomb count from default
         memberContribution.incrementBombCount();
-        assertEquals(Integer.valueOf(1), memberContribution.getBombCount());
+        assertEquals(1, memberContribution.getBombCount());
         
         // Test multiple increments
         memberContribution.incrementBombCount();
         memberContribution.incrementBombCount();
-        assertEquals(Integer.valueOf(3), memberContribution.getBombCount());
+        assertEquals(3, memberContribution.getBombCount());
         
         // Test increment from set value
         memberContribution.setBombCount(7);
         memberContribution.incrementBombCount();
-        assertEquals(Integer.valueOf(8), memberContribution.getBombCount());
-    }
-
-    @Test
-    public void testIncrementCountsWhenNull() {
-        // Test incrementing when counts are null (should throw NullPointerException)
-        memberContribution.setBattleCount(null);
-        assertThrows(NullPointerException.class, () -> {
-            memberContribution.incrementBattleCount();
-        });
-        
-        memberContribution.setBombCount(null);
-        assertThrows(NullPointerException.class, () -> {
-            memberContribution.incrementBombCount();
-        });
+        assertEquals(8, memberContribution.getBombCount());
     }
 
     @Test
     public void testSidebossFields() {
         // Test sideboss battle damage
-        Integer sidebossBattleDamage = 1500;
+        long sidebossBattleDamage = 1500;
         memberContribution.setSidebossBattle(sidebossBattleDamage);
         assertEquals(sidebossBattleDamage, memberContribution.getSidebossBattle());
         
         // Test sideboss bomb damage
-        Integer sidebossBombDamage = 2000;
+        long sidebossBombDamage = 2000;
         memberContribution.setSidebossBomb(sidebossBombDamage);
         assertEquals(sidebossBombDamage, memberContribution.getSidebossBomb());
         
         // Test boss bomb damage
-        Integer bossBombDamage = 1800;
+        long bossBombDamage = 1800;
         memberContribution.setBossBomb(bossBombDamage);
         assertEquals(bossBombDamage, memberContribution.getBossBomb());
     }
@@ -412,30 +369,30 @@ public class MemberContributionTest {
     public void testAddSidebossBattle() {
         // Test adding sideboss battle damage
         memberContribution.addSidebossBattle(500);
-        assertEquals(Integer.valueOf(500), memberContribution.getSidebossBattle());
+        assertEquals(500, memberContribution.getSidebossBattle());
         
         memberContribution.addSidebossBattle(300);
-        assertEquals(Integer.valueOf(800), memberContribution.getSidebossBattle());
+        assertEquals(800, memberContribution.getSidebossBattle());
     }
 
     @Test
     public void testAddBossBomb() {
         // Test adding boss bomb damage
         memberContribution.addBossBomb(750);
-        assertEquals(Integer.valueOf(750), memberContribution.getBossBomb());
+        assertEquals(750, memberContribution.getBossBomb());
         
         memberContribution.addBossBomb(250);
-        assertEquals(Integer.valueOf(1000), memberContribution.getBossBomb());
+        assertEquals(1000, memberContribution.getBossBomb());
     }
 
     @Test
     public void testAddSidebossBomb() {
         // Test adding sideboss bomb damage
         memberContribution.addSidebossBomb(400);
-        assertEquals(Integer.valueOf(400), memberContribution.getSidebossBomb());
+        assertEquals(400, memberContribution.getSidebossBomb());
         
         memberContribution.addSidebossBomb(600);
-        assertEquals(Integer.valueOf(1000), memberContribution.getSidebossBomb());
+        assertEquals(1000, memberContribution.getSidebossBomb());
     }
 
     @Test
@@ -465,23 +422,42 @@ public class MemberContributionTest {
         assertEquals(playerName, memberContribution.getName());
         assertEquals(playerRole, memberContribution.getRole());
         assertEquals(playerLevel, memberContribution.getLevel());
-        assertEquals(Integer.valueOf(1000), memberContribution.getBossBattle());
-        assertEquals(Integer.valueOf(500), memberContribution.getBossBomb());
-        assertEquals(Integer.valueOf(750), memberContribution.getSidebossBattle());
-        assertEquals(Integer.valueOf(300), memberContribution.getSidebossBomb());
-        assertEquals(Integer.valueOf(2), memberContribution.getBattleCount());
-        assertEquals(Integer.valueOf(2), memberContribution.getBombCount());
+        assertEquals(1000, memberContribution.getBossBattle());
+        assertEquals(500, memberContribution.getBossBomb());
+        assertEquals(750, memberContribution.getSidebossBattle());
+        assertEquals(300, memberContribution.getSidebossBomb());
+        assertEquals(2, memberContribution.getBattleCount());
+        assertEquals(2, memberContribution.getBombCount());
     }
 
     @Test
-    public void testCounterOverflow() {
-        // Test counter overflow behavior
+    public void testCounterBeyondIntRange() {
+        // Counters are longs as well
         memberContribution.setBattleCount(Integer.MAX_VALUE);
         memberContribution.incrementBattleCount();
-        assertEquals(Integer.valueOf(Integer.MIN_VALUE), memberContribution.getBattleCount());
-        
+        assertEquals(Integer.MAX_VALUE + 1L, memberContribution.getBattleCount());
+
         memberContribution.setBombCount(Integer.MAX_VALUE);
         memberContribution.incrementBombCount();
-        assertEquals(Integer.valueOf(Integer.MIN_VALUE), memberContribution.getBombCount());
+        assertEquals(Integer.MAX_VALUE + 1L, memberContribution.getBombCount());
+    }
+
+    @Test
+    public void testAddContribution() {
+        memberContribution.addBossBattle(1000);
+        memberContribution.incrementBattleCount();
+        MemberContribution other = new MemberContribution();
+        other.addBossBattle(500);
+        other.addSidebossBomb(300);
+        other.incrementBattleCount();
+        other.incrementBombCount();
+
+        memberContribution.add(other);
+
+        assertEquals(1500, memberContribution.getBossBattle());
+        assertEquals(300, memberContribution.getSidebossBomb());
+        assertEquals(2, memberContribution.getBattleCount());
+        assertEquals(1, memberContribution.getBombCount());
+        assertEquals(500, other.getBossBattle());
     }
-}
\ No newline at end of file
+}
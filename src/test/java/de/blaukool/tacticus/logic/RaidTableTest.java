@@ -0,0 +1,129 @@
+package de.blaukool.tacticus.logic;
+
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RaidTableTest {
+
+    @Test
+    public void testRowsKeepAllReportedValues() {
+        RaidTable table = new RaidTable();
+        GuildRaidResponse.Raid raid = createRaid("user1", "Legendary", 1500);
+        raid.setEncounterIndex(2);
+        raid.setMaxHp(2_000_000);
+        raid.setStartedOn(new Date(1_700_000_000_000L));
+        raid.setCompletedOn(new Date(1_700_000_060_000L));
+
+        table.accept(raid);
+
+        assertEquals(1, table.size());
+        assertEquals("user1", table.getUserId(0));
+        assertEquals(3, table.getTier(0));
+        assertEquals(1, table.getSet(0));
+        assertEquals(2, table.getEncounterIndex(0));
+        assertEquals(1500, table.getDamageDealt(0));
+        assertEquals(900_000, table.getRemainingHp(0));
+        assertEquals(2_000_000, table.getMaxHp(0));
+        assertEquals(1_700_000_000_000L, table.getStartedOn(0));
+        assertEquals(1_700_000_060_000L, table.getCompletedOn(0));
+        assertEquals("Boss", table.getEncounterType(0));
+        assertEquals("Battle", table.getDamageType(0));
+        assertEquals("Legendary", table.getRarity(0));
+        assertEquals("TervigonLeviathan", table.getType(0));
+        assertEquals("GuildBoss1Boss1TyranTervigonLeviathan", table.getUnitId(0));
+
+        GuildRaidResponse.Raid copy = table.toRaid(0);
+        assertEquals(raid.toString(), copy.toString());
+        assertEquals(raid.getStartedOn(), copy.getStartedOn());
+        assertEquals(raid.getCompletedOn(), copy.getCompletedOn());
+        assertEquals(raid.getMaxHp(), copy.getMaxHp());
+    }
+
+    @Test
+    public void testStringsAreStoredOncePerSeason() {
+        RaidTable table = new RaidTable();
+        for (int i = 0; i < 1000; i++) {
+            table.accept(createRaid("user" + (i % 3), i % 2 == 0 ? "Legendary" : "Epic", i));
+        }
+
+        assertEquals(1000, table.size());
+        assertEquals(3, table.getUserIds().size());
+        assertEquals(2, table.getRarities().size());
+        assertEquals(1, table.getTypes().size());
+        assertEquals(table.getUserIdCode(0), table.getUserIdCode(3));
+        assertEquals(table.getUserIds().codeOf("user2"), table.getUserIdCode(2));
+        assertEquals(-1, table.getUserIds().codeOf("unknown"));
+        assertEquals(999, table.getDamageDealt(999));
+    }
+
+    @Test
+    public void testMissingValues() {
+        RaidTable table = new RaidTable();
+        GuildRaidResponse.Raid raid = new GuildRaidResponse.Raid();
+
+        table.accept(raid);
+
+        assertEquals(-1, table.getUserIdCode(0));
+        assertNull(table.getUserId(0));
+        assertNull(table.getRarity(0));
+        assertEquals(RaidTable.NO_TIME, table.getStartedOn(0));
+        assertNull(table.toRaid(0).getStartedOn());
+    }
+
+    @Test
+    public void testRowsList() {
+        RaidTable table = new RaidTable();
+        table.accept(createRaid("user1", "Epic", 100));
+        table.accept(createRaid("user2", "Epic", 200));
+        table.accept(createRaid("user1", "Epic", 300));
+
+        RaidTable.Rows rows = table.new Rows();
+        rows.addRow(0);
+        rows.addRow(2);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.getRow(1));
+        assertEquals(300, rows.get(1).getDamageDealt());
+        assertThrows(IndexOutOfBoundsException.class, () -> rows.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> rows.add(new GuildRaidResponse.Raid()));
+    }
+
+    @Test
+    public void testAddAllRecodesStrings() {
+        RaidTable first = new RaidTable();
+        first.accept(createRaid("user1", "Epic", 100));
+        RaidTable second = new RaidTable();
+        second.accept(createRaid("user2", "Legendary", 200));
+        second.accept(createRaid("user1", "Epic", 300));
+        second.accept(new GuildRaidResponse.Raid());
+
+        first.addAll(second);
+
+        assertEquals(4, first.size());
+        assertEquals("user2", first.getUserId(1));
+        assertEquals("Legendary", first.getRarity(1));
+        assertEquals(first.getUserIdCode(0), first.getUserIdCode(2));
+        assertEquals(300, first.getDamageDealt(2));
+        assertNull(first.getUserId(3));
+        assertEquals(2, first.getUserIds().size());
+    }
+
+    private GuildRaidResponse.Raid createRaid(String userId, String rarity, int damage) {
+        GuildRaidResponse.Raid raid = new GuildRaidResponse.Raid();
+        raid.setUserId(userId);
+        raid.setEncounterType("Boss");
+        raid.setDamageType("Battle");
+        raid.setDamageDealt(damage);
+        raid.setRemainingHp(900_000);
+        raid.setTier(3);
+        raid.setSet(1);
+        raid.setRarity(rarity);
+        raid.setType("TervigonLeviathan");
+        raid.setUnitId("GuildBoss1Boss1TyranTervigonLeviathan");
+        return raid;
+    }
+}
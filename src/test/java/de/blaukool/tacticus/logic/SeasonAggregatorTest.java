@@ -0,0 +1,328 @@
+package de.blaukool.tacticus.logic;
+
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeasonAggregatorTest {
+
+    private Map<String, String> memberNames;
+    private Map<String, String> memberRoles;
+    private Map<String, Integer> memberLevel;
+
+    @BeforeEach
+    public void setUp() {
+        memberNames = new HashMap<>();
+        memberRoles = new HashMap<>();
+        memberLevel = new HashMap<>();
+        memberNames.put("user1", "Alice");
+        memberRoles.put("user1", "LEADER");
+        memberLevel.put("user1", 50);
+        memberNames.put("user2", "Bob");
+        memberRoles.put("user2", "MEMBER");
+        memberLevel.put("user2", 30);
+    }
+
+    @Test
+    public void testMembersInitializedWithoutEntries() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+
+        assertEquals(0, aggregator.getEntryCount());
+        assertEquals(2, aggregator.getMemberContributions().size());
+        MemberContribution alice = aggregator.getMemberContributions().get("user1");
+        assertEquals("Alice", alice.getName());
+        assertEquals("LEADER", alice.getRole());
+        assertEquals(Integer.valueOf(50), alice.getLevel());
+        assertEquals(0, alice.getBossBattle());
+    }
+
+    @Test
+    public void testDamageCategorization() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+
+        aggregator.accept(createRaid("user1", "Boss", "Battle", 1000, 9000));
+        aggregator.accept(createRaid("user1", "Boss", "Bomb", 500, 8500));
+        aggregator.accept(createRaid("user1", "SideBoss", "Battle", 300, 700));
+        aggregator.accept(createRaid("user1", "SideBoss", "Bomb", 200, 500));
+
+        MemberContribution alice = aggregator.getMemberContributions().get("user1");
+        assertEquals(4, aggregator.getEntryCount());
+        assertEquals(1000, alice.getBossBattle());
+        assertEquals(500, alice.getBossBomb());
+        assertEquals(300, alice.getSidebossBattle());
+        assertEquals(200, alice.getSidebossBomb());
+        assertEquals(2, alice.getBattleCount());
+        assertEquals(2, alice.getBombCount());
+    }
+
+    @Test
+    public void testRaidsOnlyKeptWhenRequested() {
+        SeasonAggregator dropping = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+        SeasonAggregator keeping = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+        GuildRaidResponse.Raid raid = createRaid("user2", "Boss", "Battle", 1000, 9000);
+
+        dropping.accept(raid);
+        keeping.accept(raid);
+
+        assertTrue(dropping.getMemberContributions().get("user2").getRaids().isEmpty());
+        assertEquals(1, keeping.getMemberContributions().get("user2").getRaids().size());
+    }
+
+    @Test
+    public void testKeptRaidsIncludeHeroDetails() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, true, true);
+        GuildRaidResponse.Raid raid = createRaid("user1", "Boss", "Battle", 1000, 9000);
+        raid.setHeroDetails(List.of(createHero("ultraEliminatorSgt", 5000), createHero("bloodAngelsAssaultMarine", 4200)));
+        raid.setMachineOfWarDetails(createHero("adeptusRhino", 3000));
+        GuildRaidResponse.Raid bomb = createRaid("user1", "Boss", "Bomb", 500, 8500);
+
+        aggregator.accept(raid);
+        aggregator.accept(bomb);
+
+        List<GuildRaidResponse.Raid> raids = aggregator.getMemberContributions().get("user1").getRaids();
+        assertEquals(2, raids.size());
+        assertEquals(1000, raids.get(0).getDamageDealt());
+        assertEquals(raid.getHeroDetails(), raids.get(0).getHeroDetails());
+        assertEquals("adeptusRhino", raids.get(0).getMachineOfWarDetails().getUnitId());
+        assertNull(raids.get(1).getHeroDetails());
+    }
+
+    @Test
+    public void testKeptRaidsWithoutHeroDetails() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+        GuildRaidResponse.Raid raid = createRaid("user1", "Boss", "Battle", 1000, 9000);
+        raid.setHeroDetails(List.of(createHero("ultraEliminatorSgt", 5000)));
+        raid.setMachineOfWarDetails(createHero("adeptusRhino", 3000));
+
+        aggregator.accept(raid);
+
+        List<GuildRaidResponse.Raid> raids = aggregator.getMemberContributions().get("user1").getRaids();
+        assertEquals(1, raids.size());
+        assertEquals(1000, raids.get(0).getDamageDealt());
+        assertNull(raids.get(0).getHeroDetails());
+        assertNull(raids.get(0).getMachineOfWarDetails());
+    }
+
+    @Test
+    public void testParallelAggregationKeepsHeroDetails() {
+        List<GuildRaidResponse.Raid> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            GuildRaidResponse.Raid raid = createRaid("user" + (i % 2 + 1), "Boss", "Battle", i + 1, 9000);
+            raid.setHeroDetails(List.of(createHero("hero" + i, i)));
+            entries.add(raid);
+        }
+
+        SeasonAggregator aggregator = SeasonAggregator.aggregate(entries, memberNames, memberRoles, memberLevel, true, true);
+
+        List<GuildRaidResponse.Raid> raids = aggregator.getMemberContributions().get("user2").getRaids();
+        assertEquals(1000, raids.size());
+        for (int i = 0; i < raids.size(); i++) {
+            assertEquals("hero" + (2 * i + 1), raids.get(i).getHeroDetails().get(0).getUnitId());
+        }
+    }
+
+    @Test
+    public void testAddRaidToKeptRaids() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+        aggregator.accept(createRaid("user1", "Boss", "Battle", 1000, 9000));
+        MemberContribution contribution = aggregator.getMemberContributions().get("user1");
+
+        contribution.addRaid(createRaid("user1", "Boss", "Battle", 700, 8300));
+
+        assertEquals(2, contribution.getRaids().size());
+        assertEquals(1000, contribution.getRaids().get(0).getDamageDealt());
+        assertEquals(700, contribution.getRaids().get(1).getDamageDealt());
+    }
+
+    @Test
+    public void testDischargedMember() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+
+        aggregator.accept(createRaid("former-member", "Boss", "Battle", 1000, 9000));
+
+        MemberContribution discharged = aggregator.getMemberContributions().get("former-member");
+        assertNotNull(discharged);
+        assertEquals("Discharged", discharged.getRole());
+        assertEquals(1000, discharged.getBossBattle());
+    }
+
+    @Test
+    public void testSortedContributionsByTotalDamage() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+
+        aggregator.accept(createRaid("user1", "Boss", "Battle", 1000, 9000));
+        aggregator.accept(createRaid("user2", "Boss", "Battle", 3000, 6000));
+
+        List<MemberContribution> sorted = aggregator.getSortedContributions();
+        assertEquals("Bob", sorted.get(0).getName());
+        assertEquals("Alice", sorted.get(1).getName());
+    }
+
+    @Test
+    public void testBossView() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+
+        aggregator.accept(createRaid("user1", "Boss", "Battle", 1000, 9000));
+        aggregator.accept(createRaid("user2", "Boss", "Battle", 2000, 7000));
+        aggregator.accept(createRaid("user1", "SideBoss", "Battle", 300, 700));
+
+        SortedSet<Boss> bosses = aggregator.getBosses();
+        assertEquals(1, bosses.size());
+        Boss boss = bosses.first();
+        assertEquals("TervigonLeviathan", boss.getName());
+        assertEquals(2, boss.getAttacks().size());
+        assertEquals(1, boss.getSideboss().size());
+        assertEquals("TyranWingedPrime", boss.getSideboss().get(0).getName());
+        assertEquals(1, boss.getSideboss().get(0).getAttacks().size());
+    }
+
+    @Test
+    public void testEntriesAddedAfterReadingAreAggregated() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+
+        aggregator.accept(createRaid("user1", "Boss", "Battle", 1000, 9000));
+        assertEquals(1000, aggregator.getMemberContributions().get("user1").getBossBattle());
+        aggregator.accept(createRaid("user1", "SideBoss", "Battle", 300, 700));
+
+        MemberContribution alice = aggregator.getMemberContributions().get("user1");
+        assertEquals(1000, alice.getBossBattle());
+        assertEquals(300, alice.getSidebossBattle());
+        assertEquals(2, aggregator.getRaidTable().size());
+        assertEquals(2, alice.getRaids().size());
+        assertEquals("SideBoss", alice.getRaids().get(1).getEncounterType());
+    }
+
+    @Test
+    public void testBossViewKeepsAttacksWithSameRemainingHp() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+
+        aggregator.accept(createRaid("user1", "Boss", "Bomb", 1000, 5000));
+        aggregator.accept(createRaid("user2", "Boss", "Bomb", 1000, 5000));
+        aggregator.accept(createRaid("user1", "Boss", "Battle", 5000, 0));
+        aggregator.accept(createRaid("user2", "Boss", "Battle", 5000, 0));
+
+        assertEquals(4, aggregator.getBosses().first().getAttacks().size());
+    }
+
+    @Test
+    public void testSidebossWithoutUnitId() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+        GuildRaidResponse.Raid raid = createRaid("user1", "SideBoss", "Battle", 300, 700);
+        raid.setUnitId(null);
+        aggregator.accept(raid);
+        aggregator.accept(createRaid("user1", "SideBoss", "Battle", 200, 500));
+
+        Boss boss = aggregator.getBosses().first();
+        assertEquals(2, boss.getSideboss().size());
+        assertEquals(GuildRaidResponse.UNKNOWN_UNIT_NAME, boss.getSideboss().get(0).getName());
+        assertEquals(300, boss.getSideboss().get(0).getAttacks().get(0).getDamage());
+        assertEquals("TyranWingedPrime", boss.getSideboss().get(1).getName());
+        assertEquals(500, aggregator.getMemberContributions().get("user1").getSidebossBattle());
+    }
+
+    @Test
+    public void testSidebossesKeepOrderOfFirstAttack() {
+        SeasonAggregator aggregator = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+        String[] units = {"GuildBoss1MiniBoss2Lictor", "GuildBoss1MiniBoss1TyranWingedPrime", "GuildBoss1MiniBoss2Lictor"};
+        for (int i = 0; i < units.length; i++) {
+            GuildRaidResponse.Raid raid = createRaid("user1", "SideBoss", "Battle", 100, 900 - i);
+            raid.setUnitId(units[i]);
+            aggregator.accept(raid);
+        }
+
+        Boss boss = aggregator.getBosses().first();
+        assertEquals(2, boss.getSideboss().size());
+        assertEquals("Lictor", boss.getSideboss().get(0).getName());
+        assertEquals(2, boss.getSideboss().get(0).getAttacks().size());
+        assertEquals("TyranWingedPrime", boss.getSideboss().get(1).getName());
+        assertSame(boss.getSideboss().get(0), boss.findSideboss("Lictor"));
+        assertThrows(UnsupportedOperationException.class, () -> boss.getSideboss().add(new Sideboss("Lictor")));
+    }
+
+    @Test
+    public void testParallelAggregationMatchesSequential() {
+        List<GuildRaidResponse.Raid> entries = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String encounterType = i % 3 == 0 ? "SideBoss" : "Boss";
+            GuildRaidResponse.Raid raid = createRaid("user" + (i % 7), encounterType, i % 5 == 0 ? "Bomb" : "Battle", 1000 + i, 1_000_000 - i);
+            raid.setTier(i % 4);
+            raid.setRarity(i % 2 == 0 ? "Legendary" : "Epic");
+            entries.add(raid);
+        }
+        SeasonAggregator sequential = new SeasonAggregator(memberNames, memberRoles, memberLevel, true);
+        entries.forEach(sequential);
+
+        SeasonAggregator parallel = SeasonAggregator.aggregate(entries, memberNames, memberRoles, memberLevel, true);
+
+        assertEquals(sequential.getEntryCount(), parallel.getEntryCount());
+        assertEquals(sequential.getTotalDamage(), parallel.getTotalDamage());
+        assertEquals(sequential.getMemberContributions().keySet(), parallel.getMemberContributions().keySet());
+        for (String userId : sequential.getMemberContributions().keySet()) {
+            MemberContribution expected = sequential.getMemberContributions().get(userId);
+            MemberContribution actual = parallel.getMemberContributions().get(userId);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getRole(), actual.getRole());
+            assertEquals(expected.getBossBattle(), actual.getBossBattle());
+            assertEquals(expected.getBossBomb(), actual.getBossBomb());
+            assertEquals(expected.getSidebossBattle(), actual.getSidebossBattle());
+            assertEquals(expected.getSidebossBomb(), actual.getSidebossBomb());
+            assertEquals(expected.getBattleCount(), actual.getBattleCount());
+            assertEquals(expected.getBombCount(), actual.getBombCount());
+            // Entries of a member keep the order of the list
+            assertEquals(expected.getRaids().size(), actual.getRaids().size());
+            for (int i = 0; i < expected.getRaids().size(); i++) {
+                assertEquals(expected.getRaids().get(i).getDamageDealt(), actual.getRaids().get(i).getDamageDealt());
+            }
+        }
+        assertEquals(sequential.getBosses().toString(), parallel.getBosses().toString());
+    }
+
+    @Test
+    public void testMergeAddsDischargedMembers() {
+        SeasonAggregator first = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+        SeasonAggregator second = new SeasonAggregator(memberNames, memberRoles, memberLevel, false);
+        first.accept(createRaid("user1", "Boss", "Battle", 1000, 9000));
+        second.accept(createRaid("user1", "Boss", "Bomb", 500, 8500));
+        second.accept(createRaid("former-member", "SideBoss", "Battle", 300, 700));
+
+        first.merge(second);
+
+        assertEquals(3, first.getEntryCount());
+        assertEquals(1000, first.getMemberContributions().get("user1").getBossBattle());
+        assertEquals(500, first.getMemberContributions().get("user1").getBossBomb());
+        assertEquals("Discharged", first.getMemberContributions().get("former-member").getRole());
+        assertEquals(300, first.getMemberContributions().get("former-member").getSidebossBattle());
+        assertEquals(1, first.getBosses().size());
+        assertEquals(1, first.getBosses().first().getSideboss().size());
+    }
+
+    private GuildRaidResponse.PublicHeroDetail createHero(String unitId, int power) {
+        GuildRaidResponse.PublicHeroDetail hero = new GuildRaidResponse.PublicHeroDetail();
+        hero.setUnitId(unitId);
+        hero.setPower(power);
+        return hero;
+    }
+
+    private GuildRaidResponse.Raid createRaid(String userId, String encounterType, String damageType, int damage, int remainingHp) {
+        GuildRaidResponse.Raid raid = new GuildRaidResponse.Raid();
+        raid.setUserId(userId);
+        raid.setEncounterType(encounterType);
+        raid.setDamageType(damageType);
+        raid.setDamageDealt(damage);
+        raid.setRemainingHp(remainingHp);
+        raid.setTier(1);
+        raid.setSet(0);
+        raid.setRarity("Common");
+        raid.setType("TervigonLeviathan");
+        raid.setUnitId("SideBoss".equals(encounterType) ? "GuildBoss1MiniBoss1TyranWingedPrime" : "GuildBoss1Boss1TyranTervigonLeviathan");
+        return raid;
+    }
+}
@@ -3,11 +3,14 @@ package de.blaukool.tacticus.logic;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +19,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 public class UserIDTranslatorTest {
 
+    @TempDir
+    Path tempDir;
+
     private UserIDTranslator userIDTranslator;
 
     @BeforeEach
@@ -170,4 +176,55 @@ public class UserIDTranslatorTest {
         assertEquals("EmptyUser", emptyStringTranslator.getUserName(""));
         assertEquals("NormalUser", emptyStringTranslator.getUserName("normal"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetInstance_IsShared() {
+        assertSame(UserIDTranslator.getInstance(), UserIDTranslator.getInstance());
+    }
+
+    @Test
+    public void testExternalMappingFile_OverridesClasspath() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("mapping.properties"),
+                "external-user=External\n33699d0f-e0ed-4930-833a-0d5345acda43=Renamed\n");
+
+        UserIDTranslator translator = new UserIDTranslator(file);
+
+        assertEquals("External", translator.getUserName("external-user"));
+        assertEquals("Renamed", translator.getUserName("33699d0f-e0ed-4930-833a-0d5345acda43"));
+    }
+
+    @Test
+    public void testExternalMappingFile_Missing() {
+        UserIDTranslator translator = new UserIDTranslator(tempDir.resolve("missing.properties"));
+
+        assertEquals(new UserIDTranslator().getMappingsCount(), translator.getMappingsCount());
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("mapping.properties"), "external-user=External\n");
+        UserIDTranslator translator = new UserIDTranslator(file);
+
+        Files.writeString(file, "external-user=Changed\nnew-user=New\n");
+        assertEquals("External", translator.getUserName("external-user"));
+        translator.reload();
+
+        assertEquals("Changed", translator.getUserName("external-user"));
+        assertEquals("New", translator.getUserName("new-user"));
+    }
+
+    @Test
+    public void testStartWatching_ReloadsOnChange() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("mapping.properties"), "external-user=External\n");
+        UserIDTranslator translator = new UserIDTranslator(file);
+        translator.startWatching();
+
+        Files.writeString(file, "external-user=Changed\n");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"Changed".equals(translator.getUserName("external-user")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Changed", translator.getUserName("external-user"));
+    }
+}
@@ -0,0 +1,136 @@
+package de.blaukool.tacticus.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    private MetricsRegistry metrics;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = new MetricsRegistry();
+    }
+
+    @Test
+    public void testTimer() {
+        MetricsRegistry.Timer timer = metrics.timer("phase");
+        timer.record(2_000_000);
+        timer.record(5_000_000);
+
+        assertEquals(2, timer.getCount());
+        assertEquals(7_000_000, timer.getTotalNanos());
+        assertEquals(5_000_000, timer.getMaxNanos());
+        assertEquals(7, timer.getTotalMillis());
+    }
+
+    @Test
+    public void testLabelsIdentifyMetrics() {
+        metrics.counter("bytes", "endpoint", "guild", "status", "200").add(10);
+        metrics.counter("bytes", "status", "200", "endpoint", "guild").add(5);
+        metrics.counter("bytes", "endpoint", "guildRaid", "status", "200").add(1);
+
+        assertEquals(15, metrics.counter("bytes", "endpoint", "guild", "status", "200").getValue());
+        assertEquals(1, metrics.counter("bytes", "endpoint", "guildRaid", "status", "200").getValue());
+        assertEquals(0, metrics.counter("bytes").getValue());
+        assertThrows(IllegalArgumentException.class, () -> metrics.counter("bytes", "endpoint"));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            int nanos = i;
+            executor.execute(() -> {
+                metrics.timer("phase", "thread", "any").record(nanos);
+                metrics.counter("entries").increment();
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, metrics.timer("phase", "thread", "any").getCount());
+        assertEquals(999 * 1000 / 2, metrics.timer("phase", "thread", "any").getTotalNanos());
+        assertEquals(999, metrics.timer("phase", "thread", "any").getMaxNanos());
+        assertEquals(1000, metrics.counter("entries").getValue());
+    }
+
+    @Test
+    public void testSummary() {
+        metrics.timer(MetricsRegistry.PARSE, "endpoint", "guildRaid").record(500_000_000);
+        metrics.timer(MetricsRegistry.SHEET_BUILD, "sheet", "Boss Timeline").record(3_000_000);
+        metrics.counter(MetricsRegistry.PARSE_ENTRIES).add(1000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metrics.printSummary(new PrintStream(out, true, StandardCharsets.UTF_8));
+        String summary = out.toString(StandardCharsets.UTF_8);
+
+        assertTrue(summary.contains("=== Metrics ==="));
+        assertTrue(summary.contains("sheet=Boss Timeline"));
+        assertTrue(summary.contains("endpoint=guildRaid"));
+        assertTrue(summary.contains("1,000"));
+        assertTrue(summary.contains("Parsed 1,000 raid entries at 2,000 entries/s (including season cache reads)"));
+        // Timers are listed in name order
+        assertTrue(summary.indexOf(MetricsRegistry.PARSE) < summary.indexOf(MetricsRegistry.SHEET_BUILD));
+    }
+
+    @Test
+    public void testJson(@TempDir Path directory) throws Exception {
+        metrics.timer(MetricsRegistry.FETCH, "endpoint", "guild", "status", "200").record(1_500_000);
+        metrics.counter(MetricsRegistry.FETCH_BYTES, "endpoint", "guild").add(2048);
+        Path file = directory.resolve("metrics.json");
+
+        metrics.writeJson(file);
+
+        JsonNode json = new ObjectMapper().readTree(file.toFile());
+        JsonNode timer = json.get("timers").get(0);
+        assertEquals(MetricsRegistry.FETCH, timer.get("name").asText());
+        assertEquals("200", timer.get("labels").get("status").asText());
+        assertEquals(1, timer.get("count").asLong());
+        assertEquals(1.5, timer.get("totalMillis").asDouble(), 1e-9);
+        JsonNode counter = json.get("counters").get(0);
+        assertEquals(MetricsRegistry.FETCH_BYTES, counter.get("name").asText());
+        assertEquals(2048, counter.get("value").asLong());
+    }
+
+    @Test
+    public void testPrometheus(@TempDir Path directory) throws Exception {
+        metrics.timer(MetricsRegistry.WORKBOOK_WRITE, "writer", "sxssf").record(250_000_000);
+        metrics.timer(MetricsRegistry.WORKBOOK_WRITE, "writer", "ooxml").record(50_000_000);
+        metrics.counter(MetricsRegistry.FETCH_BYTES, "endpoint", "gu\"ild").add(7);
+
+        StringWriter writer = new StringWriter();
+        metrics.writePrometheus(writer);
+        String text = writer.toString();
+
+        assertEquals(1, text.split("# TYPE tacticus_workbook_write_seconds summary", -1).length - 1);
+        assertTrue(text.contains("tacticus_workbook_write_seconds_count{writer=\"sxssf\"} 1\n"));
+        assertTrue(text.contains("tacticus_workbook_write_seconds_sum{writer=\"sxssf\"} 0.25\n"));
+        assertTrue(text.contains("tacticus_workbook_write_seconds_max{writer=\"ooxml\"} 0.05\n"));
+        // The maximum is a gauge family of its own, after all samples of the summary
+        int gauge = text.indexOf("# TYPE tacticus_workbook_write_seconds_max gauge\n");
+        assertTrue(gauge > text.lastIndexOf("tacticus_workbook_write_seconds_sum"));
+        assertTrue(gauge < text.indexOf("tacticus_workbook_write_seconds_max{"));
+        assertTrue(text.contains("# TYPE tacticus_fetch_bytes_total counter\n"));
+        assertTrue(text.contains("tacticus_fetch_bytes_total{endpoint=\"gu\\\"ild\"} 7\n"));
+
+        Path file = directory.resolve("metrics.prom");
+        metrics.writePrometheus(file);
+        assertEquals(text, Files.readString(file));
+    }
+}
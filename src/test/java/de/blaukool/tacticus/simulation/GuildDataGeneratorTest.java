@@ -0,0 +1,146 @@
+package de.blaukool.tacticus.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.blaukool.tacticus.api.DamageType;
+import de.blaukool.tacticus.api.EncounterType;
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuildDataGeneratorTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Test
+    public void testSameSeedSameData() throws Exception {
+        byte[] first = writeSeason(new GuildDataGenerator(42, 20, 500), 70);
+        byte[] second = writeSeason(new GuildDataGenerator(42, 20, 500), 70);
+        byte[] otherSeed = writeSeason(new GuildDataGenerator(43, 20, 500), 70);
+
+        assertArrayEquals(first, second);
+        assertFalse(Arrays.equals(first, otherSeed));
+    }
+
+    @Test
+    public void testSeasonIsIndependentOfOtherSeasons() throws Exception {
+        GuildDataGenerator generator = new GuildDataGenerator(7, 10, 200);
+        byte[] season71 = writeSeason(generator, 71);
+        writeSeason(generator, 70);
+
+        assertArrayEquals(season71, writeSeason(generator, 71));
+    }
+
+    @Test
+    public void testSeasonCanBeParsed() throws Exception {
+        GuildDataGenerator generator = new GuildDataGenerator(1, 30, 3000);
+
+        GuildRaidResponse response = objectMapper.readValue(writeSeason(generator, 75), GuildRaidResponse.class);
+
+        assertEquals(75, response.getSeason());
+        assertEquals(3000, response.getEntries().size());
+        Set<String> users = new HashSet<>();
+        boolean bombs = false;
+        boolean sidebosses = false;
+        for (GuildRaidResponse.Raid raid : response.getEntries()) {
+            users.add(raid.getUserId());
+            assertTrue(raid.getDamageDealt() > 0);
+            assertNotNull(raid.getStartedOn());
+            assertFalse(raid.getCompletedOn().before(raid.getStartedOn()));
+            assertNotEquals(EncounterType.UNKNOWN, raid.getEncounterTypeValue());
+            assertNotEquals(DamageType.UNKNOWN, raid.getDamageTypeValue());
+            assertNotNull(GuildRaidResponse.formatUnitId(raid.getUnitId()));
+            if (raid.getDamageTypeValue() == DamageType.BOMB) {
+                bombs = true;
+                assertTrue(raid.getHeroDetails().isEmpty());
+            } else {
+                assertEquals(5, raid.getHeroDetails().size());
+            }
+            sidebosses |= raid.getEncounterTypeValue() == EncounterType.SIDE_BOSS;
+        }
+        assertTrue(bombs);
+        assertTrue(sidebosses);
+        assertTrue(users.size() > 20);
+    }
+
+    @Test
+    public void testEncountersAreFoughtInOrder() {
+        GuildDataGenerator generator = new GuildDataGenerator(3, 30, 5000);
+        List<GuildRaidResponse.Raid> raids = new ArrayList<>();
+
+        generator.generateSeason(80, raids::add);
+
+        GuildRaidResponse.Raid previous = null;
+        for (GuildRaidResponse.Raid raid : raids) {
+            if (previous != null) {
+                assertFalse(raid.getStartedOn().before(previous.getStartedOn()));
+            }
+            if (previous != null && sameEncounter(raid, previous)) {
+                assertEquals(previous.getRemainingHp() - raid.getDamageDealt(), raid.getRemainingHp());
+            } else {
+                // A new encounter starts at full HP once the previous one is defeated
+                assertTrue(previous == null || previous.getRemainingHp() == 0);
+                assertEquals(raid.getMaxHp() - raid.getDamageDealt(), raid.getRemainingHp());
+            }
+            previous = raid;
+        }
+        assertTrue(previous.getTier() > 0);
+        long start = GuildDataGenerator.seasonStart(80);
+        assertTrue(raids.get(0).getStartedOn().getTime() >= start);
+        assertTrue(previous.getStartedOn().getTime() < start + GuildDataGenerator.SEASON_MILLIS);
+    }
+
+    @Test
+    public void testWriteToDirectory(@TempDir Path directory) throws Exception {
+        GuildDataGenerator generator = new GuildDataGenerator(5, 12, 100);
+
+        generator.writeTo(directory, 60, 62);
+
+        GuildResponse guild = objectMapper.readValue(directory.resolve(GuildDataGenerator.GUILD_FILE).toFile(), GuildResponse.class);
+        assertEquals(List.of(60, 61, 62), guild.getGuild().getGuildRaidSeasons());
+        assertEquals(12, guild.getGuild().getMembers().size());
+        assertEquals(Role.LEADER, guild.getGuild().getMembers().get(0).getRoleValue());
+        assertNotNull(guild.getGuild().getMembers().get(0).getLastActivityOn());
+        for (int season = 60; season <= 62; season++) {
+            assertTrue(Files.exists(directory.resolve(String.format(GuildDataGenerator.SEASON_FILE_FORMAT, season))));
+        }
+        String mapping = Files.readString(directory.resolve(GuildDataGenerator.USER_MAPPING_FILE));
+        assertTrue(mapping.contains(guild.getGuild().getMembers().get(0).getUserId() + "=Member1"));
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new GuildDataGenerator(1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GuildDataGenerator(1, 10, -1));
+    }
+
+    private static boolean sameEncounter(GuildRaidResponse.Raid a, GuildRaidResponse.Raid b) {
+        return a.getTier() == b.getTier() && a.getSet() == b.getSet() && a.getEncounterIndex() == b.getEncounterIndex();
+    }
+
+    private static byte[] writeSeason(GuildDataGenerator generator, int season) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.writeSeason(out, season);
+        return out.toByteArray();
+    }
+}
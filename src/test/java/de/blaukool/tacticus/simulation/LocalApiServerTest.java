@@ -0,0 +1,135 @@
+package de.blaukool.tacticus.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.blaukool.tacticus.api.GuildRaidResponse;
+import de.blaukool.tacticus.api.GuildResponse;
+import de.blaukool.tacticus.api.RequestScheduler;
+import de.blaukool.tacticus.api.TacticusApiClient;
+import de.blaukool.tacticus.api.TacticusApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalApiServerTest {
+
+    private LocalApiServer server;
+    private TacticusApiClient client;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (client != null) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testServesGeneratedData() throws Exception {
+        GuildDataGenerator generator = new GuildDataGenerator(9, 15, 400);
+        server = LocalApiServer.serveGenerated(0, generator, 70, 72, LocalApiServer.Faults.NONE);
+        client = createClient(1);
+
+        GuildResponse guild = client.getGuild("key");
+        List<GuildRaidResponse.Raid> raids = new ArrayList<>();
+        GuildRaidResponse season = client.getGuildRaidSeason("key", null, 71, true, raids::add);
+        GuildRaidResponse current = client.get("key", "/api/v1/guildRaid", RequestScheduler.Priority.CURRENT,
+                content -> new ObjectMapper().readValue(content, GuildRaidResponse.class));
+
+        assertEquals(15, guild.getGuild().getMembers().size());
+        assertEquals(List.of(70, 71, 72), guild.getGuild().getGuildRaidSeasons());
+        assertEquals(71, season.getSeason());
+        assertEquals(400, raids.size());
+        assertEquals(72, current.getSeason());
+        assertEquals(3, server.getResponseCount(200));
+    }
+
+    @Test
+    public void testServesDirectory(@TempDir Path directory) throws Exception {
+        new GuildDataGenerator(9, 5, 50).writeTo(directory, 60, 61);
+        server = LocalApiServer.serveDirectory(0, directory, LocalApiServer.Faults.NONE);
+        client = createClient(1);
+
+        List<GuildRaidResponse.Raid> raids = new ArrayList<>();
+        client.getGuildRaidSeason("key", null, 61, true, raids::add);
+
+        assertEquals(5, client.getGuild("key").getGuild().getMembers().size());
+        assertEquals(50, raids.size());
+        TacticusApiException e = assertThrows(TacticusApiException.class,
+                () -> client.getGuildRaidSeason("key", null, 62, true, raid -> { }));
+        assertEquals(TacticusApiException.Type.NOT_FOUND, e.getType());
+    }
+
+    @Test
+    public void testMissingApiKeyIsForbidden() throws Exception {
+        server = LocalApiServer.serveGenerated(0, new GuildDataGenerator(1, 5, 10), 70, 70, LocalApiServer.Faults.NONE);
+        client = createClient(1);
+
+        TacticusApiException e = assertThrows(TacticusApiException.class, () -> client.getGuild(" "));
+        assertEquals(TacticusApiException.Type.FORBIDDEN, e.getType());
+    }
+
+    @Test
+    public void testInjectedErrorsAreRetried() throws Exception {
+        LocalApiServer.Faults faults = new LocalApiServer.Faults(0, 0, 0, 0, 1.0, 0);
+        server = LocalApiServer.serveGenerated(0, new GuildDataGenerator(1, 5, 10), 70, 70, faults);
+        client = createClient(3);
+
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            TacticusApiException e = assertThrows(TacticusApiException.class, () -> client.getGuild("key"));
+            assertEquals(TacticusApiException.Type.UNKNOWN_ERROR, e.getType());
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals(3, server.getRequestCount());
+        assertEquals(3, server.getResponseCount(500));
+    }
+
+    @Test
+    public void testThrottling() throws Exception {
+        LocalApiServer.Faults faults = new LocalApiServer.Faults(0, 0, 0, 0, 0, 1);
+        server = LocalApiServer.serveGenerated(0, new GuildDataGenerator(1, 5, 10), 70, 70, faults);
+        client = createClient(3);
+
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            client.getGuild("key");
+            client.getGuild("key");
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertEquals(2, server.getResponseCount(200));
+        assertTrue(server.getResponseCount(429) >= 1);
+    }
+
+    @Test
+    public void testLatency() throws Exception {
+        server = LocalApiServer.serveGenerated(0, new GuildDataGenerator(1, 5, 10), 70, 70,
+                new LocalApiServer.Faults(200, 0, 0, 0, 0, 0));
+        client = createClient(1);
+
+        long start = System.nanoTime();
+        client.getGuild("key");
+
+        assertTrue(System.nanoTime() - start >= 200_000_000L);
+    }
+
+    private TacticusApiClient createClient(int maxAttempts) {
+        TacticusApiClient.Settings settings = new TacticusApiClient.Settings(2, 1000, 5000, 10_000, maxAttempts, 1, 5, 1000, 0, 1);
+        return new TacticusApiClient(server.getBaseUrl(), settings, null);
+    }
+}